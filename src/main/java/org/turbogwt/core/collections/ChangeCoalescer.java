@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.Scheduler;
+
+/**
+ * Coalesces the changes made to an observable collection, delivering them once per browser event loop turn
+ * (by means of {@link Scheduler#scheduleFinally(Scheduler.ScheduledCommand)}) or at the end of a batch.
+ *
+ * @author Danilo Reinert
+ */
+abstract class ChangeCoalescer implements Scheduler.ScheduledCommand {
+
+    private boolean scheduled;
+    private int batchDepth;
+
+    /**
+     * Delivers the pending changes, if any.
+     */
+    abstract void flush();
+
+    /**
+     * Notifies that a change has been recorded.
+     */
+    void changed() {
+        if (batchDepth == 0 && !scheduled) {
+            scheduled = true;
+            Scheduler.get().scheduleFinally(this);
+        }
+    }
+
+    void batch(Scheduler.ScheduledCommand command) {
+        batchDepth++;
+        try {
+            command.execute();
+        } finally {
+            if (--batchDepth == 0) flush();
+        }
+    }
+
+    @Override
+    public void execute() {
+        scheduled = false;
+        if (batchDepth == 0) flush();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A serializable predicate for {@link Offload#filter}: a conjunction of comparisons between an element, or one of its
+ * properties, and a constant.
+ *
+ * <pre>
+ *     FilterSpec spec = FilterSpec.create()
+ *             .where("age", FilterSpec.Operator.GE, 18)
+ *             .where("country", FilterSpec.Operator.EQ, "BR");
+ * </pre>
+ *
+ * @author Danilo Reinert
+ */
+public class FilterSpec extends JavaScriptObject {
+
+    /**
+     * Comparison between the element value and the constant.
+     */
+    public enum Operator {
+        EQ, NE, LT, LE, GT, GE
+    }
+
+    protected FilterSpec() {
+    }
+
+    /**
+     * Creates a spec which accepts every element.
+     */
+    public static FilterSpec create() {
+        return JavaScriptObject.createArray().cast();
+    }
+
+    public final FilterSpec where(Operator operator, double value) {
+        return where(null, operator, value);
+    }
+
+    public final FilterSpec where(Operator operator, String value) {
+        return where(null, operator, value);
+    }
+
+    /**
+     * Adds a comparison against a numeric property.
+     *
+     * @param property the element property, or null to compare the element itself
+     * @param operator the comparison
+     * @param value the constant
+     * @return this spec
+     */
+    public final FilterSpec where(String property, Operator operator, double value) {
+        addNumber(property, operator.name(), value);
+        return this;
+    }
+
+    public final FilterSpec where(String property, Operator operator, String value) {
+        addString(property, operator.name(), value);
+        return this;
+    }
+
+    public final FilterSpec where(String property, Operator operator, boolean value) {
+        addBoolean(property, operator.name(), value);
+        return this;
+    }
+
+    public final native int size() /*-{
+        return this.length;
+    }-*/;
+
+    private native void addNumber(String property, String operator, double value) /*-{
+        this.push({p: property, op: operator, v: value});
+    }-*/;
+
+    private native void addString(String property, String operator, String value) /*-{
+        this.push({p: property, op: operator, v: value});
+    }-*/;
+
+    private native void addBoolean(String property, String operator, boolean value) /*-{
+        this.push({p: property, op: operator, v: value});
+    }-*/;
+}
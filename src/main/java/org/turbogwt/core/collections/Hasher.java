@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+/**
+ * Strategy for hashing and comparing values stored in hash based collections, like {@link JsHashTable}.
+ * <p>
+ *
+ * Implementations must be consistent: whenever {@link #equals(Object, Object)} returns true for two values,
+ * {@link #hash(Object)} must return the same code for both of them.
+ * <p>
+ *
+ * See {@link Hashers} for the built-in strategies.
+ *
+ * @param <T> Type of hashed values
+ *
+ * @author Danilo Reinert
+ */
+public interface Hasher<T> {
+
+    /**
+     * Computes the hash code of the given value.
+     *
+     * @param value the non null value to hash
+     * @return the hash code of the value
+     */
+    int hash(T value);
+
+    /**
+     * Checks whether two values are equivalent according to this strategy.
+     *
+     * @param a a non null value
+     * @param b a non null value
+     * @return <code>true</code> if the values are equivalent, <code>false</code> otherwise
+     */
+    boolean equals(T a, T b);
+}
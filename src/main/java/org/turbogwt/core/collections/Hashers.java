@@ -0,0 +1,182 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+
+/**
+ * Built-in {@link Hasher} strategies.
+ *
+ * @author Danilo Reinert
+ */
+public final class Hashers {
+
+    private static final Hasher<Object> IDENTITY = new Hasher<Object>() {
+        @Override
+        public int hash(Object value) {
+            return System.identityHashCode(value);
+        }
+
+        @Override
+        public boolean equals(Object a, Object b) {
+            return a == b;
+        }
+    };
+
+    private static final Hasher<Object> STRICT = new Hasher<Object>() {
+        @Override
+        public int hash(Object value) {
+            return value instanceof String ? value.hashCode() : System.identityHashCode(value);
+        }
+
+        @Override
+        public boolean equals(Object a, Object b) {
+            return a == b || (a instanceof String && a.equals(b));
+        }
+    };
+
+    private static final Hasher<Object> EQUALITY = new Hasher<Object>() {
+        @Override
+        public int hash(Object value) {
+            return value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object a, Object b) {
+            return a == b || a.equals(b);
+        }
+    };
+
+    private static final Hasher<String> CASE_INSENSITIVE = new Hasher<String>() {
+        @Override
+        public int hash(String value) {
+            int h = 0;
+            for (int i = 0, l = value.length(); i < l; i++) {
+                h = 31 * h + Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(String a, String b) {
+            return a.equalsIgnoreCase(b);
+        }
+    };
+
+    private Hashers() {
+    }
+
+    /**
+     * Hashes values by their identity, ignoring their hashCode and equals methods.
+     *
+     * @param <T> Type of hashed values
+     * @return the identity strategy
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Hasher<T> identity() {
+        return (Hasher<T>) IDENTITY;
+    }
+
+    /**
+     * Hashes values the same way javascript's strict equality (===) compares them:
+     * Strings by value and any other object by identity.
+     * <p>
+     *
+     * It is the semantics of native lookups like {@link JsArray#indexOf(Object)}.
+     *
+     * @param <T> Type of hashed values
+     * @return the strict strategy
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Hasher<T> strict() {
+        return (Hasher<T>) STRICT;
+    }
+
+    /**
+     * Hashes values by their hashCode and equals methods, the same way {@link java.util.HashSet} does.
+     *
+     * @param <T> Type of hashed values
+     * @return the equality strategy
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Hasher<T> equality() {
+        return (Hasher<T>) EQUALITY;
+    }
+
+    /**
+     * Hashes Strings ignoring their case.
+     *
+     * @return the case insensitive strategy
+     */
+    public static Hasher<String> caseInsensitive() {
+        return CASE_INSENSITIVE;
+    }
+
+    /**
+     * Hashes Overlay Types by the value of the given properties.
+     * <p>
+     *
+     * Two overlays are considered equivalent if all the given properties are strictly equal (===) in both.
+     * It allows value semantics over overlays without wrapping them in Java objects.
+     *
+     * @param properties the properties which identify the overlay
+     * @param <T> Type of hashed values
+     * @return the property strategy
+     */
+    public static <T extends JavaScriptObject> Hasher<T> property(String... properties) {
+        if (properties.length == 0)
+            throw new IllegalArgumentException("At least one property must be informed.");
+        return new PropertyHasher<>(JsArrays.fromArray(properties));
+    }
+
+    private static class PropertyHasher<T extends JavaScriptObject> implements Hasher<T> {
+
+        private final JsArrayString properties;
+
+        private PropertyHasher(JsArrayString properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public int hash(T value) {
+            return hash0(value, properties);
+        }
+
+        @Override
+        public boolean equals(T a, T b) {
+            return equals0(a, b, properties);
+        }
+
+        private static native int hash0(JavaScriptObject jso, JsArrayString properties) /*-{
+            var h = 0;
+            for (var i = 0; i < properties.length; i++) {
+                var v = jso[properties[i]], s = v == null ? '' : '' + v, k = 0;
+                for (var j = 0; j < s.length; j++) k = (31 * k + s.charCodeAt(j)) | 0;
+                h = (31 * h + k) | 0;
+            }
+            return h;
+        }-*/;
+
+        private static native boolean equals0(JavaScriptObject a, JavaScriptObject b,
+                                              JsArrayString properties) /*-{
+            for (var i = 0; i < properties.length; i++) {
+                if (a[properties[i]] !== b[properties[i]]) return false;
+            }
+            return true;
+        }-*/;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A native table of entries keyed by object identity, without hashing nor buckets.
+ * <p>
+ *
+ * It is backed by a native Map where available. Otherwise, each key object is stamped with a hidden non-enumerable
+ * id on its first insertion, and entries are stored in plain objects by that id. Strings are keyed by value, as they
+ * cannot be stamped (and are compared by value in javascript anyway).
+ * <p>
+ *
+ * Only usable in production mode, since Java objects cannot be stamped in development mode.
+ *
+ * @author Danilo Reinert
+ */
+final class IdentityTable extends JavaScriptObject {
+
+    private static int lastId;
+
+    protected IdentityTable() {
+    }
+
+    static native IdentityTable create() /*-{
+        if (typeof Map == 'function') return {m: new Map()};
+        return {k: {}, v: {}, n: 0};
+    }-*/;
+
+    final native boolean containsKey(Object key) /*-{
+        if (this.m) return this.m.has(key);
+        var id = typeof key == 'string' ? 's' + key : key.__tgId__;
+        return id !== undefined && this.k.hasOwnProperty(id);
+    }-*/;
+
+    final native <V> V get(Object key) /*-{
+        if (this.m) return this.m.get(key);
+        var id = typeof key == 'string' ? 's' + key : key.__tgId__;
+        return id !== undefined && this.k.hasOwnProperty(id) ? this.v[id] : null;
+    }-*/;
+
+    final native void put(Object key, Object value) /*-{
+        if (this.m) {
+            this.m.set(key, value);
+            return;
+        }
+        var id;
+        if (typeof key == 'string') {
+            id = 's' + key;
+        } else {
+            id = key.__tgId__;
+            if (id === undefined) {
+                id = ++@org.turbogwt.core.collections.IdentityTable::lastId;
+                Object.defineProperty(key, '__tgId__', {value: id});
+            }
+        }
+        if (!this.k.hasOwnProperty(id)) {
+            this.k[id] = key;
+            this.n++;
+        }
+        this.v[id] = value;
+    }-*/;
+
+    final native boolean remove(Object key) /*-{
+        if (this.m) return this.m['delete'](key);
+        var id = typeof key == 'string' ? 's' + key : key.__tgId__;
+        if (id === undefined || !this.k.hasOwnProperty(id)) return false;
+        delete this.k[id];
+        delete this.v[id];
+        this.n--;
+        return true;
+    }-*/;
+
+    final native int size() /*-{
+        return this.m ? this.m.size : this.n;
+    }-*/;
+
+    final native void clear() /*-{
+        if (this.m) {
+            this.m.clear();
+        } else {
+            this.k = {};
+            this.v = {};
+            this.n = 0;
+        }
+    }-*/;
+
+    /**
+     * Returns a snapshot of the keys.
+     */
+    final native <K> JsArray<K> keys() /*-{
+        var keys = [];
+        if (this.m) {
+            this.m.forEach(function (value, key) {
+                keys.push(key);
+            });
+        } else {
+            for (var id in this.k) keys.push(this.k[id]);
+        }
+        return keys;
+    }-*/;
+}
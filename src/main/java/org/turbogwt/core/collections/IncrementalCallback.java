@@ -0,0 +1,41 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+/**
+ * Receives the outcome of an {@link IncrementalTask}.
+ *
+ * @param <R> Type of the task result
+ *
+ * @author Danilo Reinert
+ */
+public interface IncrementalCallback<R> {
+
+    /**
+     * Called at the end of every time slice which did not complete the task.
+     *
+     * @param processed number of elements processed so far
+     * @param total     total number of elements
+     */
+    void onProgress(int processed, int total);
+
+    void onComplete(R result);
+
+    /**
+     * Called once the task is cancelled. No other method is called afterwards.
+     */
+    void onCancel();
+}
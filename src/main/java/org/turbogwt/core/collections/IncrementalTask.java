@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.Scheduler;
+
+/**
+ * Processes the elements of a {@link JsArray} in time slices, yielding to the browser between them.
+ * <p>
+ *
+ * Each slice runs for at most the configured budget (plus the time of one element), so long loops do not block the
+ * UI thread or trigger unresponsive script warnings. The task is driven by
+ * {@link Scheduler#scheduleIncremental(Scheduler.RepeatingCommand)} once {@link #schedule()} is called, or manually
+ * by calling {@link #execute()} until it returns <code>false</code>.
+ *
+ * @param <T> Type of the processed elements
+ * @param <R> Type of the task result
+ *
+ * @author Danilo Reinert
+ */
+public abstract class IncrementalTask<T, R> implements Scheduler.RepeatingCommand {
+
+    public static final int DEFAULT_SLICE_MILLIS = 8;
+
+    private final JsArray<T> source;
+    private final IncrementalCallback<? super R> callback;
+    private int sliceMillis = DEFAULT_SLICE_MILLIS;
+    private int cursor;       // index of next element to process
+    private boolean cancelled;
+    private boolean done;
+
+    protected IncrementalTask(JsArray<T> source, IncrementalCallback<? super R> callback) {
+        this.source = source;
+        this.callback = callback;
+    }
+
+    /**
+     * Processes one element.
+     *
+     * @param value the element
+     */
+    protected abstract void process(T value);
+
+    /**
+     * Returns the result once all elements were processed.
+     */
+    protected abstract R result();
+
+    public IncrementalTask<T, R> setSliceMillis(int sliceMillis) {
+        if (sliceMillis < 1) throw new IllegalArgumentException("Slice must be at least 1 ms");
+        this.sliceMillis = sliceMillis;
+        return this;
+    }
+
+    public int getSliceMillis() {
+        return sliceMillis;
+    }
+
+    /**
+     * Starts running the task in the background.
+     *
+     * @return this task
+     */
+    public IncrementalTask<T, R> schedule() {
+        Scheduler.get().scheduleIncremental(this);
+        return this;
+    }
+
+    /**
+     * Stops the task before its next slice. The callback is notified with {@link IncrementalCallback#onCancel()}.
+     */
+    public void cancel() {
+        if (done || cancelled) return;
+        cancelled = true;
+        callback.onCancel();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public int getProcessed() {
+        return cursor;
+    }
+
+    /**
+     * Runs one time slice.
+     *
+     * @return <code>true</code> if there are elements left to process, <code>false</code> otherwise
+     */
+    @Override
+    public boolean execute() {
+        if (cancelled || done) return false;
+
+        final double deadline = Duration.currentTimeMillis() + sliceMillis;
+        final int length = source.length();
+        while (cursor < length) {
+            process(source.get(cursor++));
+            if (cancelled) return false;
+            if (cursor < length && Duration.currentTimeMillis() >= deadline) {
+                callback.onProgress(cursor, length);
+                return true;
+            }
+        }
+
+        done = true;
+        callback.onComplete(result());
+        return false;
+    }
+}
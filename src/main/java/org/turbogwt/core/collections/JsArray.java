@@ -18,6 +18,8 @@ package org.turbogwt.core.collections;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
 
+import java.util.Comparator;
+
 /**
  * A more featured extension of {@link com.google.gwt.core.client.JsArray}.
  *
@@ -209,6 +211,48 @@ public class JsArray<T> extends JavaScriptObject {
         return this.pop()
     }-*/;
 
+    /**
+     * Copies the values from <code>begin</code> (inclusive) to <code>end</code> (exclusive) into a Java array.
+     * It takes a single native call in production mode instead of one call per value.
+     *
+     * @param begin the first index to copy
+     * @param end the index after the last one to copy
+     * @param dest the destination array
+     * @param destPos the position in the destination array of the first copied value
+     */
+    public final void getRange(int begin, int end, T[] dest, int destPos) {
+        checkRange(begin, end, length());
+        checkRange(destPos, destPos + end - begin, dest.length);
+        if (GWT.isScript()) {
+            getRange0(begin, end, dest, destPos);
+        } else {
+            for (int i = begin; i < end; i++) {
+                dest[destPos++] = get(i);
+            }
+        }
+    }
+
+    /**
+     * Copies values from a Java array into this array, starting at the given index and growing the array if needed.
+     * It takes a single native call in production mode instead of one call per value.
+     *
+     * @param index the index in this array of the first copied value
+     * @param src the source array
+     * @param srcPos the position in the source array of the first value to copy
+     * @param count the number of values to copy
+     */
+    public final void setRange(int index, T[] src, int srcPos, int count) {
+        checkRange(index, index, length());
+        checkRange(srcPos, srcPos + count, src.length);
+        if (GWT.isScript()) {
+            setRange0(index, src, srcPos, count);
+        } else {
+            for (int i = 0; i < count; i++) {
+                set(index + i, src[srcPos + i]);
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public final Object[] toArray() {
         if (GWT.isScript()) {
@@ -233,6 +277,184 @@ public class JsArray<T> extends JavaScriptObject {
         }
     }
 
+    /**
+     * Searches a value in this array, which must be sorted by the given comparator, using binary search.
+     *
+     * @param key the value to search for
+     * @param comparator the comparator by which the array is sorted, or null for natural ordering
+     * @return the index of the value, if it is contained; otherwise, <code>(-(insertion point) - 1)</code>
+     */
+    public final int binarySearch(T key, Comparator<? super T> comparator) {
+        final int i = lowerBound(key, comparator);
+        return i < length() && compare(comparator, get(i), key) == 0 ? i : -(i + 1);
+    }
+
+    /**
+     * Finds the first position, in this sorted array, whose value is greater than or equal to the given key.
+     *
+     * @param key the reference value
+     * @param comparator the comparator by which the array is sorted, or null for natural ordering
+     * @return the position found, or {@link #length()} if none
+     */
+    public final int lowerBound(T key, Comparator<? super T> comparator) {
+        int low = 0;
+        int high = length();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compare(comparator, get(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first position, in this sorted array, whose value is strictly greater than the given key.
+     *
+     * @param key the reference value
+     * @param comparator the comparator by which the array is sorted, or null for natural ordering
+     * @return the position found, or {@link #length()} if none
+     */
+    public final int upperBound(T key, Comparator<? super T> comparator) {
+        int low = 0;
+        int high = length();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compare(comparator, get(mid), key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Inserts the value after any equal values, keeping this array sorted.
+     *
+     * @param value the value to insert
+     * @param comparator the comparator by which the array is sorted, or null for natural ordering
+     * @return the position where the value was inserted
+     */
+    public final int insertSorted(T value, Comparator<? super T> comparator) {
+        final int i = upperBound(value, comparator);
+        splice(i, value);
+        return i;
+    }
+
+    /**
+     * Removes in place all but the first value of each run of equal values of this sorted array.
+     *
+     * @param comparator the comparator by which the array is sorted, or null for natural ordering
+     * @return the new length of the array
+     */
+    public final int dedupeSorted(Comparator<? super T> comparator) {
+        final int length = length();
+        if (length < 2) return length;
+
+        int last = 0;
+        for (int i = 1; i < length; i++) {
+            final T value = get(i);
+            if (compare(comparator, get(last), value) != 0) {
+                set(++last, value);
+            }
+        }
+        setLength(last + 1);
+        return last + 1;
+    }
+
+    /**
+     * Extracts the values of this sorted array which are greater than or equal to <code>from</code> and strictly less
+     * than <code>to</code>.
+     *
+     * @param from the lower bound, inclusive
+     * @param to the upper bound, exclusive
+     * @param comparator the comparator by which the array is sorted, or null for natural ordering
+     * @return a new array with the values in range
+     */
+    public final JsArray<T> range(T from, T to, Comparator<? super T> comparator) {
+        final int begin = lowerBound(from, comparator);
+        final int end = lowerBound(to, comparator);
+        return begin < end ? slice(begin, end) : JsArray.<T>create();
+    }
+
+    /**
+     * Merges many sorted arrays into a new sorted array. Equal values keep the order of the arrays they came from.
+     * The arrays are merged in pairs, so it takes O(n log k) comparisons for n values in k arrays.
+     *
+     * @param arrays the sorted arrays
+     * @param comparator the comparator by which the arrays are sorted, or null for natural ordering
+     * @param <T> Type of array values
+     * @return a new sorted array with all the values
+     */
+    public static <T> JsArray<T> mergeSorted(JsArray<JsArray<T>> arrays, Comparator<? super T> comparator) {
+        final int k = arrays.length();
+        if (k == 0) return create();
+        if (k == 1) return arrays.get(0).slice(0);
+
+        JsArray<JsArray<T>> round = arrays;
+        while (round.length() > 1) {
+            final JsArray<JsArray<T>> next = create();
+            for (int i = 0; i < round.length(); i += 2) {
+                next.push(i + 1 < round.length() ? merge(round.get(i), round.get(i + 1), comparator) : round.get(i));
+            }
+            round = next;
+        }
+        return round.get(0);
+    }
+
+    /**
+     * Merges two sorted arrays into a new sorted array.
+     *
+     * @param a the first sorted array
+     * @param b the second sorted array
+     * @param comparator the comparator by which the arrays are sorted, or null for natural ordering
+     * @param <T> Type of array values
+     * @return a new sorted array with all the values
+     */
+    public static <T> JsArray<T> merge(JsArray<T> a, JsArray<T> b, Comparator<? super T> comparator) {
+        final JsArray<T> merged = create();
+        final int la = a.length();
+        final int lb = b.length();
+        int i = 0;
+        int j = 0;
+        while (i < la && j < lb) {
+            // take from the first array on ties to keep the merge stable
+            if (compare(comparator, b.get(j), a.get(i)) < 0) {
+                merged.push(b.get(j++));
+            } else {
+                merged.push(a.get(i++));
+            }
+        }
+        while (i < la) {
+            merged.push(a.get(i++));
+        }
+        while (j < lb) {
+            merged.push(b.get(j++));
+        }
+        return merged;
+    }
+
+    private native void getRange0(int begin, int end, T[] dest, int destPos) /*-{
+        for (var i = begin; i < end; i++) dest[destPos++] = this[i];
+    }-*/;
+
+    private native void setRange0(int index, T[] src, int srcPos, int count) /*-{
+        for (var i = 0; i < count; i++) this[index + i] = src[srcPos + i];
+    }-*/;
+
+    private static void checkRange(int begin, int end, int length) {
+        if (begin < 0 || begin > end || end > length)
+            throw new IndexOutOfBoundsException("Range: [" + begin + ", " + end + "), Length: " + length);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> int compare(Comparator<? super T> comparator, T a, T b) {
+        return comparator != null ? comparator.compare(a, b) : ((Comparable<? super T>) a).compareTo(b);
+    }
+
     private static native <T> T[] reinterpretCast(JsArray<T> value) /*-{
         return value;
     }-*/;
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import java.util.AbstractCollection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An implementation of {@link java.util.Deque} over a circular {@link JsArray}.
+ * <p>
+ *
+ * Unlike {@link JsArray#shift()} and {@link JsArray#unshift(Object)}, which re-index the whole array,
+ * insertions and removals at both ends run in amortized constant time. The inner array has a power of two length
+ * and doubles when full.
+ * <p>
+ *
+ * A deque created by {@link #bounded(int)} never grows: when it is full, inserting an element at one end discards
+ * the element at the other end, which makes it suitable for sliding windows.
+ * <p>
+ *
+ * This deque does not support null values.
+ *
+ * @param <T> Type of deque values
+ *
+ * @author Danilo Reinert
+ */
+public class JsArrayDeque<T> extends AbstractCollection<T> implements Deque<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int maxSize; // -1 if unbounded
+    private JsArray<T> elements;
+    private int mask;
+    private int head;          // physical index of the first element
+    private int size;
+
+    public JsArrayDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public JsArrayDeque(int initialCapacity) {
+        this(initialCapacity, -1);
+    }
+
+    private JsArrayDeque(int initialCapacity, int maxSize) {
+        this.maxSize = maxSize;
+        allocate(powerOfTwo(Math.max(initialCapacity, 1)));
+    }
+
+    /**
+     * Creates a deque which holds at most the given number of elements.
+     * When full, inserting an element at one end discards the element at the other end.
+     *
+     * @param capacity the maximum number of elements
+     * @param <T> Type of deque values
+     * @return the bounded deque
+     */
+    public static <T> JsArrayDeque<T> bounded(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive.");
+        return new JsArrayDeque<>(capacity, capacity);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the element at the given position, counting from the head.
+     *
+     * @param index the position of the element
+     * @return the element at the given position
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index);
+
+        return elements.get((head + index) & mask);
+    }
+
+    @Override
+    public void addFirst(T t) {
+        checkNotNull(t);
+        if (size == maxSize) {
+            removeLast();
+        } else if (size == mask + 1) {
+            grow();
+        }
+        head = (head - 1) & mask;
+        elements.set(head, t);
+        ++size;
+    }
+
+    @Override
+    public void addLast(T t) {
+        checkNotNull(t);
+        if (size == maxSize) {
+            removeFirst();
+        } else if (size == mask + 1) {
+            grow();
+        }
+        elements.set((head + size) & mask, t);
+        ++size;
+    }
+
+    @Override
+    public boolean offerFirst(T t) {
+        addFirst(t);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(T t) {
+        addLast(t);
+        return true;
+    }
+
+    @Override
+    public T removeFirst() {
+        final T t = pollFirst();
+        if (t == null) throw new NoSuchElementException();
+        return t;
+    }
+
+    @Override
+    public T removeLast() {
+        final T t = pollLast();
+        if (t == null) throw new NoSuchElementException();
+        return t;
+    }
+
+    @Override
+    public T pollFirst() {
+        if (size == 0) return null;
+
+        final T t = elements.get(head);
+        elements.set(head, null);
+        head = (head + 1) & mask;
+        --size;
+        return t;
+    }
+
+    @Override
+    public T pollLast() {
+        if (size == 0) return null;
+
+        final int i = (head + size - 1) & mask;
+        final T t = elements.get(i);
+        elements.set(i, null);
+        --size;
+        return t;
+    }
+
+    @Override
+    public T getFirst() {
+        if (size == 0) throw new NoSuchElementException();
+        return elements.get(head);
+    }
+
+    @Override
+    public T getLast() {
+        if (size == 0) throw new NoSuchElementException();
+        return elements.get((head + size - 1) & mask);
+    }
+
+    @Override
+    public T peekFirst() {
+        return size == 0 ? null : elements.get(head);
+    }
+
+    @Override
+    public T peekLast() {
+        return size == 0 ? null : elements.get((head + size - 1) & mask);
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        if (o == null) return false;
+
+        for (int i = 0; i < size; i++) {
+            if (o.equals(elements.get((head + i) & mask))) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        if (o == null) return false;
+
+        for (int i = size - 1; i >= 0; i--) {
+            if (o.equals(elements.get((head + i) & mask))) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean add(T t) {
+        addLast(t);
+        return true;
+    }
+
+    @Override
+    public boolean offer(T t) {
+        return offerLast(t);
+    }
+
+    @Override
+    public T remove() {
+        return removeFirst();
+    }
+
+    @Override
+    public T poll() {
+        return pollFirst();
+    }
+
+    @Override
+    public T element() {
+        return getFirst();
+    }
+
+    @Override
+    public T peek() {
+        return peekFirst();
+    }
+
+    @Override
+    public void push(T t) {
+        addFirst(t);
+    }
+
+    @Override
+    public T pop() {
+        return removeFirst();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return removeFirstOccurrence(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) return false;
+
+        for (int i = 0; i < size; i++) {
+            if (o.equals(elements.get((head + i) & mask))) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        allocate(mask + 1);
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Removes all the elements of this deque and appends them, from first to last, to the given array.
+     *
+     * @param target the array which receives the elements
+     * @return the number of drained elements
+     */
+    public int drainTo(JsArray<? super T> target) {
+        return drainTo(target, size);
+    }
+
+    /**
+     * Removes at most the given number of elements from the head of this deque and appends them to the given array.
+     *
+     * @param target the array which receives the elements
+     * @param maxElements the maximum number of elements to drain
+     * @return the number of drained elements
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(JsArray<? super T> target, int maxElements) {
+        final int n = Math.min(maxElements, size);
+        final JsArray<T> t = (JsArray<T>) target;
+        for (int i = 0; i < n; i++) {
+            t.push(elements.get(head));
+            elements.set(head, null);
+            head = (head + 1) & mask;
+        }
+        size -= n;
+        return n;
+    }
+
+    /**
+     * Copies the elements of this deque, from first to last, to a new array.
+     *
+     * @return the new array
+     */
+    public JsArray<T> toJsArray() {
+        final JsArray<T> ret = JsArray.create();
+        for (int i = 0; i < size; i++) {
+            ret.push(elements.get((head + i) & mask));
+        }
+        return ret;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return toJsArray().toArray();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr(false);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new Itr(true);
+    }
+
+    /**
+     * Removes the element at the given position, counting from the head, by shifting the following elements.
+     */
+    private void removeAt(int index) {
+        for (int i = index; i < size - 1; i++) {
+            elements.set((head + i) & mask, elements.get((head + i + 1) & mask));
+        }
+        elements.set((head + size - 1) & mask, null);
+        --size;
+    }
+
+    private void grow() {
+        final int capacity = mask + 1;
+        final JsArray<T> a = JsArray.create();
+        a.setLength(capacity << 1);
+        for (int i = 0; i < size; i++) {
+            a.set(i, elements.get((head + i) & mask));
+        }
+        elements = a;
+        mask = (capacity << 1) - 1;
+        head = 0;
+    }
+
+    private void allocate(int capacity) {
+        elements = JsArray.create();
+        elements.setLength(capacity);
+        mask = capacity - 1;
+    }
+
+    private static int powerOfTwo(int n) {
+        int p = 1;
+        while (p < n) {
+            p <<= 1;
+        }
+        return p;
+    }
+
+    private void checkNotNull(Object o) {
+        if (o == null) throw new NullPointerException("This deque does not support null values");
+    }
+
+    private class Itr implements Iterator<T> {
+        private final boolean descending;
+        private int cursor;       // index of next element to return, counting from the head
+        private int lastRet = -1; // index of last element returned; -1 if no such
+
+        Itr(boolean descending) {
+            this.descending = descending;
+            this.cursor = descending ? size - 1 : 0;
+        }
+
+        public boolean hasNext() {
+            return descending ? cursor >= 0 : cursor < size;
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastRet = cursor;
+            cursor += descending ? -1 : 1;
+            return get(lastRet);
+        }
+
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+
+            removeAt(lastRet);
+            if (!descending) cursor = lastRet;
+            lastRet = -1;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package org.turbogwt.core.collections;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
 
 import java.util.AbstractList;
 import java.util.Collection;
@@ -27,6 +28,16 @@ import java.util.NoSuchElementException;
 
 /**
  * An implementation of {@link java.util.List} wrapping a {@link JsArray}.
+ * <p>
+ *
+ * By default, lookups ({@link #contains(Object)}, {@link #indexOf(Object)}, {@link #remove(Object)}...) compare the
+ * values by identity, like the native indexOf. If a {@link Hasher} is informed, they compare the values according to
+ * it instead; use {@link Hashers#equality()} for the values' equals method.
+ * <p>
+ *
+ * Large lists may also keep a hash index of the positions of their values (see {@link #setIndexed(boolean)}), turning
+ * lookups into O(1). Appends and replacements update the index as they go; insertions and removals in the middle of
+ * the list shift positions, so they only mark it as stale and it is rebuilt by the next lookup.
  *
  * @param <T> Type of list values
  *
@@ -35,30 +46,97 @@ import java.util.NoSuchElementException;
 public class JsArrayList<T> extends AbstractList<T> {
 
     private final JsArray<T> jsArray;
+    private final Hasher<? super T> hasher; // null if values are compared by identity
+    private PositionTable index;            // null if not indexed
+    private boolean indexStale;
 
     @SuppressWarnings("unchecked")
     public JsArrayList() {
         this.jsArray = (JsArray<T>) JavaScriptObject.createArray();
+        this.hasher = null;
     }
 
     @SuppressWarnings("unchecked")
     public JsArrayList(JsArray<T> jsArray) {
         this.jsArray = (JsArray<T>) (jsArray != null ? jsArray : JavaScriptObject.createArray());
+        this.hasher = null;
+    }
+
+    /**
+     * Creates an empty list whose lookups compare values according to the given hasher.
+     *
+     * @param hasher the strategy for comparing values
+     */
+    @SuppressWarnings("unchecked")
+    public JsArrayList(Hasher<? super T> hasher) {
+        this.jsArray = (JsArray<T>) JavaScriptObject.createArray();
+        this.hasher = hasher;
+    }
+
+    /**
+     * Wraps the given array in a list whose lookups compare values according to the given hasher.
+     *
+     * @param jsArray the array to wrap
+     * @param hasher the strategy for comparing values
+     */
+    @SuppressWarnings("unchecked")
+    public JsArrayList(JsArray<T> jsArray, Hasher<? super T> hasher) {
+        this.jsArray = (JsArray<T>) (jsArray != null ? jsArray : JavaScriptObject.createArray());
+        this.hasher = hasher;
     }
 
     @SuppressWarnings("unchecked")
     public JsArrayList(T... array) {
         this.jsArray = JsArray.fromArray(array);
+        this.hasher = null;
     }
 
     public <E extends JavaScriptObject> JsArrayList(com.google.gwt.core.client.JsArray<E> jsArray) {
         this.jsArray = JsArray.cast(jsArray);
+        this.hasher = null;
     }
 
+    /**
+     * Returns the wrapped array.
+     * <p>
+     *
+     * If this list is indexed, call {@link #invalidateIndex()} after changing the array directly.
+     */
     public JsArray<T> asJsArray() {
         return jsArray;
     }
 
+    /**
+     * Returns the hasher used for comparing values, or null if they are compared by identity.
+     */
+    public Hasher<? super T> getHasher() {
+        return hasher;
+    }
+
+    /**
+     * Enables or disables the hash index of positions.
+     * When enabled, the index is built lazily by the next lookup.
+     *
+     * @param indexed whether the list should be indexed
+     */
+    public void setIndexed(boolean indexed) {
+        if (indexed == isIndexed()) return;
+
+        index = indexed ? PositionTable.create() : null;
+        indexStale = true;
+    }
+
+    public boolean isIndexed() {
+        return index != null;
+    }
+
+    /**
+     * Marks the index as stale, so it is rebuilt by the next lookup.
+     */
+    public void invalidateIndex() {
+        indexStale = true;
+    }
+
     @Override
     public int size() {
         return jsArray.length();
@@ -66,7 +144,7 @@ public class JsArrayList<T> extends AbstractList<T> {
 
     @Override
     public boolean contains(Object o) {
-        return jsArray.indexOf(o) > -1;
+        return indexOf(o) > -1;
     }
 
     @Override
@@ -94,21 +172,25 @@ public class JsArrayList<T> extends AbstractList<T> {
 
     @Override
     public boolean add(T t) {
+        indexAppended(t);
         jsArray.push(t);
         return true;
     }
 
     @Override
-    public native boolean remove(Object o) /*-{
-        var a = this.@org.turbogwt.core.collections.JsArrayList::jsArray;
-        return a.splice(a.indexOf(o), 1).length > 0;
-    }-*/;
+    public boolean remove(Object o) {
+        final int i = indexOf(o);
+        if (i == -1) return false;
+
+        remove(i);
+        return true;
+    }
 
     @Override
     public boolean containsAll(Collection<?> c) {
         boolean containsAll = true;
         for (Object o : c) {
-            int indexOfIt = jsArray.indexOf(o);
+            int indexOfIt = indexOf(o);
             if (indexOfIt == -1) {
                 containsAll = false;
                 break;
@@ -120,6 +202,7 @@ public class JsArrayList<T> extends AbstractList<T> {
     @Override
     @SuppressWarnings("unchecked")
     public boolean addAll(Collection<? extends T> c) {
+        indexStale = true;
         jsArray.pushApply(JsArray.fromArray((T[]) c.toArray()));
         return true;
     }
@@ -127,6 +210,7 @@ public class JsArrayList<T> extends AbstractList<T> {
     @Override
     @SuppressWarnings("unchecked")
     public boolean addAll(int i, Collection<? extends T> c) {
+        indexStale = true;
         JsArray<T> right = jsArray.slice(i);
         jsArray.splice(i, jsArray.length() - i);
         jsArray.pushApply(JsArray.fromArray((T[]) c.toArray()));
@@ -138,13 +222,11 @@ public class JsArrayList<T> extends AbstractList<T> {
     public boolean removeAll(Collection<?> c) {
         boolean changed = false;
         for (Object o : c) {
-            Iterator<T> it = iterator();
-            while (it.hasNext()) {
-                T t = it.next();
-                if (t.equals(o)) {
-                    it.remove();
-                    changed = true;
-                }
+            // Same lookup as remove(Object), so the hasher is honored and null elements are handled
+            int i;
+            while ((i = indexOf(o)) != -1) {
+                remove(i);
+                changed = true;
             }
         }
         return changed;
@@ -167,6 +249,10 @@ public class JsArrayList<T> extends AbstractList<T> {
     @Override
     public void clear() {
         jsArray.setLength(0);
+        if (index != null) {
+            index = PositionTable.create();
+            indexStale = false;
+        }
     }
 
     @Override
@@ -179,6 +265,13 @@ public class JsArrayList<T> extends AbstractList<T> {
         if (i < -1 || i > jsArray.length())
             throw new IndexOutOfBoundsException("Index: " + i);
 
+        if (index != null && !indexStale && i >= 0) {
+            if (i < jsArray.length()) {
+                final T old = jsArray.get(i);
+                if (old != null) index.remove(hash(old), i);
+            }
+            if (t != null) index.add(hash(t), i);
+        }
         jsArray.set(i, t);
         return t;
     }
@@ -188,6 +281,11 @@ public class JsArrayList<T> extends AbstractList<T> {
         if (i < -1 || i > jsArray.length())
             throw new IndexOutOfBoundsException("Index: " + i);
 
+        if (i == jsArray.length()) {
+            indexAppended(t);
+        } else {
+            indexStale = true;
+        }
         jsArray.splice(i, t);
     }
 
@@ -197,18 +295,37 @@ public class JsArrayList<T> extends AbstractList<T> {
             throw new IndexOutOfBoundsException(String.valueOf(i));
 
         T toReturn = jsArray.get(i);
+        if (index != null && !indexStale) {
+            if (i == jsArray.length() - 1) {
+                if (toReturn != null) index.remove(hash(toReturn), i);
+            } else {
+                indexStale = true;
+            }
+        }
         jsArray.splice(i, 1);
         return toReturn;
     }
 
     @Override
     public int indexOf(Object o) {
-        return jsArray.indexOf(o);
+        if (o == null || (hasher == null && index == null)) return jsArray.indexOf(o);
+        if (index != null) return indexedPosition(o, true);
+
+        for (int i = 0; i < jsArray.length(); i++) {
+            if (matches(jsArray.get(i), o)) return i;
+        }
+        return -1;
     }
 
     @Override
     public int lastIndexOf(Object o) {
-        return jsArray.lastIndexOf(o);
+        if (o == null || (hasher == null && index == null)) return jsArray.lastIndexOf(o);
+        if (index != null) return indexedPosition(o, false);
+
+        for (int i = jsArray.length() - 1; i >= 0; i--) {
+            if (matches(jsArray.get(i), o)) return i;
+        }
+        return -1;
     }
 
     @Override
@@ -226,7 +343,49 @@ public class JsArrayList<T> extends AbstractList<T> {
 
     @Override
     public List<T> subList(int i, int i2) {
-        return new JsArrayList<>(subArray(i, i2));
+        return new JsArrayList<>(subArray(i, i2), hasher);
+    }
+
+    private void indexAppended(T t) {
+        if (index != null && !indexStale && t != null) index.add(hash(t), jsArray.length());
+    }
+
+    private int indexedPosition(Object o, boolean first) {
+        if (indexStale) rebuildIndex();
+
+        final JsArrayInteger bucket = index.get(hash(o));
+        if (bucket == null) return -1;
+
+        int position = -1;
+        for (int i = 0; i < bucket.length(); i++) {
+            final int p = bucket.get(i);
+            if ((position == -1 || (first ? p < position : p > position)) && matches(jsArray.get(p), o)) position = p;
+        }
+        return position;
+    }
+
+    private void rebuildIndex() {
+        index = PositionTable.create();
+        for (int i = 0; i < jsArray.length(); i++) {
+            final T t = jsArray.get(i);
+            if (t != null) index.add(hash(t), i);
+        }
+        indexStale = false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int hash(Object o) {
+        return ((Hasher<Object>) effectiveHasher()).hash(o);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean matches(T t, Object o) {
+        return t != null && ((Hasher<Object>) effectiveHasher()).equals(t, o);
+    }
+
+    private Hasher<?> effectiveHasher() {
+        // Identity lists are indexed with the hasher which mirrors the native comparison
+        return hasher != null ? hasher : Hashers.strict();
     }
 
     private native JsArray<T> subArray(int i, int i2) /*-{
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+/**
+ * A lazy sequence of map and filter operations over a {@link JsArray}.
+ * <p>
+ *
+ * The operations are fused: each element goes through the whole chain before the next one is read, so no
+ * intermediate arrays are allocated. The terminal operations either run synchronously or return an
+ * {@link IncrementalTask} which processes the source in time slices.
+ *
+ * @param <T> Type of the values produced by this pipeline
+ *
+ * @author Danilo Reinert
+ */
+public final class JsArrayPipeline<T> {
+
+    private static final Object SKIP = new Object();
+
+    private final JsArray<?> source;
+    private final JsArrayPipeline<?> upstream;
+    private final Function<Object, Object> mapper;
+    private final Predicate<Object> predicate;
+
+    private JsArrayPipeline(JsArray<?> source, JsArrayPipeline<?> upstream, Function<Object, Object> mapper,
+                            Predicate<Object> predicate) {
+        this.source = source;
+        this.upstream = upstream;
+        this.mapper = mapper;
+        this.predicate = predicate;
+    }
+
+    public static <T> JsArrayPipeline<T> of(JsArray<T> source) {
+        return new JsArrayPipeline<>(source, null, null, null);
+    }
+
+    public static <T> JsArrayPipeline<T> of(JsArrayList<T> source) {
+        return of(source.asJsArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <R> JsArrayPipeline<R> map(Function<? super T, ? extends R> function) {
+        return new JsArrayPipeline<>(source, this, (Function<Object, Object>) function, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public JsArrayPipeline<T> filter(Predicate<? super T> predicate) {
+        return new JsArrayPipeline<>(source, this, null, (Predicate<Object>) predicate);
+    }
+
+    public <A> A reduce(A initial, Reducer<A, ? super T> reducer) {
+        final ReduceTask<A> task = new ReduceTask<>(initial, reducer, null);
+        for (int i = 0; i < source.length(); i++) {
+            task.process(source.get(i));
+        }
+        return task.result();
+    }
+
+    public JsArray<T> toJsArray() {
+        return reduce(JsArray.<T>create(), new Collector<T>());
+    }
+
+    public int count() {
+        return reduce(0, new Counter());
+    }
+
+    /**
+     * Creates a task which reduces this pipeline in time slices. Call {@link IncrementalTask#schedule()} to start it.
+     */
+    public <A> IncrementalTask<Object, A> reduceIncrementally(A initial, Reducer<A, ? super T> reducer,
+                                                              IncrementalCallback<? super A> callback) {
+        return new ReduceTask<>(initial, reducer, callback);
+    }
+
+    /**
+     * Creates a task which collects the values of this pipeline in time slices. Call
+     * {@link IncrementalTask#schedule()} to start it.
+     */
+    public IncrementalTask<Object, JsArray<T>> toJsArrayIncrementally(IncrementalCallback<? super JsArray<T>> callback) {
+        return reduceIncrementally(JsArray.<T>create(), new Collector<T>(), callback);
+    }
+
+    /**
+     * Runs the value through this pipeline.
+     *
+     * @return the resulting value or {@link #SKIP} if it was filtered out
+     */
+    private Object apply(Object value) {
+        if (upstream != null) {
+            value = upstream.apply(value);
+            if (value == SKIP) return SKIP;
+        }
+        if (mapper != null) return mapper.apply(value);
+        if (predicate != null && !predicate.apply(value)) return SKIP;
+        return value;
+    }
+
+    private class ReduceTask<A> extends IncrementalTask<Object, A> {
+
+        private final Reducer<A, ? super T> reducer;
+        private A accumulator;
+
+        @SuppressWarnings("unchecked")
+        ReduceTask(A initial, Reducer<A, ? super T> reducer, IncrementalCallback<? super A> callback) {
+            super((JsArray<Object>) source, callback);
+            this.accumulator = initial;
+            this.reducer = reducer;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void process(Object value) {
+            final Object result = apply(value);
+            if (result != SKIP) accumulator = reducer.reduce(accumulator, (T) result);
+        }
+
+        @Override
+        protected A result() {
+            return accumulator;
+        }
+    }
+
+    private static class Collector<T> implements Reducer<JsArray<T>, T> {
+        @Override
+        public JsArray<T> reduce(JsArray<T> accumulator, T value) {
+            accumulator.push(value);
+            return accumulator;
+        }
+    }
+
+    private static class Counter implements Reducer<Integer, Object> {
+        @Override
+        public Integer reduce(Integer accumulator, Object value) {
+            return accumulator + 1;
+        }
+    }
+}
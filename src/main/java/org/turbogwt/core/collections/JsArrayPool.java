@@ -0,0 +1,258 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pool of scratch {@link JsArray} and {@link JsMap} instances, so hot loops can reuse them instead of allocating.
+ * <p>
+ *
+ * Acquired instances are always empty. Arrays are kept in size-class bins by the length they reached before being
+ * released, so {@link #acquireArray(int)} hands out arrays which already held about as many elements. Each bin
+ * retains a bounded number of instances; the others are left to the garbage collector.
+ * <p>
+ *
+ * The helpers {@link #withArray(ArrayTask)} and {@link #withMap(MapTask)} release the instance even if the task
+ * throws:
+ * <pre>
+ *     int count = JsArrayPool.get().withArray(new JsArrayPool.ArrayTask&lt;Item, Integer&gt;() {
+ *         public Integer run(JsArray&lt;Item&gt; scratch) {
+ *             collectVisible(scratch);
+ *             return scratch.length();
+ *         }
+ *     });
+ * </pre>
+ *
+ * In development mode, every acquisition is tracked: releasing an instance twice (or one not acquired from the pool)
+ * throws an IllegalStateException, and {@link #checkLeaks()} reports the instances never released along with where
+ * they were acquired.
+ *
+ * @author Danilo Reinert
+ */
+public class JsArrayPool {
+
+    public static final int DEFAULT_MAX_RETAINED = 16;
+
+    /**
+     * Runs with a scratch array.
+     *
+     * @param <T> Type of the array values
+     * @param <R> Type of the result
+     */
+    public interface ArrayTask<T, R> {
+        R run(JsArray<T> scratch);
+    }
+
+    /**
+     * Runs with a scratch map.
+     *
+     * @param <T> Type of the map values
+     * @param <R> Type of the result
+     */
+    public interface MapTask<T, R> {
+        R run(JsMap<T> scratch);
+    }
+
+    private static final int[] SIZE_CLASSES = {16, 128, 1024, Integer.MAX_VALUE};
+    private static JsArrayPool instance;
+    private static int lastStamp;
+
+    private final int maxRetained;
+    private final JsArray<JsArray<JavaScriptObject>> arrayBins = JsArray.create();
+    private final JsArray<JavaScriptObject> maps = JsArray.create();
+    private final Map<Integer, Throwable> outstanding;
+    private int acquired;
+    private int released;
+
+    public JsArrayPool() {
+        this(DEFAULT_MAX_RETAINED);
+    }
+
+    /**
+     * @param maxRetained the maximum number of instances retained per bin
+     */
+    public JsArrayPool(int maxRetained) {
+        this.maxRetained = maxRetained;
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            arrayBins.push(JsArray.<JavaScriptObject>create());
+        }
+        outstanding = GWT.isScript() ? null : new HashMap<Integer, Throwable>();
+    }
+
+    /**
+     * Returns a pool shared by the whole application.
+     */
+    public static JsArrayPool get() {
+        if (instance == null) instance = new JsArrayPool();
+        return instance;
+    }
+
+    public <T> JsArray<T> acquireArray() {
+        return acquireArray(0);
+    }
+
+    /**
+     * Returns an empty array, preferably one which already held about the expected number of elements.
+     * If none is retained, an array which held more elements is handed out before a new one is allocated.
+     *
+     * @param expectedSize the number of elements expected to be added
+     * @param <T> Type of the array values
+     *
+     * @return the scratch array
+     */
+    public <T> JsArray<T> acquireArray(int expectedSize) {
+        JsArray<T> array = null;
+        for (int i = sizeClass(expectedSize); array == null && i < arrayBins.length(); i++) {
+            final JsArray<JavaScriptObject> bin = arrayBins.get(i);
+            if (bin.length() > 0) array = JsArray.cast(bin.pop());
+        }
+        if (array == null) array = JsArray.create();
+        track(array);
+        return array;
+    }
+
+    /**
+     * Clears the array and takes it back to the pool. It must not be used afterwards.
+     */
+    public void release(JsArray<?> array) {
+        untrack(array);
+        final JsArray<JavaScriptObject> bin = arrayBins.get(sizeClass(array.length()));
+        array.setLength(0);
+        if (bin.length() < maxRetained) bin.push(array);
+    }
+
+    public <T> JsMap<T> acquireMap() {
+        final JsMap<T> map = maps.length() > 0 ? maps.pop().<JsMap<T>>cast() : JsMap.<T>create();
+        track(map);
+        return map;
+    }
+
+    /**
+     * Clears the map and takes it back to the pool. It must not be used afterwards.
+     */
+    public void release(JsMap<?> map) {
+        untrack(map);
+        map.clear();
+        if (maps.length() < maxRetained) maps.push(map);
+    }
+
+    /**
+     * Runs the task with a scratch array, releasing it afterwards.
+     *
+     * @return the result of the task
+     */
+    public <T, R> R withArray(ArrayTask<T, R> task) {
+        return withArray(0, task);
+    }
+
+    /**
+     * Runs the task with a scratch array sized for the expected number of elements, releasing it afterwards.
+     *
+     * @param expectedSize the number of elements expected to be added
+     * @return the result of the task
+     */
+    public <T, R> R withArray(int expectedSize, ArrayTask<T, R> task) {
+        final JsArray<T> array = acquireArray(expectedSize);
+        try {
+            return task.run(array);
+        } finally {
+            release(array);
+        }
+    }
+
+    /**
+     * Runs the task with a scratch map, releasing it afterwards.
+     *
+     * @return the result of the task
+     */
+    public <T, R> R withMap(MapTask<T, R> task) {
+        final JsMap<T> map = acquireMap();
+        try {
+            return task.run(map);
+        } finally {
+            release(map);
+        }
+    }
+
+    /**
+     * Returns the number of instances acquired and not yet released.
+     */
+    public int getOutstanding() {
+        return acquired - released;
+    }
+
+    /**
+     * Returns the number of instances held by the pool.
+     */
+    public int getRetained() {
+        int retained = maps.length();
+        for (int i = 0; i < arrayBins.length(); i++) {
+            retained += arrayBins.get(i).length();
+        }
+        return retained;
+    }
+
+    /**
+     * Throws an IllegalStateException if any instance acquired in development mode was not released.
+     * The exception cause tells where the first of them was acquired. It does nothing in production mode.
+     */
+    public void checkLeaks() {
+        if (outstanding == null || outstanding.isEmpty()) return;
+
+        final Throwable first = outstanding.values().iterator().next();
+        throw new IllegalStateException(outstanding.size() + " scratch instance(s) not released", first);
+    }
+
+    private void track(JavaScriptObject jso) {
+        acquired++;
+        if (outstanding == null) return;
+
+        final int stamp = ++lastStamp;
+        setStamp(jso, stamp);
+        outstanding.put(stamp, new Throwable("Scratch instance acquired here"));
+    }
+
+    private void untrack(JavaScriptObject jso) {
+        if (outstanding != null) {
+            final int stamp = getStamp(jso);
+            if (outstanding.remove(stamp) == null)
+                throw new IllegalStateException("Scratch instance released twice or not acquired from this pool");
+            setStamp(jso, 0);
+        }
+        released++;
+    }
+
+    private static int sizeClass(int size) {
+        int i = 0;
+        while (size > SIZE_CLASSES[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static native int getStamp(JavaScriptObject jso) /*-{
+        return jso.__tgPool__ || 0;
+    }-*/;
+
+    private static native void setStamp(JavaScriptObject jso, int stamp) /*-{
+        Object.defineProperty(jso, '__tgPool__', {value: stamp, writable: true, configurable: true});
+    }-*/;
+}
@@ -19,14 +19,16 @@ import com.google.gwt.core.client.JavaScriptObject;
 
 import java.util.AbstractSet;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * An implementation of Set underpinned by an array.
  * <p>
  *
- * This is not the fastest implementation of Set at all,
- * but if you have an array and want to wrap in a set mainly for iteration purposes
- * it is a good alternative.
+ * The elements are kept in insertion order and compared according to javascript's strict equality (===).
+ * While the set is small, membership is checked by scanning the array. Once the set grows past a configurable
+ * threshold, the elements are also indexed in a {@link JsHashTable} so that {@link #contains(Object)} and
+ * {@link #add(Object)} run in constant time. Removals still need to shift the array.
  *
  * @param <T> Type of set values
  *
@@ -34,22 +36,56 @@ import java.util.Iterator;
  */
 public class JsArraySet<T> extends AbstractSet<T> {
 
+    /**
+     * Default size above which the elements get indexed by hash.
+     */
+    public static final int DEFAULT_THRESHOLD = 32;
+
     private final JsArray<T> innerArray;
+    private final int threshold;
+    private final Hasher<Object> hasher = Hashers.strict();
+    private JsHashTable<T> index;
 
     public JsArraySet() {
-        innerArray = JsArray.create();
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates an empty set which is indexed by hash after reaching the given size.
+     *
+     * @param threshold the size above which the elements get indexed by hash
+     */
+    public JsArraySet(int threshold) {
+        this.innerArray = JsArray.create();
+        this.threshold = threshold;
     }
 
     public JsArraySet(T[] array) {
-        innerArray = JsArray.fromArray(array);
+        this(DEFAULT_THRESHOLD);
+        for (T t : array) {
+            add(t);
+        }
     }
 
+    /**
+     * Wraps the given array in a set. Duplicated elements are removed from the array.
+     *
+     * @param jsArray the array to be wrapped
+     * @param <E> Type of the array values
+     */
     public <E extends JavaScriptObject> JsArraySet(com.google.gwt.core.client.JsArray<E> jsArray) {
         this.innerArray = JsArray.cast(jsArray);
+        this.threshold = DEFAULT_THRESHOLD;
+        removeDuplicates();
     }
 
+    /**
+     * Wraps an array which is known to contain no duplicates and may be modified outside the set,
+     * hence it is never indexed by hash.
+     */
     JsArraySet(JavaScriptObject jsArray) {
         this.innerArray = JsArray.cast(jsArray);
+        this.threshold = Integer.MAX_VALUE;
     }
 
     @Override
@@ -59,12 +95,15 @@ public class JsArraySet<T> extends AbstractSet<T> {
 
     @Override
     public boolean contains(Object o) {
+        if (index != null && o != null) {
+            return index.contains(cast(o), hasher);
+        }
         return innerArray.indexOf(o) > -1;
     }
 
     @Override
     public Iterator<T> iterator() {
-        return new JsArrayIterator<T>(innerArray);
+        return new Itr();
     }
 
     @Override
@@ -90,11 +129,18 @@ public class JsArraySet<T> extends AbstractSet<T> {
         if (contains(t)) return false;
 
         innerArray.push(t);
+        if (index != null) {
+            if (t != null) index.put(t, hasher);
+        } else if (innerArray.length() > threshold) {
+            buildIndex();
+        }
         return true;
     }
 
     @Override
     public boolean remove(Object o) {
+        if (index != null && o != null && !index.remove(cast(o), hasher)) return false;
+
         int i = innerArray.indexOf(o);
 
         if (i == -1) return false;
@@ -106,5 +152,71 @@ public class JsArraySet<T> extends AbstractSet<T> {
     @Override
     public void clear() {
         innerArray.setLength(0);
+        index = null;
+    }
+
+    private void buildIndex() {
+        index = JsHashTable.create();
+        for (int i = 0, l = innerArray.length(); i < l; i++) {
+            final T t = innerArray.get(i);
+            if (t != null) index.put(t, hasher);
+        }
+    }
+
+    /**
+     * Compacts the inner array keeping only the first occurrence of each element.
+     */
+    private void removeDuplicates() {
+        final int length = innerArray.length();
+        if (length > threshold) {
+            index = JsHashTable.create();
+        }
+
+        int w = 0;
+        for (int r = 0; r < length; r++) {
+            final T t = innerArray.get(r);
+            if (index != null && t != null) {
+                if (index.contains(t, hasher)) continue;
+                index.put(t, hasher);
+            } else if (innerArray.indexOf(t) < w) {
+                // The first occurrence was already kept
+                continue;
+            }
+            innerArray.set(w++, t);
+        }
+        innerArray.setLength(w);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(Object o) {
+        return (T) o;
+    }
+
+    private class Itr implements Iterator<T> {
+        int cursor;       // index of next element to return
+        int lastRet = -1; // index of last element returned; -1 if no such
+
+        public boolean hasNext() {
+            return cursor < innerArray.length();
+        }
+
+        public T next() {
+            int i = cursor;
+            if (i >= innerArray.length()) {
+                throw new NoSuchElementException();
+            }
+            cursor = i + 1;
+            return innerArray.get(lastRet = i);
+        }
+
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+
+            JsArraySet.this.remove(innerArray.get(lastRet));
+            cursor = lastRet;
+            lastRet = -1;
+        }
     }
 }
@@ -31,6 +31,13 @@ import com.google.gwt.core.client.JsArrayString;
  */
 public final class JsArrays {
 
+    // Shared by the overloads for numbers, integers and strings, which compare with the same operators
+    private static final JavaScriptObject LOWER_BOUND = createBound(false);
+    private static final JavaScriptObject UPPER_BOUND = createBound(true);
+    private static final JavaScriptObject INSERT_SORTED = createInsertSorted(UPPER_BOUND);
+    private static final JavaScriptObject DEDUPE_SORTED = createDedupeSorted();
+    private static final JavaScriptObject MERGE_SORTED = createMergeSorted();
+
     private JsArrays() {
     }
 
@@ -160,6 +167,319 @@ public final class JsArrays {
         }
     }
 
+    /**
+     * Creates a zero filled array of doubles with fixed length.
+     * It is backed by a Float64Array where typed arrays are supported, or by a regular array otherwise.
+     *
+     * @param length the length of the array
+     * @return the new array
+     */
+    public static native JsArrayNumber createFloat64(int length) /*-{
+        if (typeof Float64Array != 'undefined') return new Float64Array(length);
+        var a = new Array(length);
+        for (var i = 0; i < length; i++) a[i] = 0;
+        return a;
+    }-*/;
+
+    /**
+     * Creates a zero filled array of 32-bit integers with fixed length.
+     * It is backed by an Int32Array where typed arrays are supported, or by a regular array otherwise.
+     *
+     * @param length the length of the array
+     * @return the new array
+     */
+    public static native JsArrayInteger createInt32(int length) /*-{
+        if (typeof Int32Array != 'undefined') return new Int32Array(length);
+        var a = new Array(length);
+        for (var i = 0; i < length; i++) a[i] = 0;
+        return a;
+    }-*/;
+
+    /**
+     * Searches a value in a sorted array of numbers using binary search. Typed arrays are supported.
+     *
+     * @param a the array sorted in ascending order
+     * @param key the value to search for
+     * @return the index of the value, if it is contained; otherwise, <code>(-(insertion point) - 1)</code>
+     */
+    public static native int binarySearch(JsArrayNumber a, double key) /*-{
+        var lowerBound = @org.turbogwt.core.collections.JsArrays::LOWER_BOUND;
+        var i = lowerBound(a, key);
+        return i < a.length && a[i] == key ? i : -(i + 1);
+    }-*/;
+
+    /**
+     * Finds the first position, in a sorted array of numbers, whose value is greater than or equal to the given key.
+     *
+     * @param a the array sorted in ascending order
+     * @param key the reference value
+     * @return the position found, or the length of the array if none
+     */
+    public static native int lowerBound(JsArrayNumber a, double key) /*-{
+        var lowerBound = @org.turbogwt.core.collections.JsArrays::LOWER_BOUND;
+        return lowerBound(a, key);
+    }-*/;
+
+    /**
+     * Finds the first position, in a sorted array of numbers, whose value is strictly greater than the given key.
+     *
+     * @param a the array sorted in ascending order
+     * @param key the reference value
+     * @return the position found, or the length of the array if none
+     */
+    public static native int upperBound(JsArrayNumber a, double key) /*-{
+        var upperBound = @org.turbogwt.core.collections.JsArrays::UPPER_BOUND;
+        return upperBound(a, key);
+    }-*/;
+
+    /**
+     * Searches a value in a sorted array of integers using binary search. Typed arrays are supported.
+     *
+     * @param a the array sorted in ascending order
+     * @param key the value to search for
+     * @return the index of the value, if it is contained; otherwise, <code>(-(insertion point) - 1)</code>
+     */
+    public static native int binarySearch(JsArrayInteger a, int key) /*-{
+        var lowerBound = @org.turbogwt.core.collections.JsArrays::LOWER_BOUND;
+        var i = lowerBound(a, key);
+        return i < a.length && a[i] == key ? i : -(i + 1);
+    }-*/;
+
+    /**
+     * Finds the first position, in a sorted array of integers, whose value is greater than or equal to the given key.
+     *
+     * @param a the array sorted in ascending order
+     * @param key the reference value
+     * @return the position found, or the length of the array if none
+     */
+    public static native int lowerBound(JsArrayInteger a, int key) /*-{
+        var lowerBound = @org.turbogwt.core.collections.JsArrays::LOWER_BOUND;
+        return lowerBound(a, key);
+    }-*/;
+
+    /**
+     * Finds the first position, in a sorted array of integers, whose value is strictly greater than the given key.
+     *
+     * @param a the array sorted in ascending order
+     * @param key the reference value
+     * @return the position found, or the length of the array if none
+     */
+    public static native int upperBound(JsArrayInteger a, int key) /*-{
+        var upperBound = @org.turbogwt.core.collections.JsArrays::UPPER_BOUND;
+        return upperBound(a, key);
+    }-*/;
+
+    /**
+     * Searches a value in a sorted array of strings using binary search.
+     *
+     * @param a the array sorted in ascending order
+     * @param key the value to search for
+     * @return the index of the value, if it is contained; otherwise, <code>(-(insertion point) - 1)</code>
+     */
+    public static native int binarySearch(JsArrayString a, String key) /*-{
+        var lowerBound = @org.turbogwt.core.collections.JsArrays::LOWER_BOUND;
+        var i = lowerBound(a, key);
+        return i < a.length && a[i] == key ? i : -(i + 1);
+    }-*/;
+
+    /**
+     * Finds the first position, in a sorted array of strings, whose value is greater than or equal to the given key.
+     *
+     * @param a the array sorted in ascending order
+     * @param key the reference value
+     * @return the position found, or the length of the array if none
+     */
+    public static native int lowerBound(JsArrayString a, String key) /*-{
+        var lowerBound = @org.turbogwt.core.collections.JsArrays::LOWER_BOUND;
+        return lowerBound(a, key);
+    }-*/;
+
+    /**
+     * Finds the first position, in a sorted array of strings, whose value is strictly greater than the given key.
+     *
+     * @param a the array sorted in ascending order
+     * @param key the reference value
+     * @return the position found, or the length of the array if none
+     */
+    public static native int upperBound(JsArrayString a, String key) /*-{
+        var upperBound = @org.turbogwt.core.collections.JsArrays::UPPER_BOUND;
+        return upperBound(a, key);
+    }-*/;
+
+    /**
+     * Inserts the value after any equal values, keeping the array of numbers sorted.
+     * Typed arrays have fixed length and are not supported.
+     *
+     * @param a the array sorted in ascending order
+     * @param value the value to insert
+     * @return the position where the value was inserted
+     */
+    public static native int insertSorted(JsArrayNumber a, double value) /*-{
+        var insertSorted = @org.turbogwt.core.collections.JsArrays::INSERT_SORTED;
+        return insertSorted(a, value);
+    }-*/;
+
+    /**
+     * Removes in place all but the first value of each run of equal values of a sorted array of numbers.
+     * Typed arrays have fixed length and are not supported.
+     *
+     * @param a the array sorted in ascending order
+     * @return the new length of the array
+     */
+    public static native int dedupeSorted(JsArrayNumber a) /*-{
+        var dedupeSorted = @org.turbogwt.core.collections.JsArrays::DEDUPE_SORTED;
+        return dedupeSorted(a);
+    }-*/;
+
+    /**
+     * Extracts the values of a sorted array of numbers which are greater than or equal to <code>from</code> and
+     * strictly less than <code>to</code>.
+     *
+     * @param a the array sorted in ascending order
+     * @param from the lower bound, inclusive
+     * @param to the upper bound, exclusive
+     * @return a new array with the values in range
+     */
+    public static JsArrayNumber range(JsArrayNumber a, double from, double to) {
+        final int begin = lowerBound(a, from);
+        final int end = lowerBound(a, to);
+        return slice(a, begin, Math.max(begin, end)).cast();
+    }
+
+    /**
+     * Merges many sorted arrays of numbers into a new sorted array, in O(n log k) comparisons for n values in k arrays.
+     *
+     * @param arrays the arrays sorted in ascending order
+     * @return a new sorted array with all the values
+     */
+    public static native JsArrayNumber mergeSortedNumbers(JsArray<JsArrayNumber> arrays) /*-{
+        var mergeSorted = @org.turbogwt.core.collections.JsArrays::MERGE_SORTED;
+        return mergeSorted(arrays);
+    }-*/;
+
+    /**
+     * Inserts the value after any equal values, keeping the array of strings sorted.
+     * Typed arrays have fixed length and are not supported.
+     *
+     * @param a the array sorted in ascending order
+     * @param value the value to insert
+     * @return the position where the value was inserted
+     */
+    public static native int insertSorted(JsArrayString a, String value) /*-{
+        var insertSorted = @org.turbogwt.core.collections.JsArrays::INSERT_SORTED;
+        return insertSorted(a, value);
+    }-*/;
+
+    /**
+     * Removes in place all but the first value of each run of equal values of a sorted array of strings.
+     * Typed arrays have fixed length and are not supported.
+     *
+     * @param a the array sorted in ascending order
+     * @return the new length of the array
+     */
+    public static native int dedupeSorted(JsArrayString a) /*-{
+        var dedupeSorted = @org.turbogwt.core.collections.JsArrays::DEDUPE_SORTED;
+        return dedupeSorted(a);
+    }-*/;
+
+    /**
+     * Extracts the values of a sorted array of strings which are greater than or equal to <code>from</code> and
+     * strictly less than <code>to</code>.
+     *
+     * @param a the array sorted in ascending order
+     * @param from the lower bound, inclusive
+     * @param to the upper bound, exclusive
+     * @return a new array with the values in range
+     */
+    public static JsArrayString range(JsArrayString a, String from, String to) {
+        final int begin = lowerBound(a, from);
+        final int end = lowerBound(a, to);
+        return slice(a, begin, Math.max(begin, end)).cast();
+    }
+
+    /**
+     * Merges many sorted arrays of strings into a new sorted array, in O(n log k) comparisons for n values in k arrays.
+     *
+     * @param arrays the arrays sorted in ascending order
+     * @return a new sorted array with all the values
+     */
+    public static native JsArrayString mergeSortedStrings(JsArray<JsArrayString> arrays) /*-{
+        var mergeSorted = @org.turbogwt.core.collections.JsArrays::MERGE_SORTED;
+        return mergeSorted(arrays);
+    }-*/;
+
+    /**
+     * Creates a function finding the first position of a sorted array whose value is greater than (or equal to, if
+     * not inclusive) the given key.
+     */
+    private static native JavaScriptObject createBound(boolean inclusive) /*-{
+        return function(a, key) {
+            var low = 0, high = a.length;
+            while (low < high) {
+                var mid = (low + high) >>> 1;
+                if (a[mid] < key || inclusive && a[mid] == key) low = mid + 1; else high = mid;
+            }
+            return low;
+        };
+    }-*/;
+
+    /**
+     * Creates a function inserting a value after any equal values of a sorted array.
+     */
+    private static native JavaScriptObject createInsertSorted(JavaScriptObject upperBound) /*-{
+        return function(a, value) {
+            var i = upperBound(a, value);
+            a.splice(i, 0, value);
+            return i;
+        };
+    }-*/;
+
+    /**
+     * Creates a function removing in place all but the first value of each run of equal values of a sorted array.
+     */
+    private static native JavaScriptObject createDedupeSorted() /*-{
+        return function(a) {
+            if (a.length < 2) return a.length;
+            var last = 0;
+            for (var i = 1, l = a.length; i < l; i++) {
+                if (a[i] != a[last]) a[++last] = a[i];
+            }
+            a.length = last + 1;
+            return a.length;
+        };
+    }-*/;
+
+    /**
+     * Creates a function merging many sorted arrays into a new sorted array, pairwise in rounds.
+     */
+    private static native JavaScriptObject createMergeSorted() /*-{
+        return function(arrays) {
+            if (arrays.length == 0) return [];
+            var round = arrays;
+            while (round.length > 1) {
+                var next = [];
+                for (var r = 0; r < round.length; r += 2) {
+                    if (r + 1 == round.length) {
+                        next.push(round[r]);
+                        continue;
+                    }
+                    var a = round[r], b = round[r + 1], merged = new Array(a.length + b.length);
+                    var i = 0, j = 0, k = 0;
+                    while (i < a.length && j < b.length) merged[k++] = b[j] < a[i] ? b[j++] : a[i++];
+                    while (i < a.length) merged[k++] = a[i++];
+                    while (j < b.length) merged[k++] = b[j++];
+                    next.push(merged);
+                }
+                round = next;
+            }
+            return Array.prototype.slice.call(round[0], 0);
+        };
+    }-*/;
+
+    private static native JavaScriptObject slice(JavaScriptObject a, int begin, int end) /*-{
+        return Array.prototype.slice.call(a, begin, end);
+    }-*/;
+
     private static native JsArrayString reinterpretCast(String[] value) /*-{
         return value;
     }-*/;
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayBoolean;
+import com.google.gwt.core.client.JsArrayInteger;
+
+/**
+ * A vector of bits that grows as needed, backed by an Int32Array (see {@link JsArrays#createInt32(int)}).
+ * <p>
+ *
+ * Each flag costs a single bit instead of a JS value or property. Range operations work word by word, and a run of
+ * whole words is filled natively, so setting or clearing millions of bits is close to a memset.
+ * <p>
+ *
+ * Iterate over the set bits with:
+ * <pre>
+ *     for (int i = bits.nextSetBit(0); i &gt;= 0; i = bits.nextSetBit(i + 1)) {
+ *         process(i);
+ *     }
+ * </pre>
+ *
+ * @author Danilo Reinert
+ */
+public class JsBitSet {
+
+    private static final int ADDRESS_BITS_PER_WORD = 5;
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+
+    private JsArrayInteger words;
+
+    public JsBitSet() {
+        this(BITS_PER_WORD);
+    }
+
+    /**
+     * Creates a bit set large enough to hold the bits from 0 to <code>nbits - 1</code> without growing.
+     *
+     * @param nbits the initial size
+     */
+    public JsBitSet(int nbits) {
+        if (nbits < 0) throw new NegativeArraySizeException("nbits < 0: " + nbits);
+        words = JsArrays.createInt32(Math.max(wordIndex(nbits - 1) + 1, 1));
+    }
+
+    /**
+     * Creates a bit set whose bit i is set if the i-th element of the array is true.
+     *
+     * @param values the flags
+     *
+     * @return the new bit set
+     */
+    public static JsBitSet fromJsArrayBoolean(JsArrayBoolean values) {
+        final JsBitSet bits = new JsBitSet(values.length());
+        for (int i = 0; i < values.length(); i++) {
+            if (values.get(i)) bits.set(i);
+        }
+        return bits;
+    }
+
+    public boolean get(int i) {
+        checkIndex(i);
+        final int w = wordIndex(i);
+        return w < words.length() && (words.get(w) & (1 << i)) != 0;
+    }
+
+    public void set(int i) {
+        checkIndex(i);
+        final int w = wordIndex(i);
+        ensureCapacity(w + 1);
+        words.set(w, words.get(w) | (1 << i));
+    }
+
+    public void set(int i, boolean value) {
+        if (value) {
+            set(i);
+        } else {
+            clear(i);
+        }
+    }
+
+    /**
+     * Sets the bits from <code>from</code> (inclusive) to <code>to</code> (exclusive).
+     */
+    public void set(int from, int to) {
+        checkRange(from, to);
+        if (from == to) return;
+
+        final int startWord = wordIndex(from);
+        final int endWord = wordIndex(to - 1);
+        ensureCapacity(endWord + 1);
+
+        final int firstMask = -1 << from;
+        final int lastMask = -1 >>> -to;
+        if (startWord == endWord) {
+            words.set(startWord, words.get(startWord) | (firstMask & lastMask));
+        } else {
+            words.set(startWord, words.get(startWord) | firstMask);
+            fill(words, -1, startWord + 1, endWord);
+            words.set(endWord, words.get(endWord) | lastMask);
+        }
+    }
+
+    public void clear(int i) {
+        checkIndex(i);
+        final int w = wordIndex(i);
+        if (w < words.length()) words.set(w, words.get(w) & ~(1 << i));
+    }
+
+    /**
+     * Clears the bits from <code>from</code> (inclusive) to <code>to</code> (exclusive).
+     */
+    public void clear(int from, int to) {
+        checkRange(from, to);
+        if (from == to) return;
+
+        final int startWord = wordIndex(from);
+        if (startWord >= words.length()) return;
+
+        int endWord = wordIndex(to - 1);
+        int lastMask = -1 >>> -to;
+        if (endWord >= words.length()) {
+            endWord = words.length() - 1;
+            lastMask = -1;
+        }
+
+        final int firstMask = -1 << from;
+        if (startWord == endWord) {
+            words.set(startWord, words.get(startWord) & ~(firstMask & lastMask));
+        } else {
+            words.set(startWord, words.get(startWord) & ~firstMask);
+            fill(words, 0, startWord + 1, endWord);
+            words.set(endWord, words.get(endWord) & ~lastMask);
+        }
+    }
+
+    /**
+     * Clears all bits.
+     */
+    public void clear() {
+        fill(words, 0, 0, words.length());
+    }
+
+    public void flip(int i) {
+        checkIndex(i);
+        final int w = wordIndex(i);
+        ensureCapacity(w + 1);
+        words.set(w, words.get(w) ^ (1 << i));
+    }
+
+    /**
+     * Returns the index of the first set bit at or after the given index, or -1 if there is none.
+     */
+    public int nextSetBit(int from) {
+        checkIndex(from);
+        int w = wordIndex(from);
+        if (w >= words.length()) return -1;
+
+        int word = words.get(w) & (-1 << from);
+        while (true) {
+            if (word != 0) return (w * BITS_PER_WORD) + Integer.numberOfTrailingZeros(word);
+            if (++w == words.length()) return -1;
+            word = words.get(w);
+        }
+    }
+
+    /**
+     * Returns the index of the first clear bit at or after the given index.
+     */
+    public int nextClearBit(int from) {
+        checkIndex(from);
+        int w = wordIndex(from);
+        if (w >= words.length()) return from;
+
+        int word = ~words.get(w) & (-1 << from);
+        while (true) {
+            if (word != 0) return (w * BITS_PER_WORD) + Integer.numberOfTrailingZeros(word);
+            if (++w == words.length()) return w * BITS_PER_WORD;
+            word = ~words.get(w);
+        }
+    }
+
+    /**
+     * Returns the index of the highest set bit plus one, or zero if no bit is set.
+     */
+    public int length() {
+        for (int w = words.length() - 1; w >= 0; w--) {
+            final int word = words.get(w);
+            if (word != 0) return (w * BITS_PER_WORD) + (BITS_PER_WORD - Integer.numberOfLeadingZeros(word));
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the number of bits currently allocated.
+     */
+    public int size() {
+        return words.length() * BITS_PER_WORD;
+    }
+
+    public boolean isEmpty() {
+        return length() == 0;
+    }
+
+    /**
+     * Returns the number of set bits.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (int w = 0; w < words.length(); w++) {
+            count += Integer.bitCount(words.get(w));
+        }
+        return count;
+    }
+
+    public boolean intersects(JsBitSet other) {
+        final int n = Math.min(words.length(), other.words.length());
+        for (int w = 0; w < n; w++) {
+            if ((words.get(w) & other.words.get(w)) != 0) return true;
+        }
+        return false;
+    }
+
+    public void and(JsBitSet other) {
+        final int n = Math.min(words.length(), other.words.length());
+        for (int w = 0; w < n; w++) {
+            words.set(w, words.get(w) & other.words.get(w));
+        }
+        fill(words, 0, n, words.length());
+    }
+
+    public void or(JsBitSet other) {
+        ensureCapacity(other.words.length());
+        for (int w = 0; w < other.words.length(); w++) {
+            words.set(w, words.get(w) | other.words.get(w));
+        }
+    }
+
+    public void xor(JsBitSet other) {
+        ensureCapacity(other.words.length());
+        for (int w = 0; w < other.words.length(); w++) {
+            words.set(w, words.get(w) ^ other.words.get(w));
+        }
+    }
+
+    public void andNot(JsBitSet other) {
+        final int n = Math.min(words.length(), other.words.length());
+        for (int w = 0; w < n; w++) {
+            words.set(w, words.get(w) & ~other.words.get(w));
+        }
+    }
+
+    /**
+     * Returns an array with as many flags as {@link #length()}.
+     */
+    public JsArrayBoolean toJsArrayBoolean() {
+        return toJsArrayBoolean(length());
+    }
+
+    /**
+     * Returns an array whose i-th flag tells whether the bit i is set.
+     *
+     * @param length the length of the array
+     *
+     * @return the flags
+     */
+    public JsArrayBoolean toJsArrayBoolean(int length) {
+        final JsArrayBoolean values = JavaScriptObject.createArray().cast();
+        for (int i = 0; i < length; i++) {
+            values.push(get(i));
+        }
+        return values;
+    }
+
+    public JsBitSet copy() {
+        final JsBitSet bits = new JsBitSet(size());
+        bits.or(this);
+        return bits;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof JsBitSet)) return false;
+
+        final JsBitSet other = (JsBitSet) o;
+        final int n = Math.max(words.length(), other.words.length());
+        for (int w = 0; w < n; w++) {
+            if (wordOrZero(w) != other.wordOrZero(w)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // Zero words are skipped, so equal sets hash alike regardless of their size
+        int h = 1234;
+        for (int w = 0; w < words.length(); w++) {
+            final int word = words.get(w);
+            if (word != 0) h = 31 * h + (word ^ w);
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(i);
+        }
+        return sb.append('}').toString();
+    }
+
+    private int wordOrZero(int w) {
+        return w < words.length() ? words.get(w) : 0;
+    }
+
+    private void ensureCapacity(int wordsRequired) {
+        final int current = words.length();
+        if (wordsRequired <= current) return;
+
+        int newCapacity = current << 1;
+        while (newCapacity < wordsRequired) {
+            newCapacity <<= 1;
+        }
+
+        final JsArrayInteger newWords = JsArrays.createInt32(newCapacity);
+        copy(words, newWords);
+        words = newWords;
+    }
+
+    private static int wordIndex(int i) {
+        return i >> ADDRESS_BITS_PER_WORD;
+    }
+
+    private static void checkIndex(int i) {
+        if (i < 0) throw new IndexOutOfBoundsException("Index: " + i);
+    }
+
+    private static void checkRange(int from, int to) {
+        if (from < 0) throw new IndexOutOfBoundsException("From: " + from);
+        if (to < from) throw new IndexOutOfBoundsException("From: " + from + ", To: " + to);
+    }
+
+    private static native void fill(JsArrayInteger words, int value, int from, int to) /*-{
+        if (words.fill) {
+            words.fill(value, from, to);
+            return;
+        }
+        for (var i = from; i < to; i++) words[i] = value;
+    }-*/;
+
+    private static native void copy(JsArrayInteger from, JsArrayInteger to) /*-{
+        if (to.set) {
+            to.set(from);
+            return;
+        }
+        for (var i = 0, n = from.length; i < n; i++) to[i] = from[i];
+    }-*/;
+}
@@ -0,0 +1,503 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
+import com.google.gwt.core.client.JsArrayNumber;
+import com.google.gwt.core.client.JsArrayString;
+
+/**
+ * A table of records stored by column (struct of arrays).
+ * <p>
+ *
+ * Each column is a single array: a Float64Array for {@link ColumnType#DOUBLE}, an Int32Array for
+ * {@link ColumnType#INT} (see {@link JsArrays#createFloat64(int)}) and a regular array for the other types. Rows are
+ * plain indexes, so no object is allocated per row; use a {@link Cursor} to walk them like records.
+ * <p>
+ *
+ * Scans, aggregations and sorting run over one contiguous column at a time:
+ * <pre>
+ *     JsColumnTable table = new JsColumnTable();
+ *     int price = table.addColumn("price", ColumnType.DOUBLE);
+ *     table.addColumn("name", ColumnType.STRING);
+ *     table.appendAll(products);
+ *     double total = table.sum(price);
+ *     JsArrayInteger cheapestFirst = table.sortedRows(price, true);
+ * </pre>
+ *
+ * @author Danilo Reinert
+ */
+public class JsColumnTable {
+
+    public enum ColumnType {
+        DOUBLE, INT, BOOLEAN, STRING, OBJECT
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final JsArrayString names = JavaScriptObject.createArray().cast();
+    private final JsArray<ColumnType> types = JsArray.create();
+    private final JsArray<JavaScriptObject> columns = JsArray.create();
+    private final JsMapInteger positions = JsMapInteger.create();
+    private int capacity;
+    private int size;
+
+    public JsColumnTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public JsColumnTable(int initialCapacity) {
+        if (initialCapacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = initialCapacity;
+    }
+
+    /**
+     * Adds a column. Existing rows hold the default value of the type (zero, false or null) in it.
+     *
+     * @param name  the column name, also the overlay property it maps to
+     * @param type  the type of the column values
+     *
+     * @return the column index
+     */
+    public int addColumn(String name, ColumnType type) {
+        if (name == null || type == null) throw new NullPointerException("Column name and type are required");
+        if (positions.contains(name)) throw new IllegalArgumentException("Column " + name + " already exists");
+
+        final int column = names.length();
+        names.push(name);
+        types.push(type);
+        columns.push(createColumn(type, capacity));
+        positions.set(name, column);
+        return column;
+    }
+
+    public int columnCount() {
+        return names.length();
+    }
+
+    /**
+     * Returns the index of the column with the given name.
+     *
+     * @param name  the column name
+     *
+     * @return the column index, or -1 if there is no such column
+     */
+    public int columnIndex(String name) {
+        return positions.contains(name) ? positions.get(name) : -1;
+    }
+
+    public String columnName(int column) {
+        return names.get(checkColumn(column));
+    }
+
+    public ColumnType columnType(int column) {
+        return types.get(checkColumn(column));
+    }
+
+    /**
+     * Returns the number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a row filled with default values.
+     *
+     * @return the row index
+     */
+    public int addRow() {
+        ensureCapacity(size + 1);
+        for (int i = 0; i < columns.length(); i++) {
+            reset(columns.get(i), size, types.get(i).name());
+        }
+        return size++;
+    }
+
+    /**
+     * Removes all rows, keeping the columns.
+     */
+    public void clear() {
+        for (int i = 0; i < columns.length(); i++) {
+            columns.set(i, createColumn(types.get(i), capacity));
+        }
+        size = 0;
+    }
+
+    /**
+     * Appends one row per overlay, reading each column from the property of the same name.
+     * <p>
+     *
+     * The values are copied column by column. Missing numeric values become NaN on DOUBLE columns and zero on INT
+     * columns; missing booleans become false.
+     *
+     * @param rows  the overlays
+     */
+    public void appendAll(JsArray<? extends JavaScriptObject> rows) {
+        final int n = rows.length();
+        ensureCapacity(size + n);
+        for (int i = 0; i < columns.length(); i++) {
+            copyIn(columns.get(i), rows, names.get(i), size, types.get(i).name());
+        }
+        size += n;
+    }
+
+    /**
+     * Creates one overlay per row, holding every column as a property of the same name.
+     *
+     * @param <T>   Type of the overlays
+     *
+     * @return the overlays
+     */
+    public <T extends JavaScriptObject> JsArray<T> toOverlays() {
+        final JsArray<T> rows = createObjects(size);
+        for (int i = 0; i < columns.length(); i++) {
+            copyOut(columns.get(i), rows, names.get(i));
+        }
+        return rows;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public double getDouble(int row, int column) {
+        return getNumber(columns.get(checkColumn(column)), checkRow(row));
+    }
+
+    public int getInt(int row, int column) {
+        return getInteger(columns.get(checkColumn(column)), checkRow(row));
+    }
+
+    public boolean getBoolean(int row, int column) {
+        return getBoolean(columns.get(checkColumn(column)), checkRow(row));
+    }
+
+    public String getString(int row, int column) {
+        return getString(columns.get(checkColumn(column)), checkRow(row));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getObject(int row, int column) {
+        return (T) getObject(columns.get(checkColumn(column)), checkRow(row));
+    }
+
+    public void setDouble(int row, int column, double value) {
+        setNumber(columns.get(checkNumeric(column)), checkRow(row), value);
+    }
+
+    public void setInt(int row, int column, int value) {
+        setNumber(columns.get(checkNumeric(column)), checkRow(row), value);
+    }
+
+    public void setBoolean(int row, int column, boolean value) {
+        setObject(columns.get(checkType(column, ColumnType.BOOLEAN)), checkRow(row), value);
+    }
+
+    public void setString(int row, int column, String value) {
+        setObject(columns.get(checkType(column, ColumnType.STRING)), checkRow(row), value);
+    }
+
+    /**
+     * Sets the value of an OBJECT or STRING column.
+     */
+    public void setObject(int row, int column, Object value) {
+        final ColumnType type = types.get(checkColumn(column));
+        if (type != ColumnType.OBJECT && type != ColumnType.STRING)
+            throw new IllegalArgumentException("Column " + names.get(column) + " does not hold objects");
+        setObject(columns.get(column), checkRow(row), value);
+    }
+
+    /**
+     * Returns the values of a DOUBLE or INT column, one per row.
+     * <p>
+     *
+     * Where typed arrays are supported, the result is a view over the column storage; thus it must not be modified
+     * and it is valid only until the table grows or is cleared.
+     *
+     * @param column    the column index
+     *
+     * @return the column values
+     */
+    public JsArrayNumber numberColumn(int column) {
+        return view(columns.get(checkNumeric(column)), size);
+    }
+
+    /**
+     * Sums the values of a DOUBLE or INT column.
+     */
+    public double sum(int column) {
+        return sum(columns.get(checkNumeric(column)), size);
+    }
+
+    /**
+     * Returns the least value of a DOUBLE or INT column, or NaN if the table is empty.
+     */
+    public double min(int column) {
+        return extreme(columns.get(checkNumeric(column)), size, -1);
+    }
+
+    /**
+     * Returns the greatest value of a DOUBLE or INT column, or NaN if the table is empty.
+     */
+    public double max(int column) {
+        return extreme(columns.get(checkNumeric(column)), size, 1);
+    }
+
+    /**
+     * Returns the row indexes ordered by the values of a column. Ties keep the row order.
+     *
+     * @param column    the column index
+     * @param ascending whether the least values come first
+     *
+     * @return the ordered row indexes
+     */
+    public JsArrayInteger sortedRows(int column, boolean ascending) {
+        return sortedRows(columns.get(checkColumn(column)), size, ascending);
+    }
+
+    private int checkColumn(int column) {
+        if (column < 0 || column >= names.length()) throw new IndexOutOfBoundsException("Column: " + column);
+        return column;
+    }
+
+    private int checkNumeric(int column) {
+        final ColumnType type = types.get(checkColumn(column));
+        if (type != ColumnType.DOUBLE && type != ColumnType.INT)
+            throw new IllegalArgumentException("Column " + names.get(column) + " is not numeric");
+        return column;
+    }
+
+    private int checkType(int column, ColumnType type) {
+        if (types.get(checkColumn(column)) != type)
+            throw new IllegalArgumentException("Column " + names.get(column) + " is not " + type);
+        return column;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Index: " + row);
+        return row;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= capacity) return;
+
+        int newCapacity = capacity << 1;
+        while (newCapacity < required) {
+            newCapacity <<= 1;
+        }
+        for (int i = 0; i < columns.length(); i++) {
+            final ColumnType type = types.get(i);
+            if (type == ColumnType.DOUBLE || type == ColumnType.INT) {
+                final JavaScriptObject column = createColumn(type, newCapacity);
+                copy(columns.get(i), column, size);
+                columns.set(i, column);
+            }
+        }
+        capacity = newCapacity;
+    }
+
+    private static JavaScriptObject createColumn(ColumnType type, int capacity) {
+        switch (type) {
+            case DOUBLE:
+                return JsArrays.createFloat64(capacity);
+            case INT:
+                return JsArrays.createInt32(capacity);
+            default:
+                return JavaScriptObject.createArray();
+        }
+    }
+
+    private static native void copy(JavaScriptObject from, JavaScriptObject to, int length) /*-{
+        if (to.set && from.subarray) {
+            to.set(from.subarray(0, length));
+            return;
+        }
+        for (var i = 0; i < length; i++) to[i] = from[i];
+    }-*/;
+
+    private static native void reset(JavaScriptObject column, int row, String type) /*-{
+        // Write the zero explicitly, as the columns are regular arrays where typed arrays are not supported
+        column[row] = type == 'DOUBLE' || type == 'INT' ? 0 : type == 'BOOLEAN' ? false : null;
+    }-*/;
+
+    private static native void copyIn(JavaScriptObject column, JavaScriptObject rows, String property, int offset,
+                                      String type) /*-{
+        var bool = type == 'BOOLEAN';
+        // Typed arrays coerce null to zero, so missing numbers are written explicitly
+        var missing = type == 'DOUBLE' ? NaN : type == 'INT' ? 0 : null;
+        for (var i = 0, n = rows.length; i < n; i++) {
+            var v = rows[i][property];
+            column[offset + i] = bool ? !!v : (v == null ? missing : v);
+        }
+    }-*/;
+
+    private static native void copyOut(JavaScriptObject column, JavaScriptObject rows, String property) /*-{
+        for (var i = 0, n = rows.length; i < n; i++) rows[i][property] = column[i];
+    }-*/;
+
+    private static native <T extends JavaScriptObject> JsArray<T> createObjects(int length) /*-{
+        var rows = new Array(length);
+        for (var i = 0; i < length; i++) rows[i] = {};
+        return rows;
+    }-*/;
+
+    private static native double getNumber(JavaScriptObject column, int row) /*-{
+        return column[row];
+    }-*/;
+
+    private static native int getInteger(JavaScriptObject column, int row) /*-{
+        return column[row];
+    }-*/;
+
+    private static native boolean getBoolean(JavaScriptObject column, int row) /*-{
+        return !!column[row];
+    }-*/;
+
+    private static native String getString(JavaScriptObject column, int row) /*-{
+        return column[row];
+    }-*/;
+
+    private static native Object getObject(JavaScriptObject column, int row) /*-{
+        return column[row];
+    }-*/;
+
+    private static native void setNumber(JavaScriptObject column, int row, double value) /*-{
+        column[row] = value;
+    }-*/;
+
+    private static native void setObject(JavaScriptObject column, int row, Object value) /*-{
+        column[row] = value;
+    }-*/;
+
+    private static native void setObject(JavaScriptObject column, int row, boolean value) /*-{
+        column[row] = value;
+    }-*/;
+
+    private static native JsArrayNumber view(JavaScriptObject column, int length) /*-{
+        return column.subarray ? column.subarray(0, length) : column.slice(0, length);
+    }-*/;
+
+    private static native double sum(JavaScriptObject column, int length) /*-{
+        var s = 0;
+        for (var i = 0; i < length; i++) s += column[i];
+        return s;
+    }-*/;
+
+    private static native double extreme(JavaScriptObject column, int length, int sign) /*-{
+        if (length == 0) return NaN;
+        var e = column[0];
+        for (var i = 1; i < length; i++) {
+            var v = column[i];
+            if ((v - e) * sign > 0) e = v;
+        }
+        return e;
+    }-*/;
+
+    private static native JsArrayInteger sortedRows(JavaScriptObject column, int length, boolean ascending) /*-{
+        var rows = new Array(length);
+        for (var i = 0; i < length; i++) rows[i] = i;
+        var sign = ascending ? 1 : -1;
+        rows.sort(function (a, b) {
+            var x = column[a], y = column[b];
+            if (x === y || (x == null && y == null)) return a - b;
+            if (x == null) return 1;
+            if (y == null) return -1;
+            return (x < y ? -sign : x > y ? sign : 0) || a - b;
+        });
+        return rows;
+    }-*/;
+
+    /**
+     * A movable pointer to a row of the table.
+     * <p>
+     *
+     * Iterate over all rows with:
+     * <pre>
+     *     JsColumnTable.Cursor cursor = table.cursor();
+     *     while (cursor.next()) {
+     *         total += cursor.getDouble(price);
+     *     }
+     * </pre>
+     */
+    public final class Cursor {
+
+        private int row = -1;
+
+        private Cursor() {
+        }
+
+        /**
+         * Moves to the next row.
+         *
+         * @return <code>true</code> if there is such row, <code>false</code> otherwise
+         */
+        public boolean next() {
+            if (row >= size) return false;
+            return ++row < size;
+        }
+
+        public Cursor moveTo(int row) {
+            this.row = checkRow(row);
+            return this;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public double getDouble(int column) {
+            return JsColumnTable.this.getDouble(row, column);
+        }
+
+        public int getInt(int column) {
+            return JsColumnTable.this.getInt(row, column);
+        }
+
+        public boolean getBoolean(int column) {
+            return JsColumnTable.this.getBoolean(row, column);
+        }
+
+        public String getString(int column) {
+            return JsColumnTable.this.getString(row, column);
+        }
+
+        public <T> T getObject(int column) {
+            return JsColumnTable.this.getObject(row, column);
+        }
+
+        public void setDouble(int column, double value) {
+            JsColumnTable.this.setDouble(row, column, value);
+        }
+
+        public void setInt(int column, int value) {
+            JsColumnTable.this.setInt(row, column, value);
+        }
+
+        public void setBoolean(int column, boolean value) {
+            JsColumnTable.this.setBoolean(row, column, value);
+        }
+
+        public void setString(int column, String value) {
+            JsColumnTable.this.setString(row, column, value);
+        }
+
+        public void setObject(int column, Object value) {
+            JsColumnTable.this.setObject(row, column, value);
+        }
+    }
+}
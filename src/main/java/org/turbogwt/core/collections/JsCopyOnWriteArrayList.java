@@ -0,0 +1,283 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A copy-on-write implementation of {@link java.util.List} wrapping a {@link JsArray}.
+ * <p>
+ *
+ * Iterators read a snapshot of the list taken at their creation, so the list may be freely modified during
+ * iteration (e.g., a listener removing itself while events are dispatched) without skipping any element.
+ * Iterators do not support modification operations.
+ * <p>
+ *
+ * The inner array is copied only at the first write after a snapshot is taken; subsequent writes update the copy
+ * in place. Thereby, a batch of writes made between two iterations costs a single copy, and lists which are never
+ * iterated while being modified are never copied at all. Bulk operations always cost at most one copy.
+ *
+ * @param <T> Type of list values
+ *
+ * @author Danilo Reinert
+ */
+public class JsCopyOnWriteArrayList<T> extends AbstractList<T> {
+
+    private JsArray<T> jsArray;
+    private boolean shared; // whether jsArray is referenced by any snapshot
+
+    public JsCopyOnWriteArrayList() {
+        this.jsArray = JsArray.create();
+    }
+
+    public JsCopyOnWriteArrayList(Collection<? extends T> c) {
+        this();
+        addAll(c);
+    }
+
+    /**
+     * Returns the current snapshot of the list. It must not be modified.
+     *
+     * @return the snapshot array
+     */
+    public JsArray<T> snapshot() {
+        shared = true;
+        return jsArray;
+    }
+
+    @Override
+    public int size() {
+        return jsArray.length();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return jsArray.indexOf(o) > -1;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new SnapshotItr<>(snapshot(), 0);
+    }
+
+    @Override
+    public ListIterator<T> listIterator() {
+        return new SnapshotItr<>(snapshot(), 0);
+    }
+
+    @Override
+    public ListIterator<T> listIterator(int i) {
+        if (i < 0 || i > jsArray.length()) {
+            throw new IndexOutOfBoundsException("Index: " + i);
+        }
+        return new SnapshotItr<>(snapshot(), i);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return jsArray.toArray();
+    }
+
+    @Override
+    public T get(int i) {
+        return jsArray.get(i);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return jsArray.indexOf(o);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return jsArray.lastIndexOf(o);
+    }
+
+    @Override
+    public boolean add(T t) {
+        writable().push(t);
+        return true;
+    }
+
+    @Override
+    public void add(int i, T t) {
+        if (i < 0 || i > jsArray.length())
+            throw new IndexOutOfBoundsException("Index: " + i);
+
+        writable().splice(i, t);
+    }
+
+    @Override
+    public T set(int i, T t) {
+        if (i < 0 || i >= jsArray.length())
+            throw new IndexOutOfBoundsException("Index: " + i);
+
+        final T old = jsArray.get(i);
+        writable().set(i, t);
+        return old;
+    }
+
+    @Override
+    public T remove(int i) {
+        if (i < 0 || i >= jsArray.length())
+            throw new IndexOutOfBoundsException(String.valueOf(i));
+
+        final T old = jsArray.get(i);
+        writable().splice(i, 1);
+        return old;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        final int i = jsArray.indexOf(o);
+        if (i == -1) return false;
+
+        writable().splice(i, 1);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        if (c.isEmpty()) return false;
+
+        final JsArray<T> a = writable();
+        for (T t : c) {
+            a.push(t);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(int i, Collection<? extends T> c) {
+        if (i < 0 || i > jsArray.length())
+            throw new IndexOutOfBoundsException("Index: " + i);
+        if (c.isEmpty()) return false;
+
+        final JsArray<T> a = writable();
+        final JsArray<T> right = a.splice(i, a.length() - i);
+        for (T t : c) {
+            a.push(t);
+        }
+        a.pushApply(right);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        return filter(c, false);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        return filter(c, true);
+    }
+
+    @Override
+    public void clear() {
+        if (shared) {
+            jsArray = JsArray.create();
+            shared = false;
+        } else {
+            jsArray.setLength(0);
+        }
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        writable().splice(fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Rebuilds the array keeping only the elements whose presence in the given collection matches retain.
+     */
+    private boolean filter(Collection<?> c, boolean retain) {
+        final JsArray<T> filtered = JsArray.create();
+        for (int i = 0, l = jsArray.length(); i < l; i++) {
+            final T t = jsArray.get(i);
+            if (c.contains(t) == retain) filtered.push(t);
+        }
+
+        if (filtered.length() == jsArray.length()) return false;
+
+        jsArray = filtered;
+        shared = false;
+        return true;
+    }
+
+    private JsArray<T> writable() {
+        if (shared) {
+            jsArray = jsArray.slice(0);
+            shared = false;
+        }
+        return jsArray;
+    }
+
+    private static class SnapshotItr<T> implements ListIterator<T> {
+        private final JsArray<T> snapshot;
+        private int cursor; // index of next element to return
+
+        SnapshotItr(JsArray<T> snapshot, int cursor) {
+            this.snapshot = snapshot;
+            this.cursor = cursor;
+        }
+
+        public boolean hasNext() {
+            return cursor < snapshot.length();
+        }
+
+        public T next() {
+            if (cursor >= snapshot.length()) {
+                throw new NoSuchElementException();
+            }
+            return snapshot.get(cursor++);
+        }
+
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+
+        public T previous() {
+            if (cursor <= 0) {
+                throw new NoSuchElementException();
+            }
+            return snapshot.get(--cursor);
+        }
+
+        public int nextIndex() {
+            return cursor;
+        }
+
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void set(T t) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void add(T t) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
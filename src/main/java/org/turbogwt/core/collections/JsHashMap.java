@@ -0,0 +1,415 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JsArrayInteger;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A Map from Object to Object implementation over Javascript arrays.
+ * <p>
+ *
+ * Keys and values are stored in two parallel dense arrays. The keys are indexed by hash in a javascript object
+ * laid out like a {@link JsHashTable}, whose buckets hold positions of the arrays instead of the keys themselves.
+ * Keys are hashed and compared according to a {@link Hasher}; by default their hashCode and equals methods are used.
+ * <p>
+ *
+ * Iteration order is not guaranteed, since removals move the last entry to the removed position.
+ * {@link #keyAt(int)} and {@link #valueAt(int)} allow iterating the map without creating any entry objects.
+ * <p>
+ *
+ * This map does not support null keys or values.
+ *
+ * @param <K> The type of the map keys
+ * @param <V> The type of the map values
+ *
+ * @author Danilo Reinert
+ */
+public class JsHashMap<K, V> implements Map<K, V> {
+
+    private final JsArray<K> keys = JsArray.create();
+    private final JsArray<V> values = JsArray.create();
+    private final PositionTable positions = PositionTable.create();
+    private final Hasher<? super K> hasher;
+
+    public JsHashMap() {
+        this(Hashers.<K>equality());
+    }
+
+    public JsHashMap(Hasher<? super K> hasher) {
+        this.hasher = hasher;
+    }
+
+    public JsHashMap(Map<? extends K, ? extends V> map) {
+        this();
+        putAll(map);
+    }
+
+    @Override
+    public int size() {
+        return keys.length();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.length() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object o) {
+        checkNotNull(o);
+        return indexOf(o) > -1;
+    }
+
+    @Override
+    public boolean containsValue(Object o) {
+        checkNotNull(o);
+
+        for (int i = 0; i < values.length(); i++) {
+            if (o.equals(values.get(i))) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object o) {
+        checkNotNull(o);
+
+        final int i = indexOf(o);
+        return i > -1 ? values.get(i) : null;
+    }
+
+    @Override
+    public V put(K k, V v) {
+        checkNotNull(k);
+        checkNotNull(v);
+
+        final int i = indexOf(k);
+        if (i > -1) {
+            V old = values.get(i);
+            values.set(i, v);
+            return old;
+        }
+
+        positions.add(hasher.hash(k), keys.length());
+        keys.push(k);
+        values.push(v);
+        return null;
+    }
+
+    @Override
+    public V remove(Object o) {
+        checkNotNull(o);
+
+        final int i = indexOf(o);
+        return i > -1 ? removeAt(i) : null;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Entry<? extends K, ? extends V> e : map.entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        keys.setLength(0);
+        values.setLength(0);
+        positions.clear();
+    }
+
+    /**
+     * Gets the key stored at the given position.
+     * Along with {@link #valueAt(int)}, it allows iterating the map without creating entry objects.
+     *
+     * @param index a position between 0 (inclusive) and {@link #size()} (exclusive)
+     * @return the key at the given position
+     */
+    public K keyAt(int index) {
+        checkIndex(index);
+        return keys.get(index);
+    }
+
+    /**
+     * Gets the value stored at the given position.
+     *
+     * @param index a position between 0 (inclusive) and {@link #size()} (exclusive)
+     * @return the value at the given position
+     */
+    public V valueAt(int index) {
+        checkIndex(index);
+        return values.get(index);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new Values();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+
+        final Map<?, ?> other = (Map<?, ?>) o;
+        if (other.size() != size()) return false;
+
+        for (int i = 0; i < keys.length(); i++) {
+            if (!values.get(i).equals(other.get(keys.get(i)))) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < keys.length(); i++) {
+            h += keys.get(i).hashCode() ^ values.get(i).hashCode();
+        }
+        return h;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int indexOf(Object o) {
+        final K k = (K) o;
+        final JsArrayInteger bucket = positions.get(hasher.hash(k));
+        if (bucket != null) {
+            for (int i = 0, l = bucket.length(); i < l; i++) {
+                final int p = bucket.get(i);
+                if (hasher.equals(k, keys.get(p))) return p;
+            }
+        }
+        return -1;
+    }
+
+    private V removeAt(int i) {
+        final V old = values.get(i);
+        final int last = keys.length() - 1;
+
+        positions.remove(hasher.hash(keys.get(i)), i);
+        if (i != last) {
+            // Move the last entry to the vacant position in order to keep the arrays dense
+            final K lastKey = keys.get(last);
+            positions.replace(hasher.hash(lastKey), last, i);
+            keys.set(i, lastKey);
+            values.set(i, values.get(last));
+        }
+        keys.setLength(last);
+        values.setLength(last);
+
+        return old;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= keys.length())
+            throw new IndexOutOfBoundsException("Index: " + index);
+    }
+
+    private void checkNotNull(Object o) {
+        if (o == null) throw new NullPointerException("This map does not support null values");
+    }
+
+    private abstract class Itr<E> implements Iterator<E> {
+        int cursor;       // index of next element to return
+        int lastRet = -1; // index of last element returned; -1 if no such
+
+        public boolean hasNext() {
+            return cursor < keys.length();
+        }
+
+        public E next() {
+            int i = cursor;
+            if (i >= keys.length()) {
+                throw new NoSuchElementException();
+            }
+            cursor = i + 1;
+            return get(lastRet = i);
+        }
+
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+
+            // The last entry is moved to the removed position, so it must be visited next
+            removeAt(lastRet);
+            cursor = lastRet;
+            lastRet = -1;
+        }
+
+        abstract E get(int i);
+    }
+
+    private class KeySet extends AbstractSet<K> {
+
+        @Override
+        public int size() {
+            return JsHashMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return JsHashMap.this.remove(o) != null;
+        }
+
+        @Override
+        public void clear() {
+            JsHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new Itr<K>() {
+                @Override
+                K get(int i) {
+                    return keys.get(i);
+                }
+            };
+        }
+    }
+
+    private class Values extends AbstractCollection<V> {
+
+        @Override
+        public int size() {
+            return JsHashMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            JsHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Itr<V>() {
+                @Override
+                V get(int i) {
+                    return values.get(i);
+                }
+            };
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public int size() {
+            return JsHashMap.this.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) return false;
+
+            final Entry<K, V> entry = (Entry<K, V>) o;
+            final V v = JsHashMap.this.get(entry.getKey());
+            return v != null && v.equals(entry.getValue());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            return contains(o) && JsHashMap.this.remove(((Entry<K, V>) o).getKey()) != null;
+        }
+
+        @Override
+        public void clear() {
+            JsHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new Itr<Entry<K, V>>() {
+                @Override
+                Entry<K, V> get(int i) {
+                    return new HashEntry(keys.get(i));
+                }
+            };
+        }
+    }
+
+    private class HashEntry implements Entry<K, V> {
+
+        private final K key;
+
+        private HashEntry(K key) {
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return JsHashMap.this.get(key);
+        }
+
+        @Override
+        public V setValue(V v) {
+            return JsHashMap.this.put(key, v);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+
+            final Entry<?, ?> entry = (Entry<?, ?>) o;
+            return key.equals(entry.getKey()) && getValue().equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ getValue().hashCode();
+        }
+    }
+}
@@ -25,8 +25,8 @@ import java.util.NoSuchElementException;
  * An implementation of Set based on {@link JsHashTable}.
  * <p>
  *
- * This class indexes the objects by resorting to their hashCode method.<br>
- * In order to use it, the values must implement hashCode consistently.
+ * This class indexes the objects according to a {@link Hasher}.<br>
+ * By default, the values' hashCode and equals methods are used, so they must be implemented consistently.
  *
  * @param <T> Type of set values
  *
@@ -35,12 +35,23 @@ import java.util.NoSuchElementException;
 public class JsHashSet<T> extends AbstractSet<T> {
 
     private final JsHashTable<T> hashTable = JsHashTable.create();
+    private final Hasher<? super T> hasher;
     private int size;
 
     public JsHashSet() {
+        this(Hashers.<T>equality());
+    }
+
+    public JsHashSet(Hasher<? super T> hasher) {
+        this.hasher = hasher;
     }
 
     public JsHashSet(Iterable<T> iterable) {
+        this(iterable, Hashers.<T>equality());
+    }
+
+    public JsHashSet(Iterable<T> iterable, Hasher<? super T> hasher) {
+        this(hasher);
         for (T t : iterable) {
             add(t);
         }
@@ -55,7 +66,7 @@ public class JsHashSet<T> extends AbstractSet<T> {
     @SuppressWarnings("unchecked")
     public boolean contains(Object o) {
         checkNotNull(o);
-        return hashTable.contains((T) o);
+        return hashTable.contains((T) o, hasher);
     }
 
     @Override
@@ -91,7 +102,7 @@ public class JsHashSet<T> extends AbstractSet<T> {
         }
 
         ++size;
-        hashTable.put(t);
+        hashTable.put(t, hasher);
         return true;
     }
 
@@ -99,13 +110,29 @@ public class JsHashSet<T> extends AbstractSet<T> {
     @SuppressWarnings("unchecked")
     public boolean remove(Object o) {
         checkNotNull(o);
-        --size;
-        return hashTable.remove((T) o);
+        if (hashTable.remove((T) o, hasher)) {
+            --size;
+            return true;
+        }
+        return false;
     }
 
     @Override
     public void clear() {
         hashTable.clear();
+        size = 0;
+    }
+
+    /**
+     * Retrieves the element of this set that is equivalent to the given one according to the set's hasher.
+     *
+     * @param o the object to look for
+     * @return the element stored in the set, or <code>null</code> if none is equivalent to the given one
+     */
+    @SuppressWarnings("unchecked")
+    public T find(Object o) {
+        checkNotNull(o);
+        return hashTable.find((T) o, hasher);
     }
 
     private void checkNotNull(Object o) {
@@ -114,28 +141,27 @@ public class JsHashSet<T> extends AbstractSet<T> {
 
     private class Itr implements Iterator<T> {
 
-        private JsArrayString keys = hashTable.hashCodes();
-        private int cursor;       // index of next element to return
+        private final JsArrayString keys = hashTable.hashCodes();
+        private int cursor;       // index of next bucket to visit
+        private JsArray<T> bucket;
+        private int bucketCursor; // index of next element to return in the current bucket
         private T lastRet;
-        private Iterator<T> bucketItr = new JsArrayIterator<>(hashTable.get(keys.get(cursor)));
 
         public boolean hasNext() {
-            return cursor != keys.length() && bucketItr.hasNext();
+            return (bucket != null && bucketCursor < bucket.length()) || cursor < keys.length();
         }
 
         @Override
         public T next() {
-            int i = cursor;
-
-            if (i >= keys.length())
-                throw new NoSuchElementException();
+            while (bucket == null || bucketCursor >= bucket.length()) {
+                if (cursor >= keys.length())
+                    throw new NoSuchElementException();
 
-            if (!bucketItr.hasNext()) {
-                bucketItr = new JsArrayIterator<T>(hashTable.get(keys.get(cursor)));
-                cursor = i + 1;
+                bucket = hashTable.get(keys.get(cursor++));
+                bucketCursor = 0;
             }
 
-            lastRet = bucketItr.next();
+            lastRet = bucket.get(bucketCursor++);
             return lastRet;
         }
 
@@ -144,8 +170,9 @@ public class JsHashSet<T> extends AbstractSet<T> {
             if (lastRet == null)
                 throw new IllegalStateException();
 
-            bucketItr.remove();
+            // The bucket array is removed from the table when emptied, but we keep our own reference to it
             JsHashSet.this.remove(lastRet);
+            --bucketCursor;
             lastRet = null;
         }
     }
@@ -21,6 +21,11 @@ import com.google.gwt.core.client.JsArrayString;
 /**
  * A hash table implemented on a javascript object.
  * The object's properties are used to index the hash codes.
+ * <p>
+ *
+ * Values are hashed and compared according to a {@link Hasher}. The methods without a hasher argument use
+ * {@link Hashers#equality()}, i.e., the values' hashCode and equals methods.
+ * Since this is an overlay type, the same hasher must be informed in every operation over a given table.
  *
  * @param <T> The type of the values
  *
@@ -40,8 +45,24 @@ public class JsHashTable<T> extends JavaScriptObject {
     }-*/;
 
     public final boolean contains(T value) {
-        JsArray<T> bucket = get(value.hashCode());
-        return (bucket != null) && (bucket.indexOf(value) > -1);
+        return contains(value, Hashers.<T>equality());
+    }
+
+    public final boolean contains(T value, Hasher<? super T> hasher) {
+        return indexOf(get(hasher.hash(value)), value, hasher) > -1;
+    }
+
+    /**
+     * Retrieves the value stored in this table that is equivalent to the given one.
+     *
+     * @param value the value to look for
+     * @param hasher the hashing strategy
+     * @return the stored value, or <code>null</code> if none is equivalent to the given one
+     */
+    public final T find(T value, Hasher<? super T> hasher) {
+        final JsArray<T> bucket = get(hasher.hash(value));
+        final int i = indexOf(bucket, value, hasher);
+        return i > -1 ? bucket.get(i) : null;
     }
 
     public final native JsArray<T> get(int hashCode) /*-{
@@ -53,23 +74,29 @@ public class JsHashTable<T> extends JavaScriptObject {
     }-*/;
 
     public final void put(T value) {
+        put(value, Hashers.<T>equality());
+    }
+
+    public final void put(T value, Hasher<? super T> hasher) {
         checkNotNull(value);
-        put(value.hashCode(), value);
+        put(hasher.hash(value), value);
     }
 
     public final boolean remove(T value) {
-        final int hashCode = value.hashCode();
+        return remove(value, Hashers.<T>equality());
+    }
+
+    public final boolean remove(T value, Hasher<? super T> hasher) {
+        final int hashCode = hasher.hash(value);
         JsArray<T> bucket = get(hashCode);
-        if (bucket != null) {
-            final int i = bucket.indexOf(value);
-            if (i > -1) {
-                bucket.splice(i);
-                if (bucket.length() == 0) {
-                    // Save memory by disposing empty buckets
-                    deleteBucket(hashCode);
-                }
-                return true;
+        final int i = indexOf(bucket, value, hasher);
+        if (i > -1) {
+            bucket.splice(i);
+            if (bucket.length() == 0) {
+                // Save memory by disposing empty buckets
+                deleteBucket(hashCode);
             }
+            return true;
         }
         return false;
     }
@@ -84,6 +111,14 @@ public class JsHashTable<T> extends JavaScriptObject {
         return this[hashCode];
     }-*/;
 
+    private int indexOf(JsArray<T> bucket, T value, Hasher<? super T> hasher) {
+        if (bucket == null) return -1;
+        for (int i = 0, l = bucket.length(); i < l; i++) {
+            if (hasher.equals(value, bucket.get(i))) return i;
+        }
+        return -1;
+    }
+
     private void checkNotNull(Object o) {
         if (o == null)
             throw new NullPointerException("This HashTable does not support null values.");
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.GWT;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A Map which compares its keys by identity, looked up natively in O(1) with no hashing nor buckets.
+ * <p>
+ *
+ * In production mode, the entries are held by a native Map where available; otherwise each key object is stamped
+ * with a hidden non-enumerable id. In development mode, an {@link IdentityHashMap} is used instead.
+ * <p>
+ *
+ * This map strongly references its keys. See {@link JsWeakIdentityMap} for caches which must not keep them alive.
+ * <p>
+ *
+ * This map does not support null keys or values.
+ *
+ * @param <K> The type of the map keys
+ * @param <V> The type of the map values
+ *
+ * @author Danilo Reinert
+ */
+public class JsIdentityMap<K, V> extends AbstractMap<K, V> {
+
+    private final IdentityTable table;
+    private final Map<K, V> devMap;
+
+    public JsIdentityMap() {
+        if (GWT.isScript()) {
+            table = IdentityTable.create();
+            devMap = null;
+        } else {
+            table = null;
+            devMap = new IdentityHashMap<>();
+        }
+    }
+
+    @Override
+    public int size() {
+        return table != null ? table.size() : devMap.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (key == null) return false;
+        return table != null ? table.containsKey(key) : devMap.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        if (key == null) return null;
+        return table != null ? table.<V>get(key) : devMap.get(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        checkNotNull(key);
+        checkNotNull(value);
+
+        if (table == null) return devMap.put(key, value);
+
+        final V old = table.get(key);
+        table.put(key, value);
+        return old;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (key == null) return null;
+        if (table == null) return devMap.remove(key);
+
+        final V old = table.get(key);
+        table.remove(key);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        if (table != null) {
+            table.clear();
+        } else {
+            devMap.clear();
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    private void checkNotNull(Object o) {
+        if (o == null) throw new NullPointerException("This map does not support null keys or values");
+    }
+
+    private JsArray<K> keySnapshot() {
+        if (table != null) return table.keys();
+
+        final JsArray<K> keys = JsArray.create();
+        for (K key : devMap.keySet()) {
+            keys.push(key);
+        }
+        return keys;
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public int size() {
+            return JsIdentityMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) return false;
+
+            final Entry<?, ?> e = (Entry<?, ?>) o;
+            final V value = get(e.getKey());
+            return value != null && value.equals(e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) return false;
+
+            JsIdentityMap.this.remove(((Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            JsIdentityMap.this.clear();
+        }
+
+        // Iterates over a snapshot of the keys, reading the values from the map
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new Iterator<Entry<K, V>>() {
+                private final JsArray<K> keys = keySnapshot();
+                private int cursor;       // index of next element to return
+                private int lastRet = -1; // index of last element returned; -1 if no such
+
+                @Override
+                public boolean hasNext() {
+                    return cursor < keys.length();
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    if (cursor >= keys.length()) throw new NoSuchElementException();
+                    final K key = keys.get(lastRet = cursor++);
+                    return new IdentityEntry(key);
+                }
+
+                @Override
+                public void remove() {
+                    if (lastRet < 0) throw new IllegalStateException();
+                    JsIdentityMap.this.remove(keys.get(lastRet));
+                    lastRet = -1;
+                }
+            };
+        }
+    }
+
+    private class IdentityEntry implements Entry<K, V> {
+
+        private final K key;
+
+        IdentityEntry(K key) {
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return get(key);
+        }
+
+        @Override
+        public V setValue(V value) {
+            return put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) return false;
+
+            final Entry<?, ?> e = (Entry<?, ?>) o;
+            final V value = getValue();
+            return key == e.getKey() && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            final V value = getValue();
+            return System.identityHashCode(key) ^ (value == null ? 0 : value.hashCode());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+
+/**
+ * A Set which compares its values by identity, backed by a {@link JsIdentityMap}.
+ * <p>
+ *
+ * This set does not support null values.
+ *
+ * @param <T> Type of set values
+ *
+ * @author Danilo Reinert
+ */
+public class JsIdentitySet<T> extends AbstractSet<T> {
+
+    private final JsIdentityMap<T, Boolean> map = new JsIdentityMap<>();
+
+    public JsIdentitySet() {
+    }
+
+    public JsIdentitySet(Iterable<? extends T> iterable) {
+        for (T t : iterable) {
+            add(t);
+        }
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return map.containsKey(o);
+    }
+
+    @Override
+    public boolean add(T t) {
+        return map.put(t, Boolean.TRUE) == null;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return map.remove(o) != null;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return map.keySet().iterator();
+    }
+}
@@ -87,6 +87,33 @@ public class JsMap<T> extends JavaScriptObject {
         return values;
     }-*/;
 
+    /**
+     * Maps each key to the value at the same position, in a single native pass.
+     *
+     * @param keys the keys to map
+     * @param values the values, in the same order of the keys
+     */
+    public final void putAll(JsArrayString keys, JsArray<T> values) {
+        if (keys.length() != values.length())
+            throw new IllegalArgumentException("Keys and values must have the same length.");
+        putAll0(keys, values);
+    }
+
+    /**
+     * Gets the values of many keys in a single native pass.
+     *
+     * @param keys the keys to look up
+     * @return the values, in the same order of the keys, with null for the keys not mapped
+     */
+    public final native JsArray<T> getAll(JsArrayString keys) /*-{
+        var values = new Array(keys.length);
+        for (var i = 0; i < keys.length; i++) {
+            var key = keys[i];
+            values[i] = Object.prototype.hasOwnProperty.call(this, key) ? this[key] : null;
+        }
+        return values;
+    }-*/;
+
     private void checkNotNull(Object o) {
         if (o == null) throw new NullPointerException("This map does not accept null keys or values.");
     }
@@ -111,6 +138,24 @@ public class JsMap<T> extends JavaScriptObject {
         this[key] = value;
     }-*/;
 
+    private native void putAll0(JsArrayString keys, JsArray<T> values) /*-{
+        // validate everything before mapping anything
+        for (var i = 0; i < keys.length; i++) {
+            if (keys[i] == null || values[i] == null)
+                // CHECKSTYLE:OFF
+                throw @java.lang.NullPointerException::new(Ljava/lang/String;)("This map does not accept null keys or values.");
+                // CHECKSTYLE:ON
+        }
+        if (!this.__props__)
+            Object.defineProperties(this, {__props__: {enumerable: false, writable: true, value: Object.keys(this)}});
+        var props = this.__props__;
+        for (i = 0; i < keys.length; i++) {
+            var key = keys[i];
+            if (!Object.prototype.hasOwnProperty.call(this, key)) props.push(key);
+            this[key] = values[i];
+        }
+    }-*/;
+
     /**
      * Bridge method from JSNI that keeps us from having to make polymorphic calls
      * in JSNI. By putting the polymorphism in Java code, the compiler can do a
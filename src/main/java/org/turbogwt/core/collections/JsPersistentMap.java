@@ -0,0 +1,555 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable map implemented as a hash array mapped trie (HAMT) of javascript arrays.
+ * <p>
+ *
+ * Every update returns a new map sharing all untouched nodes with the previous one, so it costs
+ * O(log<sub>32</sub> n) in time and memory. Older versions remain valid, which makes snapshots (undo history,
+ * change detection) practically free: if two references are the same (==), their contents are the same.
+ * Updates that do not change anything return the very same map.
+ * <p>
+ *
+ * Keys are hashed and compared according to a {@link Hasher}; by default their hashCode and equals methods are
+ * used. For batch edits use a {@link Transient}, which updates its own nodes in place.
+ * <p>
+ *
+ * This map does not support null keys or values.
+ *
+ * @param <K> The type of the map keys
+ * @param <V> The type of the map values
+ *
+ * @author Danilo Reinert
+ */
+public final class JsPersistentMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    @SuppressWarnings("rawtypes")
+    private static final JsPersistentMap EMPTY = new JsPersistentMap(Hashers.equality(), 0, null);
+
+    private final Hasher<? super K> hasher;
+    private final int size;
+    private final Node root;
+
+    private JsPersistentMap(Hasher<? super K> hasher, int size, Node root) {
+        this.hasher = hasher;
+        this.size = size;
+        this.root = root;
+    }
+
+    /**
+     * Gets an empty map which compares keys by their hashCode and equals methods.
+     *
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> JsPersistentMap<K, V> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Gets an empty map which compares keys according to the given hasher.
+     *
+     * @param hasher the key hashing strategy
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return the empty map
+     */
+    public static <K, V> JsPersistentMap<K, V> empty(Hasher<? super K> hasher) {
+        return new JsPersistentMap<>(hasher, 0, null);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    public V get(Object key) {
+        checkNotNull(key);
+        return get(root, key);
+    }
+
+    /**
+     * Returns a map with the given mapping.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the updated map, or this same map if the key was already mapped to the value
+     */
+    public JsPersistentMap<K, V> put(K key, V value) {
+        checkNotNull(key);
+        checkNotNull(value);
+
+        final Box added = new Box();
+        final Node newRoot = put(null, root == null ? Node.create(null) : root, 0, hasher.hash(key), key, value,
+                added);
+        if (newRoot == root) return this;
+
+        return new JsPersistentMap<>(hasher, added.value ? size + 1 : size, newRoot);
+    }
+
+    /**
+     * Returns a map without the mapping of the given key.
+     *
+     * @param key the key
+     * @return the updated map, or this same map if the key was not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public JsPersistentMap<K, V> remove(Object key) {
+        checkNotNull(key);
+        if (root == null) return this;
+
+        final K k = (K) key;
+        final Node newRoot = remove(null, root, 0, hasher.hash(k), k, new Box());
+        if (newRoot == root) return this;
+
+        return new JsPersistentMap<>(hasher, size - 1, newRoot);
+    }
+
+    /**
+     * Creates a transient copy of this map for batch edits. This map is not affected by them.
+     *
+     * @return a new transient map
+     */
+    public Transient<K, V> asTransient() {
+        return new Transient<>(this);
+    }
+
+    /**
+     * Iterates over the keys of the map. The iteration order is not specified.
+     *
+     * @return an iterator over the keys
+     */
+    public Iterator<K> keyIterator() {
+        return new Itr<K>(root, 0);
+    }
+
+    /**
+     * Iterates over the values of the map, in the same order of {@link #keyIterator()}.
+     *
+     * @return an iterator over the values
+     */
+    public Iterator<V> valueIterator() {
+        return new Itr<V>(root, 1);
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Node editable(JavaScriptObject edit, Node node) {
+        return edit != null && node.isOwnedBy(edit) ? node : node.copy(edit);
+    }
+
+    private static Node set(JavaScriptObject edit, Node node, int i, Object value) {
+        final Node ret = editable(edit, node);
+        ret.set(i, value);
+        return ret;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V get(Node from, Object key) {
+        if (from == null) return null;
+
+        final K k = (K) key;
+        final int hash = hasher.hash(k);
+        Node node = from;
+        int shift = 0;
+        while (true) {
+            if (node.isCollision()) {
+                final int i = node.indexOf(k, hasher);
+                return i > -1 ? (V) node.get(i + 1) : null;
+            }
+
+            final int bit = bitpos(hash, shift);
+            final int bitmap = node.bitmap();
+            if ((bitmap & bit) == 0) return null;
+
+            final int i = 2 * Integer.bitCount(bitmap & (bit - 1));
+            final Object keyOrNull = node.get(i);
+            if (keyOrNull != null) {
+                return hasher.equals(k, (K) keyOrNull) ? (V) node.get(i + 1) : null;
+            }
+            node = node.child(i + 1);
+            shift += BITS;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node put(JavaScriptObject edit, Node node, int shift, int hash, K key, V value, Box added) {
+        if (node.isCollision()) {
+            if (hash == node.hash()) {
+                final int i = node.indexOf(key, hasher);
+                if (i > -1) {
+                    return node.get(i + 1) == value ? node : set(edit, node, i + 1, value);
+                }
+                added.value = true;
+                final Node ret = editable(edit, node);
+                ret.insertPair(ret.length(), key, value);
+                return ret;
+            }
+            // Nest the collision node into a bitmap node and retry
+            final Node parent = Node.create(edit);
+            parent.setBitmap(bitpos(node.hash(), shift));
+            parent.insertPair(0, null, node);
+            return put(edit, parent, shift, hash, key, value, added);
+        }
+
+        final int bit = bitpos(hash, shift);
+        final int bitmap = node.bitmap();
+        final int i = 2 * Integer.bitCount(bitmap & (bit - 1));
+
+        if ((bitmap & bit) == 0) {
+            added.value = true;
+            final Node ret = editable(edit, node);
+            ret.insertPair(i, key, value);
+            ret.setBitmap(bitmap | bit);
+            return ret;
+        }
+
+        final Object keyOrNull = node.get(i);
+        final Object valueOrNode = node.get(i + 1);
+        if (keyOrNull == null) {
+            final Node child = put(edit, (Node) valueOrNode, shift + BITS, hash, key, value, added);
+            return child == valueOrNode ? node : set(edit, node, i + 1, child);
+        }
+        if (hasher.equals(key, (K) keyOrNull)) {
+            return valueOrNode == value ? node : set(edit, node, i + 1, value);
+        }
+
+        added.value = true;
+        final Node child = createNode(edit, shift + BITS, (K) keyOrNull, valueOrNode, hash, key, value);
+        final Node ret = editable(edit, node);
+        ret.set(i, null);
+        ret.set(i + 1, child);
+        return ret;
+    }
+
+    private Node createNode(JavaScriptObject edit, int shift, K key1, Object value1, int hash2, K key2,
+                            V value2) {
+        final int hash1 = hasher.hash(key1);
+        final Node ret = Node.create(edit);
+        if (hash1 == hash2) {
+            ret.setCollision(hash1);
+            ret.insertPair(0, key1, value1);
+            ret.insertPair(2, key2, value2);
+            return ret;
+        }
+        @SuppressWarnings("unchecked")
+        final Node withFirst = put(edit, ret, shift, hash1, key1, (V) value1, new Box());
+        return put(edit, withFirst, shift, hash2, key2, value2, new Box());
+    }
+
+    /**
+     * Removes the key from the node.
+     *
+     * @return the same node if the key was not found, or null if the node got empty
+     */
+    @SuppressWarnings("unchecked")
+    private Node remove(JavaScriptObject edit, Node node, int shift, int hash, K key, Box removed) {
+        if (node.isCollision()) {
+            final int i = node.indexOf(key, hasher);
+            if (i == -1) return node;
+
+            removed.value = true;
+            if (node.length() == 2) return null;
+
+            final Node ret = editable(edit, node);
+            ret.removePair(i);
+            return ret;
+        }
+
+        final int bit = bitpos(hash, shift);
+        final int bitmap = node.bitmap();
+        if ((bitmap & bit) == 0) return node;
+
+        final int i = 2 * Integer.bitCount(bitmap & (bit - 1));
+        final Object keyOrNull = node.get(i);
+        if (keyOrNull == null) {
+            final Node child = node.child(i + 1);
+            final Node newChild = remove(edit, child, shift + BITS, hash, key, removed);
+            if (newChild == child) return node;
+            if (newChild != null) return set(edit, node, i + 1, newChild);
+        } else if (!hasher.equals(key, (K) keyOrNull)) {
+            return node;
+        } else {
+            removed.value = true;
+        }
+
+        if (bitmap == bit) return null;
+
+        final Node ret = editable(edit, node);
+        ret.removePair(i);
+        ret.setBitmap(bitmap ^ bit);
+        return ret;
+    }
+
+    private static void checkNotNull(Object o) {
+        if (o == null) throw new NullPointerException("This map does not support null keys or values.");
+    }
+
+    /**
+     * A mutable version of {@link JsPersistentMap} for batch edits.
+     * <p>
+     *
+     * It copies each shared node only once, at the first time it is touched, and updates it in place afterwards.
+     * Once {@link #persistent()} is called, the transient can no longer be used.
+     *
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     */
+    public static final class Transient<K, V> {
+
+        private final JavaScriptObject edit = JavaScriptObject.createObject();
+        private final JsPersistentMap<K, V> origin;
+        private boolean active = true;
+        private int size;
+        private Node root;
+
+        private Transient(JsPersistentMap<K, V> map) {
+            origin = map;
+            size = map.size;
+            root = map.root;
+        }
+
+        public int size() {
+            ensureActive();
+            return size;
+        }
+
+        public V get(Object key) {
+            ensureActive();
+            checkNotNull(key);
+            return origin.get(root, key);
+        }
+
+        public Transient<K, V> put(K key, V value) {
+            ensureActive();
+            checkNotNull(key);
+            checkNotNull(value);
+
+            final Box added = new Box();
+            root = origin.put(edit, root == null ? Node.create(edit) : root, 0, origin.hasher.hash(key), key,
+                    value, added);
+            if (added.value) ++size;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public Transient<K, V> remove(Object key) {
+            ensureActive();
+            checkNotNull(key);
+            if (root == null) return this;
+
+            final Box removed = new Box();
+            final K k = (K) key;
+            root = origin.remove(edit, root, 0, origin.hasher.hash(k), k, removed);
+            if (removed.value) --size;
+            return this;
+        }
+
+        /**
+         * Finishes the batch edits.
+         *
+         * @return the resulting persistent map
+         */
+        public JsPersistentMap<K, V> persistent() {
+            ensureActive();
+            active = false;
+            return root == origin.root ? origin : new JsPersistentMap<>(origin.hasher, size, root);
+        }
+
+        private void ensureActive() {
+            if (!active) throw new IllegalStateException("Transient used after persistent() call.");
+        }
+    }
+
+    private static class Box {
+        boolean value;
+    }
+
+    /**
+     * A node of the trie, laid out as [key0, value0, key1, value1, ...].
+     * <p>
+     *
+     * Bitmap nodes store a sub node in place of a value when the key slot is null.
+     * Collision nodes hold keys with the very same hash.
+     * Nodes created by a transient are marked with its edit token.
+     */
+    private static final class Node extends JavaScriptObject {
+
+        protected Node() {
+        }
+
+        static native Node create(JavaScriptObject edit) /*-{
+            var n = [];
+            n.b = 0;
+            n.e = edit;
+            return n;
+        }-*/;
+
+        final <K> int indexOf(K key, Hasher<? super K> hasher) {
+            for (int i = 0, l = length(); i < l; i += 2) {
+                @SuppressWarnings("unchecked")
+                final K k = (K) get(i);
+                if (hasher.equals(key, k)) return i;
+            }
+            return -1;
+        }
+
+        final native Object get(int i) /*-{
+            return this[i];
+        }-*/;
+
+        final native Node child(int i) /*-{
+            return this[i];
+        }-*/;
+
+        final native void set(int i, Object value) /*-{
+            this[i] = value;
+        }-*/;
+
+        final native int length() /*-{
+            return this.length;
+        }-*/;
+
+        final native void insertPair(int i, Object key, Object value) /*-{
+            this.splice(i, 0, key, value);
+        }-*/;
+
+        final native void removePair(int i) /*-{
+            this.splice(i, 2);
+        }-*/;
+
+        final native int bitmap() /*-{
+            return this.b;
+        }-*/;
+
+        final native void setBitmap(int bitmap) /*-{
+            this.b = bitmap;
+        }-*/;
+
+        final native boolean isCollision() /*-{
+            return this.c === true;
+        }-*/;
+
+        final native int hash() /*-{
+            return this.h;
+        }-*/;
+
+        final native void setCollision(int hash) /*-{
+            this.c = true;
+            this.h = hash;
+        }-*/;
+
+        final native Node copy(JavaScriptObject edit) /*-{
+            var n = this.slice();
+            n.b = this.b;
+            n.c = this.c;
+            n.h = this.h;
+            n.e = edit;
+            return n;
+        }-*/;
+
+        final native boolean isOwnedBy(JavaScriptObject edit) /*-{
+            return this.e === edit;
+        }-*/;
+    }
+
+    /**
+     * Depth first traversal over the nodes, yielding either the keys (offset 0) or the values (offset 1).
+     */
+    private static class Itr<E> implements Iterator<E> {
+
+        private final JsArray<Node> nodes = JsArray.create();
+        private final JsArrayInteger positions = JavaScriptObject.createArray().cast();
+        private final int offset;
+
+        Itr(Node root, int offset) {
+            this.offset = offset;
+            if (root != null) {
+                nodes.push(root);
+                positions.push(0);
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nodes.length() > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (nodes.length() == 0) throw new NoSuchElementException();
+
+            final int top = nodes.length() - 1;
+            final int i = positions.get(top);
+            final E ret = (E) nodes.get(top).get(i + offset);
+            positions.set(top, i + 2);
+            advance();
+            return ret;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Moves the cursor to the next key/value pair, descending into sub nodes and leaving exhausted ones.
+         */
+        private void advance() {
+            while (nodes.length() > 0) {
+                final int top = nodes.length() - 1;
+                final Node node = nodes.get(top);
+                final int i = positions.get(top);
+                if (i >= node.length()) {
+                    nodes.setLength(top);
+                    positions.setLength(top);
+                    continue;
+                }
+                if (node.get(i) == null) {
+                    positions.set(top, i + 2);
+                    nodes.push(node.child(i + 1));
+                    positions.push(0);
+                    continue;
+                }
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable vector implemented as a 32-way trie of javascript arrays (the same structure of Clojure's vector).
+ * <p>
+ *
+ * Every update returns a new vector sharing all untouched nodes with the previous one, so it costs
+ * O(log<sub>32</sub> n) in time and memory. Older versions remain valid, which makes snapshots (undo history,
+ * change detection) practically free: if two references are the same (==), their contents are the same.
+ * Updates that do not change anything return the very same vector.
+ * <p>
+ *
+ * For batch edits use a {@link Transient}, which updates its own nodes in place.
+ *
+ * @param <T> Type of vector values
+ *
+ * @author Danilo Reinert
+ */
+public final class JsPersistentVector<T> implements Iterable<T> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    @SuppressWarnings("rawtypes")
+    private static final JsPersistentVector EMPTY = new JsPersistentVector(0, BITS, Node.create(null),
+            Node.create(null));
+
+    private final int size;
+    private final int shift;
+    private final Node root;
+    private final Node tail;
+
+    private JsPersistentVector(int size, int shift, Node root, Node tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> JsPersistentVector<T> empty() {
+        return EMPTY;
+    }
+
+    public static <T> JsPersistentVector<T> of(T... values) {
+        final Transient<T> ret = JsPersistentVector.<T>empty().asTransient();
+        for (T value : values) {
+            ret.push(value);
+        }
+        return ret.persistent();
+    }
+
+    public static <T> JsPersistentVector<T> fromJsArray(JsArray<T> values) {
+        final Transient<T> ret = JsPersistentVector.<T>empty().asTransient();
+        for (int i = 0, l = values.length(); i < l; i++) {
+            ret.push(values.get(i));
+        }
+        return ret.persistent();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        checkIndex(index, size);
+        return (T) leafFor(index, size, shift, root, tail).get(index & MASK);
+    }
+
+    /**
+     * Returns a vector with the given value at the given index.
+     *
+     * @param index the index to be set
+     * @param value the value to be stored
+     * @return the updated vector, or this same vector if the value was already there
+     */
+    public JsPersistentVector<T> set(int index, T value) {
+        checkIndex(index, size);
+        if (get(index) == value) return this;
+
+        if (index >= tailOffset(size)) {
+            final Node newTail = tail.copy(null);
+            newTail.set(index & MASK, value);
+            return new JsPersistentVector<>(size, shift, root, newTail);
+        }
+        return new JsPersistentVector<>(size, shift, doSet(null, shift, root, index, value), tail);
+    }
+
+    /**
+     * Returns a vector with the given value appended.
+     *
+     * @param value the value to append
+     * @return the new vector
+     */
+    public JsPersistentVector<T> push(T value) {
+        if (size - tailOffset(size) < WIDTH) {
+            final Node newTail = tail.copy(null);
+            newTail.push(value);
+            return new JsPersistentVector<>(size + 1, shift, root, newTail);
+        }
+
+        final Node newTail = Node.create(null);
+        newTail.push(value);
+        if ((size >>> BITS) > (1 << shift)) {
+            // Root overflow
+            final Node newRoot = Node.create(null);
+            newRoot.set(0, root);
+            newRoot.set(1, newPath(null, shift, tail));
+            return new JsPersistentVector<>(size + 1, shift + BITS, newRoot, newTail);
+        }
+        return new JsPersistentVector<>(size + 1, shift, pushTail(null, size, shift, root, tail), newTail);
+    }
+
+    /**
+     * Returns a vector without its last value.
+     *
+     * @return the new vector
+     * @throws IllegalStateException if the vector is empty
+     */
+    public JsPersistentVector<T> pop() {
+        if (size == 0) throw new IllegalStateException("Can't pop an empty vector.");
+        if (size == 1) return empty();
+
+        if (size - tailOffset(size) > 1) {
+            return new JsPersistentVector<>(size - 1, shift, root, tail.slice(0, tail.length() - 1));
+        }
+
+        final Node newTail = leafFor(size - 2, size, shift, root, tail);
+        Node newRoot = popTail(size, shift, root);
+        int newShift = shift;
+        if (newRoot == null) {
+            newRoot = Node.create(null);
+        }
+        if (shift > BITS && newRoot.child(1) == null) {
+            newRoot = newRoot.child(0);
+            newShift -= BITS;
+        }
+        return new JsPersistentVector<>(size - 1, newShift, newRoot, newTail);
+    }
+
+    /**
+     * Creates a transient copy of this vector for batch edits. This vector is not affected by them.
+     *
+     * @return a new transient vector
+     */
+    public Transient<T> asTransient() {
+        return new Transient<>(this);
+    }
+
+    @SuppressWarnings("unchecked")
+    public JsArray<T> toJsArray() {
+        final JsArray<T> ret = JsArray.create();
+        for (int i = 0; i < size; i += WIDTH) {
+            final Node leaf = leafFor(i, size, shift, root, tail);
+            for (int j = 0, l = Math.min(WIDTH, size - i); j < l; j++) {
+                ret.push((T) leaf.get(j));
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private static Node leafFor(int index, int size, int shift, Node root, Node tail) {
+        if (index >= tailOffset(size)) return tail;
+
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = node.child((index >>> level) & MASK);
+        }
+        return node;
+    }
+
+    private static Node editable(JavaScriptObject edit, Node node) {
+        return edit != null && node.isOwnedBy(edit) ? node : node.copy(edit);
+    }
+
+    private static Node doSet(JavaScriptObject edit, int level, Node node, int index, Object value) {
+        final Node ret = editable(edit, node);
+        if (level == 0) {
+            ret.set(index & MASK, value);
+        } else {
+            final int i = (index >>> level) & MASK;
+            ret.set(i, doSet(edit, level - BITS, node.child(i), index, value));
+        }
+        return ret;
+    }
+
+    private static Node pushTail(JavaScriptObject edit, int size, int level, Node parent, Node tailNode) {
+        final int i = ((size - 1) >>> level) & MASK;
+        final Node ret = editable(edit, parent);
+        final Node toInsert;
+        if (level == BITS) {
+            toInsert = tailNode;
+        } else {
+            final Node child = parent.child(i);
+            toInsert = child != null ? pushTail(edit, size, level - BITS, child, tailNode)
+                    : newPath(edit, level - BITS, tailNode);
+        }
+        ret.set(i, toInsert);
+        return ret;
+    }
+
+    private static Node newPath(JavaScriptObject edit, int level, Node node) {
+        if (level == 0) return node;
+
+        final Node ret = Node.create(edit);
+        ret.set(0, newPath(edit, level - BITS, node));
+        return ret;
+    }
+
+    private static Node popTail(int size, int level, Node node) {
+        final int i = ((size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            final Node newChild = popTail(size, level - BITS, node.child(i));
+            if (newChild == null && i == 0) return null;
+
+            final Node ret = node.copy(null);
+            ret.set(i, newChild);
+            return ret;
+        }
+        if (i == 0) return null;
+
+        final Node ret = node.copy(null);
+        ret.setLength(i);
+        return ret;
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index);
+    }
+
+    /**
+     * A mutable version of {@link JsPersistentVector} for batch edits.
+     * <p>
+     *
+     * It copies each shared node only once, at the first time it is touched, and updates it in place afterwards.
+     * Once {@link #persistent()} is called, the transient can no longer be used.
+     *
+     * @param <T> Type of vector values
+     */
+    public static final class Transient<T> {
+
+        private final JavaScriptObject edit = JavaScriptObject.createObject();
+        private boolean active = true;
+        private int size;
+        private int shift;
+        private Node root;
+        private Node tail;
+
+        private Transient(JsPersistentVector<T> vector) {
+            size = vector.size;
+            shift = vector.shift;
+            root = vector.root;
+            tail = vector.tail.copy(edit);
+        }
+
+        public int size() {
+            ensureActive();
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            ensureActive();
+            checkIndex(index, size);
+            return (T) leafFor(index, size, shift, root, tail).get(index & MASK);
+        }
+
+        public Transient<T> set(int index, T value) {
+            ensureActive();
+            checkIndex(index, size);
+
+            if (index >= tailOffset(size)) {
+                tail.set(index & MASK, value);
+            } else {
+                root = doSet(edit, shift, root, index, value);
+            }
+            return this;
+        }
+
+        public Transient<T> push(T value) {
+            ensureActive();
+
+            if (size - tailOffset(size) < WIDTH) {
+                tail.push(value);
+                ++size;
+                return this;
+            }
+
+            final Node tailNode = tail;
+            tail = Node.create(edit);
+            tail.push(value);
+            if ((size >>> BITS) > (1 << shift)) {
+                final Node newRoot = Node.create(edit);
+                newRoot.set(0, root);
+                newRoot.set(1, newPath(edit, shift, tailNode));
+                root = newRoot;
+                shift += BITS;
+            } else {
+                root = pushTail(edit, size, shift, root, tailNode);
+            }
+            ++size;
+            return this;
+        }
+
+        /**
+         * Finishes the batch edits.
+         *
+         * @return the resulting persistent vector
+         */
+        public JsPersistentVector<T> persistent() {
+            ensureActive();
+            active = false;
+            return size == 0 ? JsPersistentVector.<T>empty()
+                    : new JsPersistentVector<T>(size, shift, root, tail.slice(0, size - tailOffset(size)));
+        }
+
+        private void ensureActive() {
+            if (!active) throw new IllegalStateException("Transient used after persistent() call.");
+        }
+    }
+
+    /**
+     * A node of the trie. Nodes created by a transient are marked with its edit token.
+     */
+    private static final class Node extends JavaScriptObject {
+
+        protected Node() {
+        }
+
+        static native Node create(JavaScriptObject edit) /*-{
+            var n = [];
+            n.e = edit;
+            return n;
+        }-*/;
+
+        final native Object get(int i) /*-{
+            return this[i];
+        }-*/;
+
+        final native Node child(int i) /*-{
+            return this[i];
+        }-*/;
+
+        final native void set(int i, Object value) /*-{
+            this[i] = value;
+        }-*/;
+
+        final native void push(Object value) /*-{
+            this[this.length] = value;
+        }-*/;
+
+        final native int length() /*-{
+            return this.length;
+        }-*/;
+
+        final native void setLength(int length) /*-{
+            this.length = length;
+        }-*/;
+
+        final native Node slice(int begin, int end) /*-{
+            return this.slice(begin, end);
+        }-*/;
+
+        final native Node copy(JavaScriptObject edit) /*-{
+            var n = this.slice();
+            n.e = edit;
+            return n;
+        }-*/;
+
+        final native boolean isOwnedBy(JavaScriptObject edit) /*-{
+            return this.e === edit;
+        }-*/;
+    }
+
+    private class Itr implements Iterator<T> {
+        private int cursor;
+        private Node leaf;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (cursor >= size) throw new NoSuchElementException();
+
+            if ((cursor & MASK) == 0) {
+                leaf = leafFor(cursor, size, shift, root, tail);
+            }
+            return (T) leaf.get(cursor++ & MASK);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
+
+import java.util.AbstractQueue;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A priority queue implemented as a binary min-heap over a {@link JsArray}.
+ * <p>
+ *
+ * The elements are ordered by a {@link Comparator}, or by their natural ordering if none is informed.
+ * Every element position in the heap is indexed by hash (according to a {@link Hasher}, by default the elements'
+ * hashCode and equals methods), so {@link #contains(Object)} runs in constant time and both {@link #remove(Object)}
+ * and {@link #update(Object)} (decrease or increase key) run in O(log n).
+ * <p>
+ *
+ * This queue does not support null values.
+ *
+ * @param <T> Type of queue values
+ *
+ * @author Danilo Reinert
+ */
+public class JsPriorityQueue<T> extends AbstractQueue<T> {
+
+    private final Comparator<? super T> comparator;
+    private final Hasher<? super T> hasher;
+    private final JsArray<T> heap = JsArray.create();
+    private final JsArrayInteger hashes = JavaScriptObject.createArray().cast();
+    private final PositionTable positions = PositionTable.create();
+
+    public JsPriorityQueue() {
+        this(null);
+    }
+
+    public JsPriorityQueue(Comparator<? super T> comparator) {
+        this(comparator, Hashers.<T>equality());
+    }
+
+    public JsPriorityQueue(Comparator<? super T> comparator, Hasher<? super T> hasher) {
+        this.comparator = comparator;
+        this.hasher = hasher;
+    }
+
+    /**
+     * Creates a queue containing the given values. It is built in linear time.
+     *
+     * @param values the values to enqueue
+     * @param comparator the comparator, or null for natural ordering
+     * @param <T> Type of queue values
+     * @return the new queue
+     */
+    public static <T> JsPriorityQueue<T> fromJsArray(JsArray<T> values, Comparator<? super T> comparator) {
+        final JsPriorityQueue<T> queue = new JsPriorityQueue<>(comparator);
+        for (int i = 0, l = values.length(); i < l; i++) {
+            final T t = values.get(i);
+            queue.checkNotNull(t);
+            final int h = queue.hasher.hash(t);
+            queue.heap.push(t);
+            queue.hashes.push(h);
+            queue.positions.add(h, i);
+        }
+        for (int i = (values.length() >>> 1) - 1; i >= 0; i--) {
+            queue.siftDown(i);
+        }
+        return queue;
+    }
+
+    /**
+     * Selects the k least values of the given array, without modifying it. It runs in O(n log k).
+     *
+     * @param values the values to select from
+     * @param k the number of values to select
+     * @param comparator the comparator, or null for natural ordering
+     * @param <T> Type of the values
+     * @return a new array with the k least values in ascending order
+     */
+    public static <T> JsArray<T> topK(JsArray<T> values, int k, Comparator<? super T> comparator) {
+        // Bounded max-heap: its root is the greatest of the least values found so far
+        final JsArray<T> top = JsArray.create();
+        if (k <= 0) return top;
+
+        for (int i = 0, l = values.length(); i < l; i++) {
+            final T t = values.get(i);
+            if (top.length() < k) {
+                int c = top.length();
+                while (c > 0) {
+                    final int p = (c - 1) >>> 1;
+                    if (compare(comparator, t, top.get(p)) <= 0) break;
+                    top.set(c, top.get(p));
+                    c = p;
+                }
+                top.set(c, t);
+            } else if (compare(comparator, t, top.get(0)) < 0) {
+                final int n = top.length();
+                int c = 0;
+                int child;
+                while ((child = 2 * c + 1) < n) {
+                    if (child + 1 < n && compare(comparator, top.get(child + 1), top.get(child)) > 0) child++;
+                    if (compare(comparator, t, top.get(child)) >= 0) break;
+                    top.set(c, top.get(child));
+                    c = child;
+                }
+                top.set(c, t);
+            }
+        }
+
+        // Extract in descending order filling the array backwards
+        for (int end = top.length() - 1; end > 0; end--) {
+            final T max = top.get(0);
+            final T t = top.get(end);
+            int c = 0;
+            int child;
+            while ((child = 2 * c + 1) < end) {
+                if (child + 1 < end && compare(comparator, top.get(child + 1), top.get(child)) > 0) child++;
+                if (compare(comparator, t, top.get(child)) >= 0) break;
+                top.set(c, top.get(child));
+                c = child;
+            }
+            top.set(c, t);
+            top.set(end, max);
+        }
+        return top;
+    }
+
+    @Override
+    public int size() {
+        return heap.length();
+    }
+
+    @Override
+    public boolean offer(T t) {
+        checkNotNull(t);
+
+        final int i = heap.length();
+        final int h = hasher.hash(t);
+        heap.push(t);
+        hashes.push(h);
+        positions.add(h, i);
+        siftUp(i);
+        return true;
+    }
+
+    @Override
+    public T poll() {
+        if (heap.length() == 0) return null;
+
+        final T t = heap.get(0);
+        removeAt(0);
+        return t;
+    }
+
+    @Override
+    public T peek() {
+        return heap.length() == 0 ? null : heap.get(0);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o != null && indexOf(o) > -1;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) return false;
+
+        final int i = indexOf(o);
+        if (i == -1) return false;
+
+        removeAt(i);
+        return true;
+    }
+
+    /**
+     * Restores the heap order after the priority of the given element has changed (decrease or increase key).
+     *
+     * @param t the element whose priority has changed
+     * @return <code>true</code> if the element was found, <code>false</code> otherwise
+     */
+    public boolean update(T t) {
+        checkNotNull(t);
+
+        final int i = indexOf(t);
+        if (i == -1) return false;
+
+        if (siftUp(i) == i) siftDown(i);
+        return true;
+    }
+
+    /**
+     * Removes at most the given number of elements from this queue, in priority order,
+     * and appends them to the given array.
+     *
+     * @param target the array which receives the elements
+     * @param maxElements the maximum number of elements to drain
+     * @return the number of drained elements
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(JsArray<? super T> target, int maxElements) {
+        final JsArray<T> a = (JsArray<T>) target;
+        int n = 0;
+        while (n < maxElements && heap.length() > 0) {
+            a.push(poll());
+            n++;
+        }
+        return n;
+    }
+
+    @Override
+    public void clear() {
+        heap.setLength(0);
+        hashes.setLength(0);
+        positions.clear();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return heap.toArray();
+    }
+
+    /**
+     * Iterates over the elements in no particular order.
+     *
+     * @return an iterator over the elements
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    private int indexOf(Object o) {
+        @SuppressWarnings("unchecked")
+        final T t = (T) o;
+        final JsArrayInteger bucket = positions.get(hasher.hash(t));
+        if (bucket != null) {
+            for (int i = 0, l = bucket.length(); i < l; i++) {
+                final int p = bucket.get(i);
+                if (hasher.equals(t, heap.get(p))) return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the element at the given position, moving the last element to it.
+     *
+     * @return the moved element if it was sifted up past the given position, or null otherwise
+     */
+    private T removeAt(int i) {
+        final int last = heap.length() - 1;
+        positions.remove(hashes.get(i), i);
+        if (i == last) {
+            heap.setLength(last);
+            hashes.setLength(last);
+            return null;
+        }
+
+        final T moved = heap.get(last);
+        final int h = hashes.get(last);
+        heap.setLength(last);
+        hashes.setLength(last);
+        positions.replace(h, last, i);
+        heap.set(i, moved);
+        hashes.set(i, h);
+
+        if (siftDown(i) == i && siftUp(i) != i) return moved;
+        return null;
+    }
+
+    /**
+     * @return the final position of the element
+     */
+    private int siftUp(int i) {
+        final T t = heap.get(i);
+        final int h = hashes.get(i);
+        final int from = i;
+        while (i > 0) {
+            final int p = (i - 1) >>> 1;
+            final T parent = heap.get(p);
+            if (compare(comparator, t, parent) >= 0) break;
+            move(p, i, parent, hashes.get(p));
+            i = p;
+        }
+        if (i != from) move(from, i, t, h);
+        return i;
+    }
+
+    /**
+     * @return the final position of the element
+     */
+    private int siftDown(int i) {
+        final T t = heap.get(i);
+        final int h = hashes.get(i);
+        final int from = i;
+        final int n = heap.length();
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && compare(comparator, heap.get(child + 1), heap.get(child)) < 0) child++;
+            final T c = heap.get(child);
+            if (compare(comparator, t, c) <= 0) break;
+            move(child, i, c, hashes.get(child));
+            i = child;
+        }
+        if (i != from) move(from, i, t, h);
+        return i;
+    }
+
+    private void move(int from, int to, T t, int h) {
+        heap.set(to, t);
+        hashes.set(to, h);
+        positions.replace(h, from, to);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> int compare(Comparator<? super T> comparator, T a, T b) {
+        return comparator != null ? comparator.compare(a, b) : ((Comparable<? super T>) a).compareTo(b);
+    }
+
+    private void checkNotNull(Object o) {
+        if (o == null) throw new NullPointerException("This queue does not support null values");
+    }
+
+    private class Itr implements Iterator<T> {
+        private int cursor;                 // index of next element to return
+        private int lastRet = -1;           // index of last element returned; -1 if no such
+        private JsArray<T> forgetMeNot;     // elements moved into the visited region by removals
+        private T lastRetElt;               // last element returned from forgetMeNot
+
+        public boolean hasNext() {
+            return cursor < heap.length() || (forgetMeNot != null && forgetMeNot.length() > 0);
+        }
+
+        public T next() {
+            if (cursor < heap.length()) {
+                return heap.get(lastRet = cursor++);
+            }
+            if (forgetMeNot != null && forgetMeNot.length() > 0) {
+                lastRet = -1;
+                lastRetElt = forgetMeNot.pop();
+                return lastRetElt;
+            }
+            throw new NoSuchElementException();
+        }
+
+        public void remove() {
+            if (lastRet != -1) {
+                final T moved = removeAt(lastRet);
+                lastRet = -1;
+                if (moved == null) {
+                    cursor--;
+                } else {
+                    if (forgetMeNot == null) forgetMeNot = JsArray.create();
+                    forgetMeNot.push(moved);
+                }
+            } else if (lastRetElt != null) {
+                JsPriorityQueue.this.remove(lastRetElt);
+                lastRetElt = null;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JsArrayInteger;
+import com.google.gwt.core.client.JsArrayNumber;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A priority queue of payloads ordered by native double priorities, the least priority first.
+ * <p>
+ *
+ * It is implemented as a binary min-heap over parallel arrays: the priorities are kept in a Float64Array
+ * (see {@link JsArrays#createFloat64(int)}), so they are never boxed nor compared through a {@link java.util.Comparator}.
+ * Every payload position is indexed by hash (according to a {@link Hasher}, by default the payloads' hashCode and
+ * equals methods), so {@link #setPriority(Object, double)} (decrease or increase key) runs in O(log n).
+ * <p>
+ *
+ * This queue does not support null payloads.
+ *
+ * @param <T> Type of the payloads
+ *
+ * @author Danilo Reinert
+ */
+public class JsPriorityQueueNumber<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Hasher<? super T> hasher;
+    private final JsArray<T> payloads = JsArray.create();
+    private final PositionTable positions = PositionTable.create();
+    private JsArrayNumber priorities;
+    private JsArrayInteger hashes;
+    private int size;
+
+    public JsPriorityQueueNumber() {
+        this(Hashers.<T>equality());
+    }
+
+    public JsPriorityQueueNumber(Hasher<? super T> hasher) {
+        this.hasher = hasher;
+        this.priorities = JsArrays.createFloat64(DEFAULT_CAPACITY);
+        this.hashes = JsArrays.createInt32(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a queue containing the given payloads with their respective priorities. It is built in linear time.
+     *
+     * @param payloads the payloads to enqueue
+     * @param priorities the priorities of the payloads, at the same positions
+     * @param <T> Type of the payloads
+     * @return the new queue
+     */
+    public static <T> JsPriorityQueueNumber<T> fromJsArrays(JsArray<T> payloads, JsArrayNumber priorities) {
+        if (payloads.length() != priorities.length())
+            throw new IllegalArgumentException("Payloads and priorities must have the same length.");
+
+        final JsPriorityQueueNumber<T> queue = new JsPriorityQueueNumber<>();
+        final int n = payloads.length();
+        queue.ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            final T t = payloads.get(i);
+            queue.checkNotNull(t);
+            final int h = queue.hasher.hash(t);
+            queue.payloads.push(t);
+            queue.priorities.set(i, priorities.get(i));
+            queue.hashes.set(i, h);
+            queue.positions.add(h, i);
+        }
+        queue.size = n;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            queue.siftDown(i);
+        }
+        return queue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void offer(T payload, double priority) {
+        checkNotNull(payload);
+        ensureCapacity(size + 1);
+
+        final int i = size++;
+        final int h = hasher.hash(payload);
+        payloads.push(payload);
+        priorities.set(i, priority);
+        hashes.set(i, h);
+        positions.add(h, i);
+        siftUp(i);
+    }
+
+    /**
+     * Retrieves, but does not remove, the payload with the least priority.
+     *
+     * @return the head payload, or null if the queue is empty
+     */
+    public T peek() {
+        return size == 0 ? null : payloads.get(0);
+    }
+
+    /**
+     * Retrieves the least priority of the queue.
+     *
+     * @return the priority of the head payload
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public double peekPriority() {
+        if (size == 0) throw new NoSuchElementException();
+        return priorities.get(0);
+    }
+
+    /**
+     * Retrieves and removes the payload with the least priority.
+     *
+     * @return the head payload, or null if the queue is empty
+     */
+    public T poll() {
+        if (size == 0) return null;
+
+        final T t = payloads.get(0);
+        removeAt(0);
+        return t;
+    }
+
+    public boolean contains(T payload) {
+        return payload != null && indexOf(payload) > -1;
+    }
+
+    /**
+     * Retrieves the priority of the given payload.
+     *
+     * @param payload the enqueued payload
+     * @return its priority, or NaN if the payload is not enqueued
+     */
+    public double priorityOf(T payload) {
+        checkNotNull(payload);
+
+        final int i = indexOf(payload);
+        return i > -1 ? priorities.get(i) : Double.NaN;
+    }
+
+    /**
+     * Changes the priority of an enqueued payload (decrease or increase key).
+     *
+     * @param payload the enqueued payload
+     * @param priority the new priority
+     * @return <code>true</code> if the payload was found, <code>false</code> otherwise
+     */
+    public boolean setPriority(T payload, double priority) {
+        checkNotNull(payload);
+
+        final int i = indexOf(payload);
+        if (i == -1) return false;
+
+        final double old = priorities.get(i);
+        priorities.set(i, priority);
+        if (priority < old) {
+            siftUp(i);
+        } else if (priority > old) {
+            siftDown(i);
+        }
+        return true;
+    }
+
+    public boolean remove(T payload) {
+        if (payload == null) return false;
+
+        final int i = indexOf(payload);
+        if (i == -1) return false;
+
+        removeAt(i);
+        return true;
+    }
+
+    /**
+     * Removes at most the given number of payloads from this queue, in priority order,
+     * and appends them to the given array.
+     *
+     * @param target the array which receives the payloads
+     * @param maxElements the maximum number of payloads to drain
+     * @return the number of drained payloads
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(JsArray<? super T> target, int maxElements) {
+        final JsArray<T> a = (JsArray<T>) target;
+        int n = 0;
+        while (n < maxElements && size > 0) {
+            a.push(poll());
+            n++;
+        }
+        return n;
+    }
+
+    public void clear() {
+        payloads.setLength(0);
+        positions.clear();
+        size = 0;
+    }
+
+    private int indexOf(T payload) {
+        final JsArrayInteger bucket = positions.get(hasher.hash(payload));
+        if (bucket != null) {
+            for (int i = 0, l = bucket.length(); i < l; i++) {
+                final int p = bucket.get(i);
+                if (hasher.equals(payload, payloads.get(p))) return p;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int i) {
+        final int last = --size;
+        positions.remove(hashes.get(i), i);
+        if (i != last) {
+            move(last, i, payloads.get(last), priorities.get(last), hashes.get(last));
+        }
+        payloads.setLength(last);
+
+        if (i != last && siftDown(i) == i) siftUp(i);
+    }
+
+    private int siftUp(int i) {
+        final T t = payloads.get(i);
+        final double priority = priorities.get(i);
+        final int h = hashes.get(i);
+        final int from = i;
+        while (i > 0) {
+            final int p = (i - 1) >>> 1;
+            if (priority >= priorities.get(p)) break;
+            move(p, i, payloads.get(p), priorities.get(p), hashes.get(p));
+            i = p;
+        }
+        if (i != from) move(from, i, t, priority, h);
+        return i;
+    }
+
+    private int siftDown(int i) {
+        final T t = payloads.get(i);
+        final double priority = priorities.get(i);
+        final int h = hashes.get(i);
+        final int from = i;
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && priorities.get(child + 1) < priorities.get(child)) child++;
+            if (priority <= priorities.get(child)) break;
+            move(child, i, payloads.get(child), priorities.get(child), hashes.get(child));
+            i = child;
+        }
+        if (i != from) move(from, i, t, priority, h);
+        return i;
+    }
+
+    private void move(int from, int to, T t, double priority, int h) {
+        payloads.set(to, t);
+        priorities.set(to, priority);
+        hashes.set(to, h);
+        positions.replace(h, from, to);
+    }
+
+    private void ensureCapacity(int capacity) {
+        final int current = priorities.length();
+        if (capacity <= current) return;
+
+        int newCapacity = current << 1;
+        while (newCapacity < capacity) {
+            newCapacity <<= 1;
+        }
+
+        final JsArrayNumber newPriorities = JsArrays.createFloat64(newCapacity);
+        final JsArrayInteger newHashes = JsArrays.createInt32(newCapacity);
+        for (int i = 0; i < size; i++) {
+            newPriorities.set(i, priorities.get(i));
+            newHashes.set(i, hashes.get(i));
+        }
+        priorities = newPriorities;
+        hashes = newHashes;
+    }
+
+    private void checkNotNull(Object o) {
+        if (o == null) throw new NullPointerException("This queue does not support null payloads");
+    }
+}
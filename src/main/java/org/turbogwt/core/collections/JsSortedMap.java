@@ -0,0 +1,461 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A Map sorted by its keys, implemented over two parallel sorted {@link JsArray}s.
+ * <p>
+ *
+ * The keys are ordered by a {@link Comparator}, or by their natural ordering if none is informed.
+ * Lookups and navigation (floor, ceiling, lower, higher) run in O(log n) by binary search; insertions and removals
+ * also search in O(log n) and then shift the arrays natively.
+ * <p>
+ *
+ * Range queries are answered with positions, so they can be iterated without allocating any view or entry:
+ * <pre>
+ *     for (int i = map.ceilingIndex(from), end = map.higherIndex(to); i &lt; end; i++) {
+ *         process(map.keyAt(i), map.valueAt(i));
+ *     }
+ * </pre>
+ *
+ * This map does not support null keys or values.
+ *
+ * @param <K> The type of the map keys
+ * @param <V> The type of the map values
+ *
+ * @author Danilo Reinert
+ */
+public class JsSortedMap<K, V> implements Map<K, V> {
+
+    private final Comparator<? super K> comparator;
+    private final JsArray<K> keys = JsArray.create();
+    private final JsArray<V> values = JsArray.create();
+
+    public JsSortedMap() {
+        this(null);
+    }
+
+    public JsSortedMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        return keys.length();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.length() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object o) {
+        return indexOfKey(o) > -1;
+    }
+
+    @Override
+    public boolean containsValue(Object o) {
+        checkNotNull(o);
+
+        for (int i = 0; i < values.length(); i++) {
+            if (o.equals(values.get(i))) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object o) {
+        final int i = indexOfKey(o);
+        return i > -1 ? values.get(i) : null;
+    }
+
+    @Override
+    public V put(K k, V v) {
+        checkNotNull(k);
+        checkNotNull(v);
+
+        final int i = keys.lowerBound(k, comparator);
+        if (i < keys.length() && JsArray.compare(comparator, keys.get(i), k) == 0) {
+            final V old = values.get(i);
+            values.set(i, v);
+            return old;
+        }
+
+        keys.splice(i, k);
+        values.splice(i, v);
+        return null;
+    }
+
+    @Override
+    public V remove(Object o) {
+        final int i = indexOfKey(o);
+        if (i == -1) return null;
+
+        final V old = values.get(i);
+        removeAt(i);
+        return old;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Entry<? extends K, ? extends V> e : map.entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        keys.setLength(0);
+        values.setLength(0);
+    }
+
+    /**
+     * Gets the position of the given key.
+     *
+     * @param o the key to look for
+     * @return the position of the key, or -1 if it is not mapped
+     */
+    public int indexOfKey(Object o) {
+        checkNotNull(o);
+
+        @SuppressWarnings("unchecked")
+        final K k = (K) o;
+        final int i = keys.lowerBound(k, comparator);
+        return i < keys.length() && JsArray.compare(comparator, keys.get(i), k) == 0 ? i : -1;
+    }
+
+    public K keyAt(int index) {
+        checkIndex(index);
+        return keys.get(index);
+    }
+
+    public V valueAt(int index) {
+        checkIndex(index);
+        return values.get(index);
+    }
+
+    /**
+     * Removes the mapping at the given position.
+     *
+     * @param index the position of the mapping
+     * @return the removed value
+     */
+    public V removeAt(int index) {
+        checkIndex(index);
+
+        final V old = values.get(index);
+        keys.splice(index, 1);
+        values.splice(index, 1);
+        return old;
+    }
+
+    /**
+     * @param k the reference key
+     * @return the position of the least key greater than or equal to the given key, or {@link #size()} if none
+     */
+    public int ceilingIndex(K k) {
+        checkNotNull(k);
+        return keys.lowerBound(k, comparator);
+    }
+
+    /**
+     * @param k the reference key
+     * @return the position of the least key strictly greater than the given key, or {@link #size()} if none
+     */
+    public int higherIndex(K k) {
+        checkNotNull(k);
+        return keys.upperBound(k, comparator);
+    }
+
+    /**
+     * @param k the reference key
+     * @return the position of the greatest key less than or equal to the given key, or -1 if none
+     */
+    public int floorIndex(K k) {
+        return higherIndex(k) - 1;
+    }
+
+    /**
+     * @param k the reference key
+     * @return the position of the greatest key strictly less than the given key, or -1 if none
+     */
+    public int lowerIndex(K k) {
+        return ceilingIndex(k) - 1;
+    }
+
+    public K firstKey() {
+        if (keys.length() == 0) throw new NoSuchElementException();
+        return keys.get(0);
+    }
+
+    public K lastKey() {
+        if (keys.length() == 0) throw new NoSuchElementException();
+        return keys.get(keys.length() - 1);
+    }
+
+    public K ceilingKey(K k) {
+        return keyOrNull(ceilingIndex(k));
+    }
+
+    public K higherKey(K k) {
+        return keyOrNull(higherIndex(k));
+    }
+
+    public K floorKey(K k) {
+        return keyOrNull(floorIndex(k));
+    }
+
+    public K lowerKey(K k) {
+        return keyOrNull(lowerIndex(k));
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new Values();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+
+        final Map<?, ?> other = (Map<?, ?>) o;
+        if (other.size() != size()) return false;
+
+        for (int i = 0; i < keys.length(); i++) {
+            if (!values.get(i).equals(other.get(keys.get(i)))) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < keys.length(); i++) {
+            h += keys.get(i).hashCode() ^ values.get(i).hashCode();
+        }
+        return h;
+    }
+
+    private K keyOrNull(int index) {
+        return index >= 0 && index < keys.length() ? keys.get(index) : null;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= keys.length())
+            throw new IndexOutOfBoundsException("Index: " + index);
+    }
+
+    private void checkNotNull(Object o) {
+        if (o == null) throw new NullPointerException("This map does not support null values");
+    }
+
+    private abstract class Itr<E> implements Iterator<E> {
+        int cursor;       // index of next element to return
+        int lastRet = -1; // index of last element returned; -1 if no such
+
+        public boolean hasNext() {
+            return cursor < keys.length();
+        }
+
+        public E next() {
+            int i = cursor;
+            if (i >= keys.length()) {
+                throw new NoSuchElementException();
+            }
+            cursor = i + 1;
+            return get(lastRet = i);
+        }
+
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+
+            removeAt(lastRet);
+            cursor = lastRet;
+            lastRet = -1;
+        }
+
+        abstract E get(int i);
+    }
+
+    private class KeySet extends AbstractSet<K> {
+
+        @Override
+        public int size() {
+            return JsSortedMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return JsSortedMap.this.remove(o) != null;
+        }
+
+        @Override
+        public void clear() {
+            JsSortedMap.this.clear();
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new Itr<K>() {
+                @Override
+                K get(int i) {
+                    return keys.get(i);
+                }
+            };
+        }
+    }
+
+    private class Values extends AbstractCollection<V> {
+
+        @Override
+        public int size() {
+            return JsSortedMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            JsSortedMap.this.clear();
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Itr<V>() {
+                @Override
+                V get(int i) {
+                    return values.get(i);
+                }
+            };
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public int size() {
+            return JsSortedMap.this.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) return false;
+
+            final Entry<K, V> entry = (Entry<K, V>) o;
+            final V v = JsSortedMap.this.get(entry.getKey());
+            return v != null && v.equals(entry.getValue());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            return contains(o) && JsSortedMap.this.remove(((Entry<K, V>) o).getKey()) != null;
+        }
+
+        @Override
+        public void clear() {
+            JsSortedMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new Itr<Entry<K, V>>() {
+                @Override
+                Entry<K, V> get(int i) {
+                    return new SortedEntry(keys.get(i));
+                }
+            };
+        }
+    }
+
+    private class SortedEntry implements Entry<K, V> {
+
+        private final K key;
+
+        private SortedEntry(K key) {
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return JsSortedMap.this.get(key);
+        }
+
+        @Override
+        public V setValue(V v) {
+            return JsSortedMap.this.put(key, v);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+
+            final Entry<?, ?> entry = (Entry<?, ?>) o;
+            return key.equals(entry.getKey()) && getValue().equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ getValue().hashCode();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A Set sorted by its values, implemented over a sorted {@link JsArray}.
+ * <p>
+ *
+ * The values are ordered by a {@link Comparator}, or by their natural ordering if none is informed.
+ * Membership and navigation (floor, ceiling, lower, higher) run in O(log n) by binary search; insertions and
+ * removals also search in O(log n) and then shift the array natively.
+ * <p>
+ *
+ * Range queries are answered with positions, so they can be iterated without allocating any view:
+ * <pre>
+ *     for (int i = set.ceilingIndex(from), end = set.higherIndex(to); i &lt; end; i++) {
+ *         process(set.get(i));
+ *     }
+ * </pre>
+ *
+ * This set does not support null values.
+ *
+ * @param <T> Type of set values
+ *
+ * @author Danilo Reinert
+ */
+public class JsSortedSet<T> extends AbstractSet<T> {
+
+    private final Comparator<? super T> comparator;
+    private final JsArray<T> innerArray = JsArray.create();
+
+    public JsSortedSet() {
+        this(null);
+    }
+
+    public JsSortedSet(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    public Comparator<? super T> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        return innerArray.length();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) > -1;
+    }
+
+    @Override
+    public boolean add(T t) {
+        checkNotNull(t);
+
+        final int i = innerArray.lowerBound(t, comparator);
+        if (i < innerArray.length() && JsArray.compare(comparator, innerArray.get(i), t) == 0) return false;
+
+        innerArray.splice(i, t);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        final int i = indexOf(o);
+        if (i == -1) return false;
+
+        innerArray.splice(i, 1);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        innerArray.setLength(0);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return innerArray.toArray();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Gets the position of the given value.
+     *
+     * @param o the value to look for
+     * @return the position of the value, or -1 if it is not in the set
+     */
+    public int indexOf(Object o) {
+        checkNotNull(o);
+
+        @SuppressWarnings("unchecked")
+        final T t = (T) o;
+        final int i = innerArray.lowerBound(t, comparator);
+        return i < innerArray.length() && JsArray.compare(comparator, innerArray.get(i), t) == 0 ? i : -1;
+    }
+
+    public T get(int index) {
+        if (index < 0 || index >= innerArray.length())
+            throw new IndexOutOfBoundsException("Index: " + index);
+
+        return innerArray.get(index);
+    }
+
+    /**
+     * @param t the reference value
+     * @return the position of the least value greater than or equal to the given one, or {@link #size()} if none
+     */
+    public int ceilingIndex(T t) {
+        checkNotNull(t);
+        return innerArray.lowerBound(t, comparator);
+    }
+
+    /**
+     * @param t the reference value
+     * @return the position of the least value strictly greater than the given one, or {@link #size()} if none
+     */
+    public int higherIndex(T t) {
+        checkNotNull(t);
+        return innerArray.upperBound(t, comparator);
+    }
+
+    /**
+     * @param t the reference value
+     * @return the position of the greatest value less than or equal to the given one, or -1 if none
+     */
+    public int floorIndex(T t) {
+        return higherIndex(t) - 1;
+    }
+
+    /**
+     * @param t the reference value
+     * @return the position of the greatest value strictly less than the given one, or -1 if none
+     */
+    public int lowerIndex(T t) {
+        return ceilingIndex(t) - 1;
+    }
+
+    public T first() {
+        if (innerArray.length() == 0) throw new NoSuchElementException();
+        return innerArray.get(0);
+    }
+
+    public T last() {
+        if (innerArray.length() == 0) throw new NoSuchElementException();
+        return innerArray.get(innerArray.length() - 1);
+    }
+
+    public T ceiling(T t) {
+        return valueOrNull(ceilingIndex(t));
+    }
+
+    public T higher(T t) {
+        return valueOrNull(higherIndex(t));
+    }
+
+    public T floor(T t) {
+        return valueOrNull(floorIndex(t));
+    }
+
+    public T lower(T t) {
+        return valueOrNull(lowerIndex(t));
+    }
+
+    private T valueOrNull(int index) {
+        return index >= 0 && index < innerArray.length() ? innerArray.get(index) : null;
+    }
+
+    private void checkNotNull(Object o) {
+        if (o == null) throw new NullPointerException("This Set does not support null values");
+    }
+
+    private class Itr implements Iterator<T> {
+        int cursor;       // index of next element to return
+        int lastRet = -1; // index of last element returned; -1 if no such
+
+        public boolean hasNext() {
+            return cursor < innerArray.length();
+        }
+
+        public T next() {
+            int i = cursor;
+            if (i >= innerArray.length()) {
+                throw new NoSuchElementException();
+            }
+            cursor = i + 1;
+            return innerArray.get(lastRet = i);
+        }
+
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+
+            innerArray.splice(lastRet, 1);
+            cursor = lastRet;
+            lastRet = -1;
+        }
+    }
+}
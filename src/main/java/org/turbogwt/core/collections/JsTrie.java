@@ -0,0 +1,415 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A compressed radix trie mapping String keys to values.
+ * <p>
+ *
+ * Each edge holds a run of characters shared by all the keys below it, and the children of a node are kept sorted
+ * by their first character. Therefore lookups cost O(key length), a prefix query costs O(prefix length + results)
+ * and the keys are always iterated in lexicographic order (the same as {@link String#compareTo(String)}).
+ * <p>
+ *
+ * The children of each node live in a flat {@link JsArray}, searched by binary search on their first character.
+ * The nodes themselves are small Java objects with fixed fields, which compile to plain JS objects. A {@link JsMap}
+ * per node would need its keys sorted on every ordered walk, and it would keep a key array for each node.
+ * <p>
+ *
+ * Typical usage for autocomplete:
+ * <pre>
+ *     JsTrie&lt;Product&gt; trie = JsTrie.fromJsArrays(names, products);
+ *     JsArray&lt;Product&gt; suggestions = trie.valuesWithPrefix(typed, 10);
+ * </pre>
+ *
+ * This trie does not support null keys. Null values are accepted.
+ *
+ * @param <V> Type of trie values
+ *
+ * @author Danilo Reinert
+ */
+public class JsTrie<V> implements Iterable<String> {
+
+    private Node<V> root = new Node<>("");
+    private int size;
+
+    /**
+     * Creates a trie mapping each key to its respective value.
+     *
+     * @param keys      the keys
+     * @param values    the values, in the same order as the keys
+     * @param <V>       Type of trie values
+     *
+     * @return the new trie
+     */
+    public static <V> JsTrie<V> fromJsArrays(JsArrayString keys, JsArray<V> values) {
+        if (keys.length() != values.length())
+            throw new IllegalArgumentException("Keys and values must have the same length");
+
+        final JsTrie<V> trie = new JsTrie<>();
+        for (int i = 0; i < keys.length(); i++) {
+            trie.put(keys.get(i), values.get(i));
+        }
+        return trie;
+    }
+
+    /**
+     * Creates a trie mapping each key to itself.
+     *
+     * @param keys  the keys
+     *
+     * @return the new trie
+     */
+    public static JsTrie<String> fromJsArray(JsArrayString keys) {
+        final JsTrie<String> trie = new JsTrie<>();
+        for (int i = 0; i < keys.length(); i++) {
+            trie.put(keys.get(i), keys.get(i));
+        }
+        return trie;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(String key) {
+        final Node<V> node = find(key);
+        return node != null && node.terminal;
+    }
+
+    public V get(String key) {
+        final Node<V> node = find(key);
+        return node != null ? node.value : null;
+    }
+
+    public V put(String key, V value) {
+        checkNotNull(key);
+
+        Node<V> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            final int ci = childIndex(node, key.charAt(i));
+            if (ci < 0) {
+                final Node<V> leaf = new Node<>(key.substring(i));
+                leaf.terminal = true;
+                leaf.value = value;
+                children(node).splice(-ci - 1, leaf);
+                size++;
+                return null;
+            }
+
+            Node<V> child = node.children.get(ci);
+            final int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge at the divergence point
+                final Node<V> middle = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                children(middle).push(child);
+                node.children.set(ci, middle);
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+
+        final V old = node.value;
+        if (!node.terminal) {
+            node.terminal = true;
+            size++;
+        }
+        node.value = value;
+        return old;
+    }
+
+    public V remove(String key) {
+        checkNotNull(key);
+
+        Node<V> parent = null;
+        Node<V> node = root;
+        int childIndex = -1;
+        int i = 0;
+        while (i < key.length()) {
+            final int ci = childIndex(node, key.charAt(i));
+            if (ci < 0) return null;
+
+            final Node<V> child = node.children.get(ci);
+            if (!key.startsWith(child.label, i)) return null;
+
+            parent = node;
+            childIndex = ci;
+            node = child;
+            i += child.label.length();
+        }
+        if (!node.terminal) return null;
+
+        final V old = node.value;
+        node.terminal = false;
+        node.value = null;
+        size--;
+
+        // Keep the trie compressed
+        if (parent != null) {
+            final int children = childCount(node);
+            if (children == 0) {
+                parent.children.splice(childIndex, 1);
+                if (parent != root && !parent.terminal && childCount(parent) == 1) mergeWithChild(parent);
+            } else if (children == 1) {
+                mergeWithChild(node);
+            }
+        }
+        return old;
+    }
+
+    public void clear() {
+        root = new Node<>("");
+        size = 0;
+    }
+
+    /**
+     * Returns the keys starting with the given prefix, in lexicographic order.
+     *
+     * @param prefix    the prefix
+     * @param limit     the maximum number of keys to return
+     *
+     * @return the matching keys
+     */
+    public JsArrayString keysWithPrefix(String prefix, int limit) {
+        final JsArrayString keys = JavaScriptObject.createArray().cast();
+        collect(prefix, limit, keys, null);
+        return keys;
+    }
+
+    /**
+     * Returns the values whose keys start with the given prefix, in lexicographic order of the keys.
+     *
+     * @param prefix    the prefix
+     * @param limit     the maximum number of values to return
+     *
+     * @return the matching values
+     */
+    public JsArray<V> valuesWithPrefix(String prefix, int limit) {
+        final JsArray<V> values = JsArray.create();
+        collect(prefix, limit, null, values);
+        return values;
+    }
+
+    /**
+     * Returns the longest key which is a prefix of the given string.
+     *
+     * @param s the string
+     *
+     * @return the longest matching key or null if there is none
+     */
+    public String longestPrefixOf(String s) {
+        checkNotNull(s);
+
+        Node<V> node = root;
+        int i = 0;
+        int longest = root.terminal ? 0 : -1;
+        while (i < s.length()) {
+            final int ci = childIndex(node, s.charAt(i));
+            if (ci < 0) break;
+
+            node = node.children.get(ci);
+            if (!s.startsWith(node.label, i)) break;
+
+            i += node.label.length();
+            if (node.terminal) longest = i;
+        }
+        return longest < 0 ? null : s.substring(0, longest);
+    }
+
+    /**
+     * Iterates over the keys in lexicographic order.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Itr();
+    }
+
+    private Node<V> find(String key) {
+        checkNotNull(key);
+
+        Node<V> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            final int ci = childIndex(node, key.charAt(i));
+            if (ci < 0) return null;
+
+            node = node.children.get(ci);
+            if (!key.startsWith(node.label, i)) return null;
+
+            i += node.label.length();
+        }
+        return node;
+    }
+
+    private void collect(String prefix, int limit, JsArrayString keys, JsArray<V> values) {
+        checkNotNull(prefix);
+        if (limit <= 0) return;
+
+        // Locate the topmost node whose keys all start with the prefix
+        Node<V> node = root;
+        String path = "";
+        int i = 0;
+        while (i < prefix.length()) {
+            final int ci = childIndex(node, prefix.charAt(i));
+            if (ci < 0) return;
+
+            node = node.children.get(ci);
+            final int common = commonPrefixLength(node.label, prefix, i);
+            if (common < node.label.length() && i + common < prefix.length()) return;
+
+            path += node.label;
+            i += node.label.length();
+        }
+        collect(node, path, limit, keys, values);
+    }
+
+    private int collect(Node<V> node, String key, int remaining, JsArrayString keys, JsArray<V> values) {
+        if (node.terminal) {
+            if (keys != null) keys.push(key);
+            if (values != null) values.push(node.value);
+            if (--remaining == 0) return 0;
+        }
+        for (int i = 0; i < childCount(node); i++) {
+            final Node<V> child = node.children.get(i);
+            remaining = collect(child, key + child.label, remaining, keys, values);
+            if (remaining == 0) return 0;
+        }
+        return remaining;
+    }
+
+    private void mergeWithChild(Node<V> node) {
+        final Node<V> child = node.children.get(0);
+        node.label += child.label;
+        node.terminal = child.terminal;
+        node.value = child.value;
+        node.children = child.children;
+    }
+
+    private static <V> int childIndex(Node<V> node, char c) {
+        int low = 0;
+        int high = childCount(node) - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final char midChar = node.children.get(mid).label.charAt(0);
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static <V> int childCount(Node<V> node) {
+        return node.children == null ? 0 : node.children.length();
+    }
+
+    private static <V> JsArray<Node<V>> children(Node<V> node) {
+        if (node.children == null) node.children = JsArray.create();
+        return node.children;
+    }
+
+    private static int commonPrefixLength(String label, String s, int offset) {
+        final int max = Math.min(label.length(), s.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == s.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void checkNotNull(Object o) {
+        if (o == null) throw new NullPointerException("This trie does not support null keys");
+    }
+
+    private static class Node<V> {
+        String label;
+        V value;
+        boolean terminal;
+        JsArray<Node<V>> children; // sorted by the first char of their labels; null if none
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private class Itr implements Iterator<String> {
+        private final JsArray<Node<V>> nodes = JsArray.create();
+        private final JsArrayString paths = JavaScriptObject.createArray().cast();
+        private String next;
+        private String lastRet;
+
+        Itr() {
+            nodes.push(root);
+            paths.push("");
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) throw new NoSuchElementException();
+            lastRet = next;
+            advance();
+            return lastRet;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet == null) throw new IllegalStateException();
+            JsTrie.this.remove(lastRet);
+            lastRet = null;
+        }
+
+        // Depth-first, pre-order: a key comes before its extensions, and children are pushed in reverse
+        private void advance() {
+            next = null;
+            while (nodes.length() > 0) {
+                final Node<V> node = nodes.pop();
+                final String path = paths.get(paths.length() - 1);
+                paths.setLength(paths.length() - 1);
+                for (int i = childCount(node) - 1; i >= 0; i--) {
+                    final Node<V> child = node.children.get(i);
+                    nodes.push(child);
+                    paths.push(path + child.label);
+                }
+                if (node.terminal) {
+                    next = path;
+                    return;
+                }
+            }
+        }
+    }
+}
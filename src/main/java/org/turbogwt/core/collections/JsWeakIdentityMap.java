@@ -0,0 +1,126 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A map which compares its keys by identity and does not keep them alive.
+ * <p>
+ *
+ * In production mode, the entries are held by a native WeakMap where available. Otherwise, each value is stored in
+ * the key object itself, under a hidden non-enumerable property owned by this map; so the map never references its
+ * keys and an entry is collected together with its key. In development mode, where Java objects cannot carry
+ * properties, an {@link IdentityHashMap} is used instead and keys are strongly referenced.
+ * <p>
+ *
+ * Since the keys are not held, this map can be neither iterated nor sized. Keys must be objects (overlays or Java
+ * objects other than Strings). This map does not support null keys or values.
+ *
+ * @param <K> The type of the map keys
+ * @param <V> The type of the map values
+ *
+ * @author Danilo Reinert
+ */
+public class JsWeakIdentityMap<K, V> {
+
+    private static int lastId;
+
+    private final JavaScriptObject table;
+    private final Map<K, V> devMap;
+
+    public JsWeakIdentityMap() {
+        if (GWT.isScript()) {
+            table = createTable(++lastId);
+            devMap = null;
+        } else {
+            table = null;
+            devMap = new IdentityHashMap<>();
+        }
+    }
+
+    public boolean containsKey(K key) {
+        checkKey(key);
+        return table != null ? containsKey(table, key) : devMap.containsKey(key);
+    }
+
+    public V get(K key) {
+        checkKey(key);
+        return table != null ? JsWeakIdentityMap.<V>get(table, key) : devMap.get(key);
+    }
+
+    public V put(K key, V value) {
+        checkKey(key);
+        if (value == null) throw new NullPointerException("This map does not support null values");
+
+        if (table == null) return devMap.put(key, value);
+
+        final V old = JsWeakIdentityMap.<V>get(table, key);
+        put(table, key, value);
+        return old;
+    }
+
+    public V remove(K key) {
+        checkKey(key);
+        if (table == null) return devMap.remove(key);
+
+        final V old = JsWeakIdentityMap.<V>get(table, key);
+        remove(table, key);
+        return old;
+    }
+
+    private void checkKey(Object key) {
+        if (key == null) throw new NullPointerException("This map does not support null keys");
+        if (key instanceof String) throw new IllegalArgumentException("Weak keys must be objects");
+    }
+
+    private static native JavaScriptObject createTable(int id) /*-{
+        if (typeof WeakMap == 'function') return {w: new WeakMap()};
+        return {p: '__tgWeak' + id + '__'};
+    }-*/;
+
+    private static native <V> V get(JavaScriptObject table, Object key) /*-{
+        if (table.w) return table.w.has(key) ? table.w.get(key) : null;
+        return Object.prototype.hasOwnProperty.call(key, table.p) ? key[table.p] : null;
+    }-*/;
+
+    private static native boolean containsKey(JavaScriptObject table, Object key) /*-{
+        if (table.w) return table.w.has(key);
+        return Object.prototype.hasOwnProperty.call(key, table.p);
+    }-*/;
+
+    private static native void put(JavaScriptObject table, Object key, Object value) /*-{
+        if (table.w) {
+            table.w.set(key, value);
+        } else if (Object.prototype.hasOwnProperty.call(key, table.p)) {
+            key[table.p] = value;
+        } else {
+            Object.defineProperty(key, table.p, {value: value, writable: true, configurable: true});
+        }
+    }-*/;
+
+    private static native void remove(JavaScriptObject table, Object key) /*-{
+        if (table.w) {
+            table.w['delete'](key);
+        } else {
+            delete key[table.p];
+        }
+    }-*/;
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+/**
+ * A synchronous storage of String entries, shaped after the Web Storage API.
+ *
+ * @author Danilo Reinert
+ *
+ * @see WebStorage
+ * @see MemoryStorage
+ */
+public interface KeyValueStorage {
+
+    int getLength();
+
+    /**
+     * Returns the key at the given index, or null if the index is out of range.
+     */
+    String key(int index);
+
+    /**
+     * Returns the value of the given key, or null if there is none.
+     */
+    String getItem(String key);
+
+    void setItem(String key, String value);
+
+    void removeItem(String key);
+}
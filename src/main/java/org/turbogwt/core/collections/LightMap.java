@@ -15,8 +15,10 @@
  */
 package org.turbogwt.core.collections;
 
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.client.JsArrayString;
 
+import java.util.AbstractCollection;
 import java.util.AbstractSet;
 import java.util.Collection;
 import java.util.Iterator;
@@ -110,14 +112,20 @@ public class LightMap<T> implements Map<String, T> {
         innerMap.clear();
     }
 
+    /**
+     * Returns a live view of the keys, which reads the map directly instead of copying its keys.
+     */
     @Override
-    public Set<String> keySet() {
-        return new KeySet<>(this);
+    public KeySetView<T> keySet() {
+        return new KeySetView<>(this);
     }
 
+    /**
+     * Returns a live view of the values, which reads the map directly instead of copying its values.
+     */
     @Override
-    public Collection<T> values() {
-        return new ValueArray<>(this);
+    public ValuesView<T> values() {
+        return new ValuesView<>(this);
     }
 
     @Override
@@ -183,24 +191,62 @@ public class LightMap<T> implements Map<String, T> {
         }
     }
 
-    private static class KeySet<T> extends JsArraySet<String> {
+    /**
+     * A live view of the keys of a {@link LightMap}. Removals are written through to the map; additions are not
+     * supported.
+     *
+     * @param <T> The type of the map values
+     */
+    public static class KeySetView<T> extends AbstractSet<String> {
 
         private final LightMap<T> map;
 
-        private KeySet(LightMap<T> map) {
-            super(map.innerMap.keys());
+        KeySetView(LightMap<T> map) {
             this.map = map;
         }
 
+        /**
+         * Copies the current keys to a new array, which is not affected by later changes to the map.
+         *
+         * @return the copy of the keys
+         */
+        public JsArrayString snapshot() {
+            final JsArrayString keys = map.innerMap.keys();
+            final JsArrayString copy = JavaScriptObject.createArray().cast();
+            for (int i = 0; i < keys.length(); i++) {
+                copy.push(keys.get(i));
+            }
+            return copy;
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && map.containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof String && map.remove(o) != null;
+        }
+
         @Override
         public void clear() {
-            super.clear();
             map.clear();
         }
 
         @Override
-        public boolean remove(Object o) {
-            return super.remove(o) && map.remove(o) != null;
+        public Iterator<String> iterator() {
+            return new KeyItr<>(map);
         }
 
         @Override
@@ -214,25 +260,88 @@ public class LightMap<T> implements Map<String, T> {
         }
     }
 
-    private static class ValueArray<T> extends JsArrayList<T> {
+    /**
+     * A live view of the values of a {@link LightMap}. Removals are written through to the map; additions are not
+     * supported.
+     *
+     * @param <T> The type of the map values
+     */
+    public static class ValuesView<T> extends AbstractCollection<T> {
 
         private final LightMap<T> map;
 
-        private ValueArray(LightMap<T> map) {
-            super(map.innerMap.values());
+        private ValuesView(LightMap<T> map) {
             this.map = map;
         }
 
+        /**
+         * Copies the current values to a new array, which is not affected by later changes to the map.
+         *
+         * @return the copy of the values
+         */
+        public JsArray<T> snapshot() {
+            final JsArrayString keys = map.innerMap.keys();
+            final JsArray<T> values = JsArray.create();
+            for (int i = 0; i < keys.length(); i++) {
+                values.push(map.innerMap.get(keys.get(i)));
+            }
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o != null && map.containsValue(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (o == null) return false;
+
+            final JsArrayString keys = map.innerMap.keys();
+            for (int i = 0; i < keys.length(); i++) {
+                final String key = keys.get(i);
+                if (o.equals(map.innerMap.get(key))) {
+                    map.remove(key);
+                    return true;
+                }
+            }
+            return false;
+        }
+
         @Override
         public void clear() {
-            super.clear();
             map.clear();
         }
 
         @Override
-        @SuppressWarnings("unchecked")
-        public boolean remove(Object o) {
-            return super.remove(o) && map.remove(map.innerMap.keyOf((T) o)) != null;
+        public Iterator<T> iterator() {
+            final KeyItr<T> keyItr = new KeyItr<>(map);
+            return new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return keyItr.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return map.innerMap.get(keyItr.next());
+                }
+
+                @Override
+                public void remove() {
+                    keyItr.remove();
+                }
+            };
         }
 
         @Override
@@ -244,10 +353,46 @@ public class LightMap<T> implements Map<String, T> {
         public boolean addAll(Collection<? extends T> c) {
             throw new UnsupportedOperationException();
         }
+    }
+
+    /**
+     * Walks the keys array of the map, which is read again at every step because clearing the map replaces it.
+     */
+    private static class KeyItr<T> implements Iterator<String> {
+
+        private final LightMap<T> map;
+        private int cursor;       // index of next element to return
+        private int lastRet = -1; // index of last element returned; -1 if no such
+
+        private KeyItr(LightMap<T> map) {
+            this.map = map;
+        }
 
         @Override
-        public boolean addAll(int i, Collection<? extends T> c) {
-            throw new UnsupportedOperationException();
+        public boolean hasNext() {
+            return cursor < map.innerMap.keys().length();
+        }
+
+        @Override
+        public String next() {
+            final JsArrayString keys = map.innerMap.keys();
+            int i = cursor;
+
+            if (i >= keys.length())
+                throw new NoSuchElementException();
+
+            cursor = i + 1;
+            return keys.get(lastRet = i);
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+
+            map.remove(map.innerMap.keys().get(lastRet));
+            cursor = lastRet;
+            lastRet = -1;
         }
     }
 
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A multimap of String keys to groups of values, each group stored as a raw {@link JsArray} inside a {@link JsMap}.
+ * <p>
+ *
+ * There is no wrapper per group: {@link #get(String)} hands out the group array itself, and group sizes are read
+ * straight from it. Overlays may be grouped by a property in a single native pass with
+ * {@link #groupBy(JsArray, String)}.
+ * <p>
+ *
+ * Values are compared by identity. This multimap does not support null keys or values.
+ *
+ * @param <V> Type of the values
+ *
+ * @author Danilo Reinert
+ */
+public class LightMultimap<V> implements Iterable<V> {
+
+    final JsMap<JsArray<V>> groups = JsMap.create();
+    int size;
+
+    /**
+     * Groups the overlays by the value of the given property, converted to String.
+     * The order of the overlays is kept inside each group.
+     *
+     * @param values    the overlays to group
+     * @param property  the property holding the group key
+     * @param <V>       Type of the overlays
+     *
+     * @return the groups
+     */
+    public static <V extends JavaScriptObject> LightMultimap<V> groupBy(JsArray<V> values, String property) {
+        final LightMultimap<V> multimap = new LightMultimap<>();
+        groupByProperty(multimap.groups, values, property);
+        multimap.size = values.length();
+        return multimap;
+    }
+
+    /**
+     * Groups the values by the key computed by the given function.
+     * The order of the values is kept inside each group.
+     *
+     * @param values    the values to group
+     * @param keyFunction   the function which computes the group key of each value
+     * @param <V>       Type of the values
+     *
+     * @return the groups
+     */
+    public static <V> LightMultimap<V> groupBy(JsArray<V> values, Function<? super V, String> keyFunction) {
+        final LightMultimap<V> multimap = new LightMultimap<>();
+        for (int i = 0; i < values.length(); i++) {
+            final V value = values.get(i);
+            multimap.put(keyFunction.apply(value), value);
+        }
+        return multimap;
+    }
+
+    /**
+     * Returns the total number of values.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of values mapped to the given key, without materializing them.
+     */
+    public int size(String key) {
+        final JsArray<V> group = groups.get(key);
+        return group != null ? group.length() : 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int keyCount() {
+        return groups.size();
+    }
+
+    public boolean containsKey(String key) {
+        return groups.contains(key);
+    }
+
+    public boolean containsEntry(String key, Object value) {
+        final JsArray<V> group = groups.get(key);
+        return group != null && indexOf(group, value) > -1;
+    }
+
+    /**
+     * Returns the group of values mapped to the given key.
+     * <p>
+     *
+     * The group is the array held by this multimap; it must not be modified.
+     *
+     * @param key   the key
+     *
+     * @return the values mapped to the key, or an empty array if there are none
+     */
+    public JsArray<V> get(String key) {
+        final JsArray<V> group = groups.get(key);
+        return group != null ? group : JsArray.<V>create();
+    }
+
+    /**
+     * Adds a value to the group of the given key.
+     *
+     * @return <code>true</code> if this multimap changed
+     */
+    public boolean put(String key, V value) {
+        checkNotNull(value);
+        group(key).push(value);
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds all the values to the group of the given key, natively.
+     *
+     * @return <code>true</code> if this multimap changed
+     */
+    public boolean putAll(String key, JsArray<V> values) {
+        checkNotNull(key);
+        if (values.length() == 0) return false;
+
+        JsArray<V> group = groups.get(key);
+        final boolean created = group == null;
+        if (created) group = JsArray.create();
+        // Nulls are rejected before anything is appended
+        append(group, values);
+        if (created) groups.put(key, group);
+        size += values.length();
+        return true;
+    }
+
+    public boolean putAll(String key, Iterable<? extends V> values) {
+        boolean changed = false;
+        for (V value : values) {
+            changed |= put(key, value);
+        }
+        return changed;
+    }
+
+    /**
+     * Removes one occurrence of the value from the group of the given key.
+     *
+     * @return <code>true</code> if this multimap changed
+     */
+    public boolean remove(String key, Object value) {
+        final JsArray<V> group = groups.get(key);
+        if (group == null) return false;
+
+        final int i = indexOf(group, value);
+        if (i == -1) return false;
+
+        removeAt(key, group, i);
+        return true;
+    }
+
+    /**
+     * Removes the whole group of the given key.
+     *
+     * @return the removed values, or an empty array if there were none
+     */
+    public JsArray<V> removeAll(String key) {
+        final JsArray<V> group = groups.get(key);
+        if (group == null) return JsArray.create();
+
+        groups.remove(key);
+        size -= group.length();
+        return group;
+    }
+
+    public void clear() {
+        groups.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the keys in insertion order.
+     * <p>
+     *
+     * The array is held by this multimap; it must not be modified.
+     */
+    public JsArrayString keys() {
+        return groups.keys();
+    }
+
+    /**
+     * Returns all the values in a new array, group by group.
+     */
+    public JsArray<V> values() {
+        return concat(groups, groups.keys());
+    }
+
+    /**
+     * Iterates over all the values, group by group.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Itr();
+    }
+
+    int indexOf(JsArray<V> group, Object value) {
+        return group.indexOf(value);
+    }
+
+    void removeAt(String key, JsArray<V> group, int i) {
+        group.splice(i);
+        size--;
+        // Empty groups are disposed
+        if (group.length() == 0) groups.remove(key);
+    }
+
+    void checkNotNull(Object o) {
+        if (o == null) throw new NullPointerException("This multimap does not support null keys or values");
+    }
+
+    private JsArray<V> group(String key) {
+        checkNotNull(key);
+        JsArray<V> group = groups.get(key);
+        if (group == null) {
+            group = JsArray.create();
+            groups.put(key, group);
+        }
+        return group;
+    }
+
+    private static native void groupByProperty(JavaScriptObject groups, JavaScriptObject values, String property) /*-{
+        var keys = groups.__props__;
+        for (var i = 0, n = values.length; i < n; i++) {
+            var key = '' + values[i][property];
+            var group = groups.hasOwnProperty(key) ? groups[key] : null;
+            if (!group) {
+                group = groups[key] = [];
+                keys.push(key);
+            }
+            group.push(values[i]);
+        }
+    }-*/;
+
+    private static native <V> void append(JsArray<V> group, JsArray<V> values) /*-{
+        for (var i = 0, n = values.length; i < n; i++) {
+            if (values[i] == null)
+                // CHECKSTYLE:OFF
+                throw @java.lang.NullPointerException::new(Ljava/lang/String;)("This multimap does not support null keys or values");
+                // CHECKSTYLE:ON
+        }
+        // A loop rather than push.apply, which overflows the stack on large arrays
+        for (i = 0; i < n; i++) group.push(values[i]);
+    }-*/;
+
+    private static native <V> JsArray<V> concat(JavaScriptObject groups, JsArrayString keys) /*-{
+        var values = [];
+        for (var i = 0, n = keys.length; i < n; i++) {
+            var group = groups[keys[i]];
+            for (var j = 0, m = group.length; j < m; j++) values.push(group[j]);
+        }
+        return values;
+    }-*/;
+
+    private class Itr implements Iterator<V> {
+        private int keyIndex;     // index of the key of the current group
+        private int cursor;       // index of next element to return
+        private int lastRet = -1; // index of last element returned; -1 if no such
+
+        @Override
+        public boolean hasNext() {
+            final JsArrayString keys = groups.keys();
+            while (keyIndex < keys.length() && cursor >= groups.get(keys.get(keyIndex)).length()) {
+                keyIndex++;
+                cursor = 0;
+            }
+            return keyIndex < keys.length();
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return groups.get(groups.keys().get(keyIndex)).get(lastRet = cursor++);
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) throw new IllegalStateException();
+
+            final String key = groups.keys().get(keyIndex);
+            final JsArray<V> group = groups.get(key);
+            removeAt(key, group, lastRet);
+            // If the group was disposed, the next key has taken its place
+            cursor = group.length() == 0 ? 0 : lastRet;
+            lastRet = -1;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+/**
+ * A {@link LightMultimap} which holds each value at most once per key.
+ * <p>
+ *
+ * Every group is indexed by a {@link JsHashTable}, so adding and checking entries run in O(1). Values are compared
+ * according to a {@link Hasher}, by default the values' hashCode and equals methods.
+ *
+ * @param <V> Type of the values
+ *
+ * @author Danilo Reinert
+ */
+public class LightSetMultimap<V> extends LightMultimap<V> {
+
+    private final JsMap<JsHashTable<V>> indexes = JsMap.create();
+    private final Hasher<? super V> hasher;
+
+    public LightSetMultimap() {
+        this(Hashers.<V>equality());
+    }
+
+    public LightSetMultimap(Hasher<? super V> hasher) {
+        this.hasher = hasher;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean containsEntry(String key, Object value) {
+        final JsHashTable<V> index = indexes.get(key);
+        return index != null && value != null && index.contains((V) value, hasher);
+    }
+
+    @Override
+    public boolean put(String key, V value) {
+        checkNotNull(key);
+        checkNotNull(value);
+
+        JsHashTable<V> index = indexes.get(key);
+        if (index == null) {
+            index = JsHashTable.create();
+            indexes.put(key, index);
+        } else if (index.contains(value, hasher)) {
+            return false;
+        }
+        index.put(value, hasher);
+        return super.put(key, value);
+    }
+
+    @Override
+    public boolean putAll(String key, JsArray<V> values) {
+        boolean changed = false;
+        for (int i = 0; i < values.length(); i++) {
+            changed |= put(key, values.get(i));
+        }
+        return changed;
+    }
+
+    @Override
+    public JsArray<V> removeAll(String key) {
+        indexes.remove(key);
+        return super.removeAll(key);
+    }
+
+    @Override
+    public void clear() {
+        indexes.clear();
+        super.clear();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    int indexOf(JsArray<V> group, Object value) {
+        if (value == null) return -1;
+
+        for (int i = 0; i < group.length(); i++) {
+            if (hasher.equals(group.get(i), (V) value)) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    void removeAt(String key, JsArray<V> group, int i) {
+        final JsHashTable<V> index = indexes.get(key);
+        index.remove(group.get(i), hasher);
+        if (group.length() == 1) indexes.remove(key);
+        super.removeAt(key, group, i);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+/**
+ * A change made to a range of an {@link ObservableJsArrayList}.
+ * <p>
+ *
+ * Indexes refer to the state of the list right after the previous changes of the same change set were applied.
+ *
+ * @author Danilo Reinert
+ */
+public final class ListChange {
+
+    /**
+     * The kind of change.
+     */
+    public enum Type {
+        /** Elements were inserted in the range. */
+        INSERT,
+        /** The elements of the range were removed. */
+        REMOVE,
+        /** The elements of the range were replaced. */
+        SET
+    }
+
+    private final Type type;
+    private int index;
+    private int count;
+
+    ListChange(Type type, int index, int count) {
+        this.type = type;
+        this.index = index;
+        this.count = count;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Tries to merge a subsequent change into this one.
+     *
+     * @return <code>true</code> if the change was merged, <code>false</code> otherwise
+     */
+    boolean merge(Type otherType, int otherIndex, int otherCount) {
+        switch (otherType) {
+            case INSERT:
+                if (type == Type.INSERT && otherIndex >= index && otherIndex <= index + count) {
+                    count += otherCount;
+                    return true;
+                }
+                return false;
+            case REMOVE:
+                if (type == Type.REMOVE) {
+                    if (otherIndex == index) {
+                        count += otherCount;
+                        return true;
+                    }
+                    if (otherIndex + otherCount == index) {
+                        index = otherIndex;
+                        count += otherCount;
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                if (type == Type.INSERT || type == Type.SET) {
+                    if (otherIndex >= index && otherIndex + otherCount <= index + count) {
+                        // Replacing elements already reported
+                        return true;
+                    }
+                    if (type == Type.SET && otherIndex == index + count) {
+                        count += otherCount;
+                        return true;
+                    }
+                }
+                return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + index + ", " + count + ")";
+    }
+}
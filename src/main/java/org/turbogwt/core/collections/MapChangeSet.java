@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+
+/**
+ * The net changes made to an {@link ObservableLightMap} during an event loop turn (or batch).
+ * <p>
+ *
+ * Each key appears in at most one of the arrays. A key added and then removed within the same turn is not reported.
+ *
+ * @author Danilo Reinert
+ */
+public final class MapChangeSet {
+
+    private final JsArrayString added = JavaScriptObject.createArray().cast();
+    private final JsArrayString updated = JavaScriptObject.createArray().cast();
+    private final JsArrayString removed = JavaScriptObject.createArray().cast();
+
+    MapChangeSet() {
+    }
+
+    /**
+     * @return the keys which were not mapped before and are mapped now
+     */
+    public JsArrayString getAdded() {
+        return added;
+    }
+
+    /**
+     * @return the keys which were mapped before and whose values were put again
+     */
+    public JsArrayString getUpdated() {
+        return updated;
+    }
+
+    /**
+     * @return the keys which were mapped before and are not mapped now
+     */
+    public JsArrayString getRemoved() {
+        return removed;
+    }
+
+    public boolean isEmpty() {
+        return added.length() == 0 && updated.length() == 0 && removed.length() == 0;
+    }
+}
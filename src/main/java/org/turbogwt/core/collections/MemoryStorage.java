@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-memory {@link KeyValueStorage}, standing in for Web Storage where it is not available or in tests.
+ *
+ * @author Danilo Reinert
+ */
+public class MemoryStorage implements KeyValueStorage {
+
+    private final Map<String, String> items = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+    private int writes;
+
+    @Override
+    public int getLength() {
+        return keys.size();
+    }
+
+    @Override
+    public String key(int index) {
+        return index >= 0 && index < keys.size() ? keys.get(index) : null;
+    }
+
+    @Override
+    public String getItem(String key) {
+        return items.get(key);
+    }
+
+    @Override
+    public void setItem(String key, String value) {
+        if (items.put(key, value) == null) keys.add(key);
+        writes++;
+    }
+
+    @Override
+    public void removeItem(String key) {
+        if (items.remove(key) != null) keys.remove(key);
+        writes++;
+    }
+
+    /**
+     * Returns the number of times {@link #setItem(String, String)} or {@link #removeItem(String)} were called.
+     */
+    public int getWriteCount() {
+        return writes;
+    }
+}
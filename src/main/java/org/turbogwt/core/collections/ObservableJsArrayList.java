@@ -0,0 +1,143 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.Scheduler;
+
+import java.util.Collection;
+
+/**
+ * A {@link JsArrayList} which notifies its listeners about the changes made to it.
+ * <p>
+ *
+ * Changes are recorded as ranges ({@link ListChange}) and coalesced: a sequence of adjacent insertions, removals or
+ * replacements becomes a single change. The listeners are notified once per browser event loop turn, after the
+ * current event is handled, or at the end of a {@link #batch(Scheduler.ScheduledCommand)}.
+ * <p>
+ *
+ * Changes made directly to the array returned by {@link #asJsArray()} are not observed.
+ *
+ * @param <T> Type of list values
+ *
+ * @author Danilo Reinert
+ */
+public class ObservableJsArrayList<T> extends JsArrayList<T> {
+
+    private final JsCopyOnWriteArrayList<ListChangeListener> listeners = new JsCopyOnWriteArrayList<>();
+    private JsArray<ListChange> pending = JsArray.create();
+    private final ChangeCoalescer coalescer = new ChangeCoalescer() {
+        @Override
+        void flush() {
+            fireChanges();
+        }
+    };
+
+    public ObservableJsArrayList() {
+    }
+
+    public ObservableJsArrayList(JsArray<T> jsArray) {
+        super(jsArray);
+    }
+
+    public void addListener(ListChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ListChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Executes the given command and notifies the listeners right after it, with all the changes made so far
+     * coalesced.
+     *
+     * @param command the command which modifies the list
+     */
+    public void batch(Scheduler.ScheduledCommand command) {
+        coalescer.batch(command);
+    }
+
+    /**
+     * Notifies the listeners about the pending changes immediately.
+     */
+    public void fireChanges() {
+        if (pending.length() == 0) return;
+
+        final JsArrayList<ListChange> changes = new JsArrayList<>(pending);
+        pending = JsArray.create();
+        for (ListChangeListener listener : listeners) {
+            listener.onListChange(changes);
+        }
+    }
+
+    @Override
+    public boolean add(T t) {
+        final int i = size();
+        super.add(t);
+        record(ListChange.Type.INSERT, i, 1);
+        return true;
+    }
+
+    @Override
+    public void add(int i, T t) {
+        super.add(i, t);
+        record(ListChange.Type.INSERT, i, 1);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        final int i = size();
+        super.addAll(c);
+        if (!c.isEmpty()) record(ListChange.Type.INSERT, i, c.size());
+        return !c.isEmpty();
+    }
+
+    @Override
+    public boolean addAll(int i, Collection<? extends T> c) {
+        super.addAll(i, c);
+        if (!c.isEmpty()) record(ListChange.Type.INSERT, i, c.size());
+        return !c.isEmpty();
+    }
+
+    @Override
+    public T set(int i, T t) {
+        final T ret = super.set(i, t);
+        record(ListChange.Type.SET, i, 1);
+        return ret;
+    }
+
+    @Override
+    public T remove(int i) {
+        final T t = super.remove(i);
+        record(ListChange.Type.REMOVE, i, 1);
+        return t;
+    }
+
+    @Override
+    public void clear() {
+        final int size = size();
+        super.clear();
+        if (size > 0) record(ListChange.Type.REMOVE, 0, size);
+    }
+
+    private void record(ListChange.Type type, int index, int count) {
+        final int n = pending.length();
+        if (n == 0 || !pending.get(n - 1).merge(type, index, count)) {
+            pending.push(new ListChange(type, index, count));
+        }
+        coalescer.changed();
+    }
+}
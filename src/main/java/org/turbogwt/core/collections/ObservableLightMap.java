@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.core.client.Scheduler;
+
+/**
+ * A {@link LightMap} which notifies its listeners about the changes made to it.
+ * <p>
+ *
+ * Changes are tracked per key and coalesced into their net effect ({@link MapChangeSet}). The listeners are notified
+ * once per browser event loop turn, after the current event is handled, or at the end of a
+ * {@link #batch(Scheduler.ScheduledCommand)}.
+ *
+ * @param <T> The type of the map values
+ *
+ * @author Danilo Reinert
+ */
+public class ObservableLightMap<T> extends LightMap<T> {
+
+    private final JsCopyOnWriteArrayList<MapChangeListener> listeners = new JsCopyOnWriteArrayList<>();
+    private JsArrayString touched = JavaScriptObject.createArray().cast();
+    private JsMapBoolean existedBefore = JsMapBoolean.create();
+    private final ChangeCoalescer coalescer = new ChangeCoalescer() {
+        @Override
+        void flush() {
+            fireChanges();
+        }
+    };
+
+    public void addListener(MapChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MapChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Executes the given command and notifies the listeners right after it, with all the changes made so far
+     * coalesced.
+     *
+     * @param command the command which modifies the map
+     */
+    public void batch(Scheduler.ScheduledCommand command) {
+        coalescer.batch(command);
+    }
+
+    /**
+     * Notifies the listeners about the pending changes immediately.
+     */
+    public void fireChanges() {
+        if (touched.length() == 0) return;
+
+        final MapChangeSet changes = new MapChangeSet();
+        for (int i = 0; i < touched.length(); i++) {
+            final String key = touched.get(i);
+            final boolean before = existedBefore.get(key);
+            final boolean now = innerMap.contains(key);
+            if (now) {
+                (before ? changes.getUpdated() : changes.getAdded()).push(key);
+            } else if (before) {
+                changes.getRemoved().push(key);
+            }
+        }
+        touched = JavaScriptObject.createArray().cast();
+        existedBefore = JsMapBoolean.create();
+
+        if (changes.isEmpty()) return;
+
+        for (MapChangeListener listener : listeners) {
+            listener.onMapChange(changes);
+        }
+    }
+
+    @Override
+    public T put(String s, T t) {
+        // Validate before the key is recorded as touched
+        if (s == null || t == null) throw new NullPointerException("This map does not support null values");
+        touch(s);
+        return super.put(s, t);
+    }
+
+    @Override
+    public T remove(Object o) {
+        if (o instanceof String) touch((String) o);
+        return super.remove(o);
+    }
+
+    @Override
+    public void clear() {
+        final JsArrayString keys = innerMap.keys();
+        for (int i = 0; i < keys.length(); i++) {
+            touch(keys.get(i));
+        }
+        super.clear();
+    }
+
+    private void touch(String key) {
+        if (key == null) return;
+
+        if (!existedBefore.contains(key)) {
+            existedBefore.set(key, innerMap.contains(key));
+            touched.push(key);
+        }
+        coalescer.changed();
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayNumber;
+import com.google.gwt.core.client.JsArrayString;
+
+/**
+ * Runs bulk operations (sort, filter, aggregate and JSON parse) on collection data away from the UI thread.
+ * <p>
+ *
+ * The operations are built in, so only data crosses the thread boundary: typed arrays (see
+ * {@link JsArrays#createFloat64(int)}), or arrays of JSON-serializable values such as numbers, strings and plain
+ * overlay objects. Typed arrays are transferred rather than copied, hence they must not be used after being
+ * submitted. Regular arrays are left untouched; the result is always delivered to the callback.
+ * <p>
+ *
+ * {@link #get()} runs the operations in a Web Worker where available, falling back to the current thread otherwise.
+ * Any {@link OffloadExecutor} can be plugged in through the constructor.
+ *
+ * @author Danilo Reinert
+ */
+public class Offload {
+
+    /**
+     * Function computed over the values by {@link #aggregate}.
+     */
+    public enum Aggregation {
+        SUM, MIN, MAX, MEAN, COUNT
+    }
+
+    private static Offload instance;
+
+    private final OffloadExecutor executor;
+
+    public Offload(OffloadExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the shared instance, backed by a {@link WorkerOffloadExecutor} if supported or by a
+     * {@link SyncOffloadExecutor} otherwise.
+     */
+    public static Offload get() {
+        if (instance == null) {
+            instance = new Offload(WorkerOffloadExecutor.isSupported() ? new WorkerOffloadExecutor()
+                    : new SyncOffloadExecutor());
+        }
+        return instance;
+    }
+
+    public OffloadExecutor getExecutor() {
+        return executor;
+    }
+
+    public void sort(JsArrayNumber data, boolean descending, OffloadCallback<JsArrayNumber> callback) {
+        execute("sort", data, sortOptions(null, descending), callback);
+    }
+
+    public void sort(JsArrayString data, boolean descending, OffloadCallback<JsArrayString> callback) {
+        execute("sort", data, sortOptions(null, descending), callback);
+    }
+
+    /**
+     * Sorts objects by the value of one of their properties.
+     *
+     * @param data the objects to sort
+     * @param property the property to compare
+     * @param descending whether to sort in descending order
+     * @param callback receives the sorted array
+     */
+    public <T> void sortBy(JsArray<T> data, String property, boolean descending,
+                           OffloadCallback<JsArray<T>> callback) {
+        execute("sort", data, sortOptions(property, descending), callback);
+    }
+
+    public void filter(JsArrayNumber data, FilterSpec spec, OffloadCallback<JsArrayNumber> callback) {
+        execute("filter", data, filterOptions(spec), callback);
+    }
+
+    /**
+     * Selects the elements matching every clause of the spec.
+     *
+     * @param data the elements to filter
+     * @param spec the clauses to match
+     * @param callback receives a new array with the matching elements
+     */
+    public <T> void filter(JsArray<T> data, FilterSpec spec, OffloadCallback<JsArray<T>> callback) {
+        execute("filter", data, filterOptions(spec), callback);
+    }
+
+    public void aggregate(JsArrayNumber data, Aggregation aggregation, OffloadCallback<Double> callback) {
+        aggregate((JavaScriptObject) data, null, aggregation, callback);
+    }
+
+    /**
+     * Aggregates a numeric property of the elements. MIN, MAX and MEAN of no elements result in NaN.
+     *
+     * @param data the elements to aggregate
+     * @param property the property to aggregate, or null to aggregate the elements themselves
+     * @param aggregation the function to compute
+     * @param callback receives the aggregated value
+     */
+    public void aggregate(JsArray<?> data, String property, Aggregation aggregation,
+                          OffloadCallback<Double> callback) {
+        aggregate((JavaScriptObject) data, property, aggregation, callback);
+    }
+
+    /**
+     * Groups the elements by a property and aggregates another numeric property of each group.
+     *
+     * @param data the elements to aggregate
+     * @param groupBy the property whose string value identifies the group
+     * @param property the property to aggregate, or null to aggregate the elements themselves
+     * @param aggregation the function to compute
+     * @param callback receives the aggregated value of each group
+     */
+    public void groupAggregate(JsArray<?> data, String groupBy, String property, Aggregation aggregation,
+                               OffloadCallback<JsMapNumber> callback) {
+        execute("aggregate", data, aggregateOptions(groupBy, property, aggregation.name()), callback);
+    }
+
+    /**
+     * Parses a JSON text describing an object or an array.
+     *
+     * @param json the JSON text
+     * @param callback receives the parsed value
+     */
+    public <T extends JavaScriptObject> void parse(String json, OffloadCallback<T> callback) {
+        executor.execute(parseMessage(json), new ReplyCallback<T>(callback));
+    }
+
+    private void aggregate(JavaScriptObject data, String property, Aggregation aggregation,
+                           final OffloadCallback<Double> callback) {
+        final JavaScriptObject message = message("aggregate", data,
+                aggregateOptions(null, property, aggregation.name()));
+        executor.execute(message, new OffloadCallback<JavaScriptObject>() {
+            @Override
+            public void onSuccess(JavaScriptObject reply) {
+                callback.onSuccess(getDoubleResult(reply));
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                callback.onFailure(error);
+            }
+        });
+    }
+
+    private <T extends JavaScriptObject> void execute(String operation, JavaScriptObject data,
+                                                      JavaScriptObject options, OffloadCallback<T> callback) {
+        executor.execute(message(operation, data, options), new ReplyCallback<T>(callback));
+    }
+
+    private static native JavaScriptObject message(String operation, JavaScriptObject data,
+                                                   JavaScriptObject options) /*-{
+        return {op: operation, data: data, options: options};
+    }-*/;
+
+    private static native JavaScriptObject parseMessage(String json) /*-{
+        return {op: 'parse', data: json};
+    }-*/;
+
+    private static native JavaScriptObject sortOptions(String property, boolean descending) /*-{
+        return {property: property, descending: descending};
+    }-*/;
+
+    private static native JavaScriptObject filterOptions(FilterSpec spec) /*-{
+        return {clauses: spec};
+    }-*/;
+
+    private static native JavaScriptObject aggregateOptions(String groupBy, String property, String fn) /*-{
+        return {groupBy: groupBy, property: property, fn: fn};
+    }-*/;
+
+    private static native <T extends JavaScriptObject> T getResult(JavaScriptObject reply) /*-{
+        return reply.result;
+    }-*/;
+
+    private static native double getDoubleResult(JavaScriptObject reply) /*-{
+        return reply.result;
+    }-*/;
+
+    private static class ReplyCallback<T extends JavaScriptObject> implements OffloadCallback<JavaScriptObject> {
+
+        private final OffloadCallback<T> callback;
+
+        ReplyCallback(OffloadCallback<T> callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void onSuccess(JavaScriptObject reply) {
+            callback.onSuccess(Offload.<T>getResult(reply));
+        }
+
+        @Override
+        public void onFailure(Throwable error) {
+            callback.onFailure(error);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Runs the built-in operations of {@link Offload}.
+ * <p>
+ *
+ * The message is a plain object holding the operation name in <code>op</code>, its input in <code>data</code> and its
+ * parameters in <code>options</code>. On success the callback receives a reply object holding the operation output
+ * in <code>result</code>.
+ *
+ * @author Danilo Reinert
+ */
+public interface OffloadExecutor {
+
+    void execute(JavaScriptObject message, OffloadCallback<JavaScriptObject> callback);
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Holds the script of the built-in {@link Offload} operations, shared by the worker and the in-thread executors so
+ * both behave the same.
+ *
+ * @author Danilo Reinert
+ */
+final class OffloadKernel {
+
+    /**
+     * Body of a function taking the message and returning the operation result.
+     */
+    static final String BODY = ""
+            + "var data = message.data, o = message.options || {}, i, k;"
+            + "var has = function(obj, key) { return Object.prototype.hasOwnProperty.call(obj, key); };"
+            // typed arrays are missing from some of the browsers that fall back to the in-thread executor
+            + "var typed = typeof ArrayBuffer != 'undefined' && data != null && data.buffer instanceof ArrayBuffer;"
+            + "switch (message.op) {"
+            + "case 'sort':"
+            + "  var key = o.property, dir = o.descending ? -1 : 1;"
+            // regular arrays are copied, so the input is left untouched as when cloned into a worker
+            + "  var sorted = typed ? data : Array.prototype.slice.call(data);"
+            + "  return Array.prototype.sort.call(sorted, function(a, b) {"
+            + "    if (key != null) { a = a[key]; b = b[key]; }"
+            + "    return a < b ? -dir : a > b ? dir : 0;"
+            + "  });"
+            + "case 'filter':"
+            + "  var clauses = o.clauses, out = [];"
+            + "  for (i = 0; i < data.length; i++) {"
+            + "    var e = data[i], ok = true;"
+            + "    for (k = 0; ok && k < clauses.length; k++) {"
+            + "      var c = clauses[k], v = c.p != null ? (e == null ? undefined : e[c.p]) : e;"
+            + "      switch (c.op) {"
+            + "      case 'EQ': ok = v === c.v; break;"
+            + "      case 'NE': ok = v !== c.v; break;"
+            + "      case 'LT': ok = v < c.v; break;"
+            + "      case 'LE': ok = v <= c.v; break;"
+            + "      case 'GT': ok = v > c.v; break;"
+            + "      case 'GE': ok = v >= c.v; break;"
+            + "      default: throw new Error('Unsupported operator: ' + c.op);"
+            + "      }"
+            + "    }"
+            + "    if (ok) out.push(e);"
+            + "  }"
+            + "  return typed ? new data.constructor(out) : out;"
+            + "case 'aggregate':"
+            + "  var fn = o.fn, p = o.property, g = o.groupBy, acc = {}, cnt = {};"
+            + "  for (i = 0; i < data.length; i++) {"
+            + "    var x = data[i], v = p != null ? x[p] : x;"
+            + "    k = g != null ? String(x[g]) : '';"
+            + "    if (!has(cnt, k)) { cnt[k] = 0; acc[k] = fn == 'MIN' ? Infinity : fn == 'MAX' ? -Infinity : 0; }"
+            + "    cnt[k]++;"
+            + "    if (fn == 'MIN') { if (v < acc[k]) acc[k] = v; }"
+            + "    else if (fn == 'MAX') { if (v > acc[k]) acc[k] = v; }"
+            + "    else if (fn == 'COUNT') acc[k]++;"
+            + "    else acc[k] += v;"
+            + "  }"
+            + "  if (fn == 'MEAN') for (k in acc) if (has(acc, k)) acc[k] /= cnt[k];"
+            + "  if (g != null) return acc;"
+            + "  return has(acc, '') ? acc[''] : fn == 'SUM' || fn == 'COUNT' ? 0 : NaN;"
+            + "case 'parse':"
+            + "  return JSON.parse(data);"
+            + "default:"
+            + "  throw new Error('Unsupported operation: ' + message.op);"
+            + "}";
+
+    private static JavaScriptObject function;
+
+    private OffloadKernel() {
+    }
+
+    /**
+     * Runs the operation in the current thread.
+     *
+     * @param message the operation message
+     * @return the reply object holding the operation output in <code>result</code>
+     */
+    static JavaScriptObject run(JavaScriptObject message) {
+        if (function == null) function = compile(BODY);
+        return run(function, message);
+    }
+
+    private static native JavaScriptObject compile(String body) /*-{
+        return new Function('message', body);
+    }-*/;
+
+    private static native JavaScriptObject run(JavaScriptObject fn, JavaScriptObject message) /*-{
+        return {result: fn(message)};
+    }-*/;
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
+
+/**
+ * A hash table laid out like {@link JsHashTable}, whose buckets hold positions of an array instead of the values.
+ * It indexes values stored in arrays by their hash codes.
+ *
+ * @author Danilo Reinert
+ */
+final class PositionTable extends JavaScriptObject {
+
+    protected PositionTable() {
+    }
+
+    static native PositionTable create() /*-{
+        return {};
+    }-*/;
+
+    final native JsArrayInteger get(int hashCode) /*-{
+        return this[hashCode];
+    }-*/;
+
+    final native void add(int hashCode, int position) /*-{
+        if (!this[hashCode]) this[hashCode] = [];
+        this[hashCode].push(position);
+    }-*/;
+
+    final native void remove(int hashCode, int position) /*-{
+        var bucket = this[hashCode];
+        var i = bucket.indexOf(position);
+        if (bucket.length == 1) {
+            // Save memory by disposing empty buckets
+            delete this[hashCode];
+        } else {
+            bucket.splice(i, 1);
+        }
+    }-*/;
+
+    final native void replace(int hashCode, int oldPosition, int newPosition) /*-{
+        var bucket = this[hashCode];
+        bucket[bucket.indexOf(oldPosition)] = newPosition;
+    }-*/;
+
+    final native void clear() /*-{
+        for (var key in this) delete this[key];
+    }-*/;
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+/**
+ * Accumulates values into a result.
+ *
+ * @param <A> Type of the accumulated result
+ * @param <T> Type of the accumulated values
+ *
+ * @author Danilo Reinert
+ */
+public interface Reducer<A, T> {
+
+    /**
+     * Folds a value into the accumulator.
+     *
+     * @param accumulator   the result accumulated so far
+     * @param value         the next value
+     *
+     * @return the new accumulated result
+     */
+    A reduce(A accumulator, T value);
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.core.client.Scheduler;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A {@link LightMap} persisted to a {@link KeyValueStorage}, one storage entry per map entry.
+ * <p>
+ *
+ * Changes are tracked per key and written in the background: a flush runs once the map has not changed for the
+ * configured delay, and it only writes the entries put and removes the entries removed since the last flush.
+ * {@link #flush()} writes them immediately.
+ * <p>
+ *
+ * On construction only the keys found in the storage (those starting with the prefix) are collected. Each value is
+ * read and deserialized on its first access; {@link #values()}, {@link #entrySet()} and
+ * {@link #containsValue(Object)} load all of them, while {@link #keySet()} and {@link #clear()} do not.
+ * <p>
+ *
+ * Changes made to a value object after putting it are not noticed; call {@link #markDirty(String)} or put it again.
+ *
+ * @param <T> The type of the map values
+ *
+ * @author Danilo Reinert
+ */
+public class StorageLightMap<T> extends LightMap<T> {
+
+    public static final int DEFAULT_FLUSH_DELAY = 500;
+
+    /**
+     * Converts values to and from their stored String form.
+     *
+     * @param <T> The type of the values
+     */
+    public interface Serializer<T> {
+
+        String serialize(T value);
+
+        T deserialize(String text);
+    }
+
+    private static final Serializer<String> STRING_SERIALIZER = new Serializer<String>() {
+        @Override
+        public String serialize(String value) {
+            return value;
+        }
+
+        @Override
+        public String deserialize(String text) {
+            return text;
+        }
+    };
+
+    private static final Serializer<JavaScriptObject> JSON_SERIALIZER = new Serializer<JavaScriptObject>() {
+        @Override
+        public String serialize(JavaScriptObject value) {
+            return stringify(value);
+        }
+
+        @Override
+        public JavaScriptObject deserialize(String text) {
+            return parse(text);
+        }
+    };
+
+    private final KeyValueStorage storage;
+    private final String prefix;
+    private final Serializer<T> serializer;
+    private final int flushDelay;
+
+    private final JsArrayString unloadedKeys = JavaScriptObject.createArray().cast();
+    private final JsMapBoolean unloaded = JsMapBoolean.create();
+    private int unloadedCount;
+
+    private final JsArrayString dirtyKeys = JavaScriptObject.createArray().cast();
+    private final JsMapBoolean dirty = JsMapBoolean.create();
+    private double lastChange;
+    private boolean flushScheduled;
+
+    private final Scheduler.RepeatingCommand flushCommand = new Scheduler.RepeatingCommand() {
+        @Override
+        public boolean execute() {
+            // Keep waiting while the map is still changing
+            if (Duration.currentTimeMillis() - lastChange < flushDelay) return true;
+
+            flushScheduled = false;
+            flush();
+            return false;
+        }
+    };
+
+    public StorageLightMap(KeyValueStorage storage, String prefix, Serializer<T> serializer) {
+        this(storage, prefix, serializer, DEFAULT_FLUSH_DELAY);
+    }
+
+    /**
+     * Creates a map over the entries of the storage whose keys start with the given prefix.
+     *
+     * @param storage       the storage
+     * @param prefix        the prefix of the storage keys, isolating this map from other data
+     * @param serializer    the converter of values to and from Strings
+     * @param flushDelay    the time in milliseconds without changes before a background flush
+     */
+    public StorageLightMap(KeyValueStorage storage, String prefix, Serializer<T> serializer, int flushDelay) {
+        this.storage = storage;
+        this.prefix = prefix;
+        this.serializer = serializer;
+        this.flushDelay = flushDelay;
+
+        for (int i = 0, length = storage.getLength(); i < length; i++) {
+            final String storageKey = storage.key(i);
+            if (storageKey != null && storageKey.startsWith(prefix)) {
+                final String key = storageKey.substring(prefix.length());
+                unloadedKeys.push(key);
+                unloaded.set(key, true);
+                unloadedCount++;
+            }
+        }
+    }
+
+    public static Serializer<String> stringSerializer() {
+        return STRING_SERIALIZER;
+    }
+
+    /**
+     * Returns a serializer of overlays to and from JSON.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends JavaScriptObject> Serializer<T> jsonSerializer() {
+        return (Serializer<T>) JSON_SERIALIZER;
+    }
+
+    @Override
+    public int size() {
+        return innerMap.size() + unloadedCount;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object o) {
+        return super.containsKey(o) || (o instanceof String && unloaded.get((String) o, false));
+    }
+
+    @Override
+    public boolean containsValue(Object o) {
+        loadAll();
+        return super.containsValue(o);
+    }
+
+    @Override
+    public T get(Object o) {
+        if (o instanceof String) load((String) o);
+        return super.get(o);
+    }
+
+    @Override
+    public T put(String s, T t) {
+        if (s != null) load(s);
+        final T old = super.put(s, t);
+        markDirty(s);
+        return old;
+    }
+
+    @Override
+    public T remove(Object o) {
+        if (o instanceof String) load((String) o);
+        final T old = super.remove(o);
+        if (old != null) markDirty((String) o);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        final JsArrayString keys = allKeys();
+        for (int i = 0; i < keys.length(); i++) {
+            markDirty(keys.get(i));
+        }
+        // The values never loaded are simply forgotten
+        for (int i = 0; i < unloadedKeys.length(); i++) {
+            unloaded.remove(unloadedKeys.get(i));
+        }
+        unloadedKeys.setLength(0);
+        unloadedCount = 0;
+        super.clear();
+    }
+
+    /**
+     * Returns a view of the keys, which does not load their values.
+     */
+    @Override
+    public KeySetView<T> keySet() {
+        return new StorageKeySet();
+    }
+
+    @Override
+    public ValuesView<T> values() {
+        loadAll();
+        return super.values();
+    }
+
+    @Override
+    public Set<Map.Entry<String, T>> entrySet() {
+        loadAll();
+        return super.entrySet();
+    }
+
+    /**
+     * Schedules the entry of the given key to be written again, after its value was changed in place.
+     *
+     * @param key the key of the changed entry
+     */
+    public void markDirty(String key) {
+        if (!dirty.contains(key)) {
+            dirty.set(key, true);
+            dirtyKeys.push(key);
+        }
+
+        lastChange = Duration.currentTimeMillis();
+        if (!flushScheduled) {
+            flushScheduled = true;
+            Scheduler.get().scheduleFixedDelay(flushCommand, flushDelay);
+        }
+    }
+
+    /**
+     * Returns whether there are changes not yet written to the storage.
+     */
+    public boolean isDirty() {
+        return dirtyKeys.length() > 0;
+    }
+
+    /**
+     * Writes the pending changes to the storage immediately.
+     * <p>
+     *
+     * If a write fails (e.g. the storage quota is exceeded), its exception is thrown and the changes not yet written
+     * stay pending, so they are retried by the next flush.
+     */
+    public void flush() {
+        int written = 0;
+        try {
+            for (; written < dirtyKeys.length(); written++) {
+                final String key = dirtyKeys.get(written);
+                if (innerMap.contains(key)) {
+                    storage.setItem(prefix + key, serializer.serialize(innerMap.get(key)));
+                } else {
+                    storage.removeItem(prefix + key);
+                }
+                dirty.remove(key);
+            }
+        } finally {
+            removeFirst(dirtyKeys, written);
+        }
+    }
+
+    private void load(String key) {
+        if (!unloaded.get(key, false)) return;
+
+        unloaded.remove(key);
+        unloadedCount--;
+        final String text = storage.getItem(prefix + key);
+        if (text != null) innerMap.put(key, serializer.deserialize(text));
+    }
+
+    // The loaded keys followed by the ones not loaded yet
+    private JsArrayString allKeys() {
+        final JsArrayString keys = JavaScriptObject.createArray().cast();
+        final JsArrayString loaded = innerMap.keys();
+        for (int i = 0; i < loaded.length(); i++) {
+            keys.push(loaded.get(i));
+        }
+        if (unloadedCount > 0) {
+            for (int i = 0; i < unloadedKeys.length(); i++) {
+                final String key = unloadedKeys.get(i);
+                if (unloaded.get(key, false)) keys.push(key);
+            }
+        }
+        return keys;
+    }
+
+    private void loadAll() {
+        if (unloadedCount == 0) return;
+
+        for (int i = 0; i < unloadedKeys.length(); i++) {
+            load(unloadedKeys.get(i));
+        }
+        unloadedKeys.setLength(0);
+    }
+
+    private class StorageKeySet extends KeySetView<T> {
+
+        StorageKeySet() {
+            super(StorageLightMap.this);
+        }
+
+        @Override
+        public JsArrayString snapshot() {
+            return allKeys();
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                private final JsArrayString keys = allKeys();
+                private int cursor;       // index of next element to return
+                private int lastRet = -1; // index of last element returned; -1 if no such
+
+                @Override
+                public boolean hasNext() {
+                    return cursor < keys.length();
+                }
+
+                @Override
+                public String next() {
+                    int i = cursor;
+
+                    if (i >= keys.length())
+                        throw new NoSuchElementException();
+
+                    cursor = i + 1;
+                    return keys.get(lastRet = i);
+                }
+
+                @Override
+                public void remove() {
+                    if (lastRet < 0)
+                        throw new IllegalStateException();
+
+                    StorageLightMap.this.remove(keys.get(lastRet));
+                    lastRet = -1;
+                }
+            };
+        }
+    }
+
+    private static native void removeFirst(JsArrayString array, int count) /*-{
+        array.splice(0, count);
+    }-*/;
+
+    private static native String stringify(JavaScriptObject value) /*-{
+        return JSON.stringify(value);
+    }-*/;
+
+    private static native JavaScriptObject parse(String text) /*-{
+        return JSON.parse(text);
+    }-*/;
+}
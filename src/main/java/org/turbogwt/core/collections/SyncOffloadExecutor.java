@@ -0,0 +1,39 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Runs the {@link Offload} operations in the current thread, where Web Workers are unavailable.
+ * The callback is called before {@link #execute} returns.
+ *
+ * @author Danilo Reinert
+ */
+public class SyncOffloadExecutor implements OffloadExecutor {
+
+    @Override
+    public void execute(JavaScriptObject message, OffloadCallback<JavaScriptObject> callback) {
+        final JavaScriptObject reply;
+        try {
+            reply = OffloadKernel.run(message);
+        } catch (RuntimeException e) {
+            callback.onFailure(e);
+            return;
+        }
+        callback.onSuccess(reply);
+    }
+}
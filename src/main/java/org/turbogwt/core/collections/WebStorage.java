@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A {@link KeyValueStorage} over the browser's localStorage or sessionStorage.
+ *
+ * @author Danilo Reinert
+ */
+public class WebStorage implements KeyValueStorage {
+
+    private final JavaScriptObject storage;
+
+    private WebStorage(JavaScriptObject storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Returns the browser's localStorage, or null if it is not available.
+     */
+    public static WebStorage getLocalStorage() {
+        final JavaScriptObject storage = getStorage("localStorage");
+        return storage != null ? new WebStorage(storage) : null;
+    }
+
+    /**
+     * Returns the browser's sessionStorage, or null if it is not available.
+     */
+    public static WebStorage getSessionStorage() {
+        final JavaScriptObject storage = getStorage("sessionStorage");
+        return storage != null ? new WebStorage(storage) : null;
+    }
+
+    @Override
+    public int getLength() {
+        return getLength(storage);
+    }
+
+    @Override
+    public String key(int index) {
+        return key(storage, index);
+    }
+
+    @Override
+    public String getItem(String key) {
+        return getItem(storage, key);
+    }
+
+    @Override
+    public void setItem(String key, String value) {
+        setItem(storage, key, value);
+    }
+
+    @Override
+    public void removeItem(String key) {
+        removeItem(storage, key);
+    }
+
+    private static native JavaScriptObject getStorage(String name) /*-{
+        try {
+            // Accessing the storage throws when it is disabled by the user
+            return $wnd[name] || null;
+        } catch (e) {
+            return null;
+        }
+    }-*/;
+
+    private static native int getLength(JavaScriptObject storage) /*-{
+        return storage.length;
+    }-*/;
+
+    private static native String key(JavaScriptObject storage, int index) /*-{
+        return storage.key(index);
+    }-*/;
+
+    private static native String getItem(JavaScriptObject storage, String key) /*-{
+        return storage.getItem(key);
+    }-*/;
+
+    private static native void setItem(JavaScriptObject storage, String key, String value) /*-{
+        storage.setItem(key, value);
+    }-*/;
+
+    private static native void removeItem(JavaScriptObject storage, String key) /*-{
+        storage.removeItem(key);
+    }-*/;
+}
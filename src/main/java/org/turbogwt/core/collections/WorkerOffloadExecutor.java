@@ -0,0 +1,145 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the {@link Offload} operations in a dedicated Web Worker, keeping the UI thread free.
+ * <p>
+ *
+ * The worker script is built from a Blob, so no extra file needs to be deployed. Typed arrays are sent and returned as
+ * transferables instead of copies: their buffer becomes unusable in the sending thread, so the input must not be used
+ * after being submitted.
+ *
+ * @author Danilo Reinert
+ */
+public class WorkerOffloadExecutor implements OffloadExecutor {
+
+    // CHECKSTYLE:OFF
+    private static final String SCRIPT = "var run = function(message) {" + OffloadKernel.BODY + "};"
+            + "var transfer = function(x) { return x && x.buffer instanceof ArrayBuffer ? [x.buffer] : []; };"
+            + "onmessage = function(e) {"
+            + "  var m = e.data, r;"
+            + "  try { r = run(m); } catch (x) { postMessage({id: m.id, error: String(x && x.message || x)}); return; }"
+            + "  postMessage({id: m.id, result: r}, transfer(r));"
+            + "};";
+    // CHECKSTYLE:ON
+
+    private final Map<Integer, OffloadCallback<JavaScriptObject>> pending =
+            new HashMap<Integer, OffloadCallback<JavaScriptObject>>();
+    private JavaScriptObject worker;
+    private int lastId;
+
+    /**
+     * Tells whether the browser can run the worker.
+     */
+    public static native boolean isSupported() /*-{
+        return typeof $wnd.Worker != 'undefined' && typeof $wnd.Blob != 'undefined'
+            && typeof $wnd.URL != 'undefined' && typeof $wnd.URL.createObjectURL == 'function';
+    }-*/;
+
+    @Override
+    public void execute(JavaScriptObject message, OffloadCallback<JavaScriptObject> callback) {
+        if (worker == null) worker = createWorker(SCRIPT);
+
+        final int id = ++lastId;
+        pending.put(id, callback);
+        try {
+            post(worker, message, id);
+        } catch (RuntimeException e) {
+            // e.g. a DataCloneError for values which cannot be sent to the worker
+            pending.remove(id);
+            callback.onFailure(e);
+        }
+    }
+
+    /**
+     * Returns the number of operations submitted and not yet answered.
+     */
+    public int getPending() {
+        return pending.size();
+    }
+
+    /**
+     * Stops the worker, failing the pending operations. A new worker is started on the next execution.
+     */
+    public void terminate() {
+        if (worker == null) return;
+
+        terminate(worker);
+        worker = null;
+        failAll("Worker terminated");
+    }
+
+    private void onReply(int id, JavaScriptObject reply, String error) {
+        final OffloadCallback<JavaScriptObject> callback = pending.remove(id);
+        if (callback == null) return;
+
+        if (error != null) {
+            callback.onFailure(new RuntimeException(error));
+        } else {
+            callback.onSuccess(reply);
+        }
+    }
+
+    private void onError(String error) {
+        // an uncaught error leaves the worker unusable
+        terminate(worker);
+        worker = null;
+        failAll(error);
+    }
+
+    private void failAll(String error) {
+        final Map<Integer, OffloadCallback<JavaScriptObject>> failed =
+                new HashMap<Integer, OffloadCallback<JavaScriptObject>>(pending);
+        pending.clear();
+        for (OffloadCallback<JavaScriptObject> callback : failed.values()) {
+            callback.onFailure(new RuntimeException(error));
+        }
+    }
+
+    // CHECKSTYLE:OFF
+    private native JavaScriptObject createWorker(String script) /*-{
+        var self = this;
+        var url = $wnd.URL.createObjectURL(new $wnd.Blob([script], {type: 'text/javascript'}));
+        var worker = new $wnd.Worker(url);
+        $wnd.URL.revokeObjectURL(url);
+        worker.onmessage = $entry(function(e) {
+            var reply = e.data;
+            self.@org.turbogwt.core.collections.WorkerOffloadExecutor::onReply(ILcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;)(reply.id, reply, reply.error != null ? reply.error : null);
+        });
+        worker.onerror = $entry(function(e) {
+            if (e.preventDefault) e.preventDefault();
+            self.@org.turbogwt.core.collections.WorkerOffloadExecutor::onError(Ljava/lang/String;)(String(e.message || 'Worker error'));
+        });
+        return worker;
+    }-*/;
+    // CHECKSTYLE:ON
+
+    private static native void post(JavaScriptObject worker, JavaScriptObject message, int id) /*-{
+        message.id = id;
+        var data = message.data;
+        worker.postMessage(message, data && data.buffer instanceof ArrayBuffer ? [data.buffer] : []);
+    }-*/;
+
+    private static native void terminate(JavaScriptObject worker) /*-{
+        worker.terminate();
+    }-*/;
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.util;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+
+/**
+ * The result of a {@link MemoryEstimator} run: the estimated retained bytes, in total and per type of value.
+ *
+ * @author Danilo Reinert
+ */
+public final class MemoryEstimate extends JavaScriptObject {
+
+    public static final String OBJECT = "object";
+    public static final String ARRAY = "array";
+    public static final String TYPED_ARRAY = "typedArray";
+    public static final String STRING = "string";
+    public static final String NUMBER = "number";
+
+    protected MemoryEstimate() {
+    }
+
+    static native MemoryEstimate create() /*-{
+        return {total: 0, bytes: {}, counts: {}};
+    }-*/;
+
+    /**
+     * Returns the estimated retained bytes.
+     */
+    public final native double getTotal() /*-{
+        return this.total;
+    }-*/;
+
+    /**
+     * Returns the estimated bytes retained by values of the given type.
+     *
+     * @param type one of {@link #OBJECT}, {@link #ARRAY}, {@link #TYPED_ARRAY}, {@link #STRING} or {@link #NUMBER}
+     */
+    public final native double getBytes(String type) /*-{
+        return this.bytes[type] || 0;
+    }-*/;
+
+    /**
+     * Returns the estimated number of values of the given type.
+     * It may be fractional if the estimate was sampled.
+     */
+    public final native double getCount(String type) /*-{
+        return this.counts[type] || 0;
+    }-*/;
+
+    /**
+     * Returns the types of the values found.
+     */
+    public final native JsArrayString getTypes() /*-{
+        return Object.keys(this.bytes);
+    }-*/;
+
+    final native void add(String type, double bytes, double weight) /*-{
+        this.bytes[type] = (this.bytes[type] || 0) + bytes * weight;
+        this.counts[type] = (this.counts[type] || 0) + weight;
+        this.total += bytes * weight;
+    }-*/;
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.util;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Estimates the memory retained by a graph of values, like collections and overlays.
+ * <p>
+ *
+ * The graph is walked from the root, counting each object once (so cycles and shared values are handled). The sizes
+ * are rough figures modeled after common JS engines:
+ * <ul>
+ *     <li>objects take {@value #OBJECT_BYTES} bytes plus {@value #SLOT_BYTES} per property; property names are shared
+ *     among objects of the same shape, so each distinct name is counted once as a string;</li>
+ *     <li>arrays take {@value #OBJECT_BYTES} bytes plus {@value #SLOT_BYTES} per element;</li>
+ *     <li>typed arrays take {@value #TYPED_ARRAY_BYTES} bytes plus their buffer, counted once even if shared;</li>
+ *     <li>strings take {@value #STRING_BYTES} bytes plus two per char;</li>
+ *     <li>numbers take {@value #NUMBER_BYTES} bytes, except small integers which are stored inline;</li>
+ *     <li>booleans, null and functions are not counted.</li>
+ * </ul>
+ *
+ * In sampling mode, only a given number of evenly spaced children of each large object or array are walked, and their
+ * sizes are extrapolated to the remaining ones.
+ * <p>
+ *
+ * In production mode Java objects are walked like any other JS object. In development mode, where they are opaque
+ * to javascript, only Maps, Collections, Strings, Numbers and overlays are walked; other Java objects count as empty
+ * objects.
+ *
+ * @author Danilo Reinert
+ */
+public final class MemoryEstimator {
+
+    public static final int OBJECT_BYTES = 16;
+    public static final int SLOT_BYTES = 8;
+    public static final int TYPED_ARRAY_BYTES = 64;
+    public static final int STRING_BYTES = 12;
+    public static final int NUMBER_BYTES = 12;
+
+    private MemoryEstimator() {
+    }
+
+    /**
+     * Estimates the bytes retained by the given value, walking the whole graph.
+     *
+     * @param root the value
+     *
+     * @return the estimate
+     */
+    public static MemoryEstimate estimate(Object root) {
+        return estimate(root, 0);
+    }
+
+    /**
+     * Estimates the bytes retained by the given value, sampling large objects and arrays.
+     *
+     * @param root          the value
+     * @param sampleSize    the maximum number of children walked per object or array; zero walks all of them
+     *
+     * @return the estimate
+     */
+    public static MemoryEstimate estimate(Object root, int sampleSize) {
+        if (sampleSize < 0) throw new IllegalArgumentException("Sample size must not be negative");
+
+        final MemoryEstimate estimate = MemoryEstimate.create();
+        final JavaScriptObject seen = createSeen();
+        if (GWT.isScript()) {
+            walk(root, sampleSize, 1, estimate, seen);
+        } else {
+            walkJava(root, sampleSize, 1, estimate, seen);
+        }
+        return estimate;
+    }
+
+    // Development mode only: Java objects are walked through their Java API
+    private static void walkJava(Object o, int sampleSize, double weight, MemoryEstimate estimate,
+                                 JavaScriptObject seen) {
+        if (o == null || o instanceof Boolean) return;
+
+        if (o instanceof Number) {
+            final double d = ((Number) o).doubleValue();
+            final boolean small = d == (int) d && d < 0x40000000 && d >= -0x40000000;
+            estimate.add(MemoryEstimate.NUMBER, small ? 0 : NUMBER_BYTES, weight);
+        } else if (o instanceof String || o instanceof JavaScriptObject) {
+            walk(o, sampleSize, weight, estimate, seen);
+        } else if (!markSeen(seen, o)) {
+            return;
+        } else if (o instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) o;
+            estimate.add(MemoryEstimate.OBJECT, OBJECT_BYTES + SLOT_BYTES * map.size(), weight);
+            walkJava(map.entrySet(), sampleSize, weight, estimate, seen);
+        } else if (o instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) o;
+            final int size = collection.size();
+            final double step = sampleSize > 0 && size > sampleSize ? (double) size / sampleSize : 1;
+            estimate.add(MemoryEstimate.ARRAY, OBJECT_BYTES + SLOT_BYTES * size, weight);
+            double next = 0;
+            int i = 0;
+            for (Object element : collection) {
+                if (i++ < next) continue;
+                next += step;
+                if (element instanceof Map.Entry) {
+                    final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) element;
+                    walkJava(entry.getKey(), sampleSize, weight * step, estimate, seen);
+                    walkJava(entry.getValue(), sampleSize, weight * step, estimate, seen);
+                } else {
+                    walkJava(element, sampleSize, weight * step, estimate, seen);
+                }
+            }
+        } else {
+            estimate.add(MemoryEstimate.OBJECT, OBJECT_BYTES, weight);
+        }
+    }
+
+    private static native JavaScriptObject createSeen() /*-{
+        return {objects: typeof Set == 'function' ? new Set() : [], keys: Object.create ? Object.create(null) : {}};
+    }-*/;
+
+    private static native boolean markSeen(JavaScriptObject seen, Object o) /*-{
+        seen = seen.objects;
+        if (seen.add) {
+            if (seen.has(o)) return false;
+            seen.add(o);
+        } else {
+            if (seen.indexOf(o) >= 0) return false;
+            seen.push(o);
+        }
+        return true;
+    }-*/;
+
+    private static native void walk(Object root, int sampleSize, double weight, MemoryEstimate estimate,
+                                    JavaScriptObject seen) /*-{
+        var OBJECT_BYTES = @org.turbogwt.core.util.MemoryEstimator::OBJECT_BYTES;
+        var SLOT_BYTES = @org.turbogwt.core.util.MemoryEstimator::SLOT_BYTES;
+        var STRING_BYTES = @org.turbogwt.core.util.MemoryEstimator::STRING_BYTES;
+        var NUMBER_BYTES = @org.turbogwt.core.util.MemoryEstimator::NUMBER_BYTES;
+        var TYPED_ARRAY_BYTES = @org.turbogwt.core.util.MemoryEstimator::TYPED_ARRAY_BYTES;
+        var hasViews = typeof ArrayBuffer != 'undefined' && ArrayBuffer.isView;
+        var hasOwn = Object.prototype.hasOwnProperty;
+        var seenKeys = seen.keys;
+
+        function markSeen(o) {
+            // CHECKSTYLE:OFF
+            return @org.turbogwt.core.util.MemoryEstimator::markSeen(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/Object;)(seen, o);
+            // CHECKSTYLE:ON
+        }
+
+        function add(type, bytes, w) {
+            estimate.@org.turbogwt.core.util.MemoryEstimate::add(Ljava/lang/String;DD)(type, bytes, w);
+        }
+
+        // Iterative, so deep graphs do not overflow the stack
+        var values = [root], weights = [weight];
+        while (values.length) {
+            var v = values.pop(), w = weights.pop(), t = typeof v;
+            if (t == 'string') {
+                add('string', STRING_BYTES + 2 * v.length, w);
+                continue;
+            }
+            if (t == 'number') {
+                var small = (v | 0) === v && v < 0x40000000 && v >= -0x40000000;
+                add('number', small ? 0 : NUMBER_BYTES, w);
+                continue;
+            }
+            if (v == null || t != 'object' || !markSeen(v)) continue;
+
+            if (hasViews && ArrayBuffer.isView(v)) {
+                var bytes = TYPED_ARRAY_BYTES + (markSeen(v.buffer) ? v.buffer.byteLength : 0);
+                add('typedArray', bytes, w);
+                continue;
+            }
+
+            var isArray = Object.prototype.toString.call(v) == '[object Array]';
+            var keys = isArray ? null : Object.keys(v);
+            var n = isArray ? v.length : keys.length;
+            add(isArray ? 'array' : 'object', OBJECT_BYTES + SLOT_BYTES * n, w);
+
+            if (!isArray) {
+                for (var k = 0; k < n; k++) {
+                    var key = keys[k];
+                    if (hasOwn.call(seenKeys, key)) continue;
+                    seenKeys[key] = true;
+                    add('string', STRING_BYTES + 2 * key.length, 1);
+                }
+                // The non-enumerable key array of JsMap holds the same strings as the keys counted above
+                var props = hasOwn.call(v, '__props__') ? v.__props__ : null;
+                if (props && typeof props == 'object' && markSeen(props)) {
+                    add('array', OBJECT_BYTES + SLOT_BYTES * props.length, w);
+                }
+            }
+
+            var step = sampleSize > 0 && n > sampleSize ? n / sampleSize : 1;
+            for (var i = 0; i < n; i += step) {
+                var j = Math.floor(i);
+                if (isArray) {
+                    values.push(v[j]);
+                } else {
+                    values.push(v[keys[j]]);
+                }
+                weights.push(w * step);
+            }
+        }
+    }-*/;
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.util;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
+import com.google.gwt.core.client.JsArrayNumber;
+
+/**
+ * Compact binary encoding of numeric arrays as Base64 strings.
+ * <p>
+ *
+ * Doubles are packed as little-endian IEEE 754 64-bit floats and integers as little-endian 32-bit two's complement,
+ * so the encoded length is 4/3 of the raw bytes regardless of the values. Sorted or clustered integers, like ids,
+ * may be packed further with {@link #encodeDeltaVarint(JsArrayInteger)}, which stores the zigzag encoded difference
+ * between consecutive values in as few bytes as needed.
+ * <p>
+ *
+ * The encodings carry no header; the length of the array is implied by the length of the string.
+ * Decoded arrays are Float64Array or Int32Array where typed arrays are supported, or regular arrays otherwise.
+ * The double encoding requires DataView support.
+ *
+ * @author Danilo Reinert
+ */
+public final class NumberCodec {
+
+    private NumberCodec() {
+    }
+
+    public static native String encodeFloat64(JsArrayNumber values) /*-{
+        var n = values.length;
+        var view = new DataView(new ArrayBuffer(n * 8));
+        for (var i = 0; i < n; i++) view.setFloat64(i * 8, values[i], true);
+        // CHECKSTYLE:OFF
+        return @org.turbogwt.core.util.NumberCodec::toBase64(Lcom/google/gwt/core/client/JavaScriptObject;I)(new Uint8Array(view.buffer), n * 8);
+        // CHECKSTYLE:ON
+    }-*/;
+
+    public static native JsArrayNumber decodeFloat64(String base64) /*-{
+        var bytes = @org.turbogwt.core.util.NumberCodec::fromBase64(Ljava/lang/String;)(base64);
+        if (bytes.length % 8 != 0)
+            throw @java.lang.IllegalArgumentException::new(Ljava/lang/String;)("Not an array of doubles");
+        var n = bytes.length / 8;
+        var view = new DataView(bytes.buffer);
+        var values = new Float64Array(n);
+        for (var i = 0; i < n; i++) values[i] = view.getFloat64(i * 8, true);
+        return values;
+    }-*/;
+
+    public static native String encodeInt32(JsArrayInteger values) /*-{
+        var n = values.length;
+        var bytes = @org.turbogwt.core.util.NumberCodec::createBytes(I)(n * 4);
+        for (var i = 0, j = 0; i < n; i++) {
+            var v = values[i];
+            bytes[j++] = v & 255;
+            bytes[j++] = (v >> 8) & 255;
+            bytes[j++] = (v >> 16) & 255;
+            bytes[j++] = (v >> 24) & 255;
+        }
+        // CHECKSTYLE:OFF
+        return @org.turbogwt.core.util.NumberCodec::toBase64(Lcom/google/gwt/core/client/JavaScriptObject;I)(bytes, n * 4);
+        // CHECKSTYLE:ON
+    }-*/;
+
+    public static native JsArrayInteger decodeInt32(String base64) /*-{
+        var bytes = @org.turbogwt.core.util.NumberCodec::fromBase64(Ljava/lang/String;)(base64);
+        if (bytes.length % 4 != 0)
+            throw @java.lang.IllegalArgumentException::new(Ljava/lang/String;)("Not an array of integers");
+        var n = bytes.length / 4;
+        var values = @org.turbogwt.core.util.NumberCodec::createInt32(I)(n);
+        for (var i = 0, j = 0; i < n; i++, j += 4) {
+            values[i] = bytes[j] | (bytes[j + 1] << 8) | (bytes[j + 2] << 16) | (bytes[j + 3] << 24);
+        }
+        return values;
+    }-*/;
+
+    /**
+     * Encodes the differences between consecutive values as zigzag varints: each difference takes from one byte
+     * (within -64 and 63) to five bytes. Best suited for sorted ids.
+     *
+     * @param values the values to encode
+     *
+     * @return the encoded values
+     */
+    public static native String encodeDeltaVarint(JsArrayInteger values) /*-{
+        var n = values.length;
+        // A delta between two ints takes at most 5 bytes
+        var bytes = @org.turbogwt.core.util.NumberCodec::createBytes(I)(n * 5);
+        var j = 0, previous = 0;
+        for (var i = 0; i < n; i++) {
+            var delta = values[i] - previous;
+            previous = values[i];
+            // Zigzag over doubles, since the delta of two ints may not fit in an int
+            var z = delta >= 0 ? delta * 2 : -delta * 2 - 1;
+            while (z >= 128) {
+                bytes[j++] = (z % 128) | 128;
+                z = Math.floor(z / 128);
+            }
+            bytes[j++] = z;
+        }
+        // CHECKSTYLE:OFF
+        return @org.turbogwt.core.util.NumberCodec::toBase64(Lcom/google/gwt/core/client/JavaScriptObject;I)(bytes, j);
+        // CHECKSTYLE:ON
+    }-*/;
+
+    public static native JsArrayInteger decodeDeltaVarint(String base64) /*-{
+        var bytes = @org.turbogwt.core.util.NumberCodec::fromBase64(Ljava/lang/String;)(base64);
+        var length = bytes.length, n = 0;
+        for (var k = 0; k < length; k++) {
+            if (bytes[k] < 128) n++;
+        }
+        var values = @org.turbogwt.core.util.NumberCodec::createInt32(I)(n);
+        var j = 0, previous = 0;
+        for (var i = 0; i < n; i++) {
+            var z = 0, scale = 1, b;
+            do {
+                b = bytes[j++];
+                z += (b & 127) * scale;
+                scale *= 128;
+            } while (b >= 128);
+            previous += z % 2 == 0 ? z / 2 : -(z + 1) / 2;
+            values[i] = previous;
+        }
+        return values;
+    }-*/;
+
+    private static native String toBase64(JavaScriptObject bytes, int length) /*-{
+        var a = 'ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/';
+        var out = [], i = 0, v;
+        for (; i + 2 < length; i += 3) {
+            v = (bytes[i] << 16) | (bytes[i + 1] << 8) | bytes[i + 2];
+            out.push(a.charAt(v >> 18) + a.charAt((v >> 12) & 63) + a.charAt((v >> 6) & 63) + a.charAt(v & 63));
+        }
+        if (length - i == 1) {
+            v = bytes[i] << 16;
+            out.push(a.charAt(v >> 18) + a.charAt((v >> 12) & 63) + '==');
+        } else if (length - i == 2) {
+            v = (bytes[i] << 16) | (bytes[i + 1] << 8);
+            out.push(a.charAt(v >> 18) + a.charAt((v >> 12) & 63) + a.charAt((v >> 6) & 63) + '=');
+        }
+        return out.join('');
+    }-*/;
+
+    private static native JavaScriptObject fromBase64(String base64) /*-{
+        var s = base64.replace(/[\s=]+/g, '');
+        if (s.length % 4 == 1) throw @java.lang.IllegalArgumentException::new(Ljava/lang/String;)("Invalid Base64");
+
+        function value(c) {
+            var code = s.charCodeAt(c);
+            if (code >= 65 && code <= 90) return code - 65;
+            if (code >= 97 && code <= 122) return code - 71;
+            if (code >= 48 && code <= 57) return code + 4;
+            if (code == 43 || code == 45) return 62;
+            if (code == 47 || code == 95) return 63;
+            throw @java.lang.IllegalArgumentException::new(Ljava/lang/String;)("Invalid Base64");
+        }
+
+        var length = Math.floor(s.length * 3 / 4);
+        var bytes = @org.turbogwt.core.util.NumberCodec::createBytes(I)(length);
+        var i = 0, j = 0, v;
+        for (; i + 3 < s.length; i += 4) {
+            v = (value(i) << 18) | (value(i + 1) << 12) | (value(i + 2) << 6) | value(i + 3);
+            bytes[j++] = v >> 16;
+            bytes[j++] = (v >> 8) & 255;
+            bytes[j++] = v & 255;
+        }
+        if (s.length - i == 2) {
+            bytes[j] = ((value(i) << 18) | (value(i + 1) << 12)) >> 16;
+        } else if (s.length - i == 3) {
+            v = (value(i) << 18) | (value(i + 1) << 12) | (value(i + 2) << 6);
+            bytes[j++] = v >> 16;
+            bytes[j] = (v >> 8) & 255;
+        }
+        return bytes;
+    }-*/;
+
+    private static native JavaScriptObject createBytes(int length) /*-{
+        if (typeof Uint8Array != 'undefined') return new Uint8Array(length);
+        var a = new Array(length);
+        for (var i = 0; i < length; i++) a[i] = 0;
+        return a;
+    }-*/;
+
+    private static native JsArrayInteger createInt32(int length) /*-{
+        if (typeof Int32Array != 'undefined') return new Int32Array(length);
+        return new Array(length);
+    }-*/;
+}
@@ -17,6 +17,10 @@ package org.turbogwt.core.util;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsArrayInteger;
+import com.google.gwt.core.client.JsArrayMixed;
+import com.google.gwt.core.client.JsArrayNumber;
 import com.google.gwt.core.client.JsArrayString;
 
 /**
@@ -84,6 +88,128 @@ public final class Overlays {
         return jso[property] == null;
     }-*/;
 
+    /**
+     * Extracts a numeric property of every object of an array, in a single native pass.
+     * The result is a fixed length Float64Array where typed arrays are supported; missing values are read as NaN.
+     *
+     * @param objects the array of objects
+     * @param property the property to extract
+     * @return the property values, in the same order of the objects
+     */
+    public static native JsArrayNumber pluckDouble(JavaScriptObject objects, String property) /*-{
+        var n = objects.length, values = typeof Float64Array != 'undefined' ? new Float64Array(n) : new Array(n);
+        for (var i = 0; i < n; i++) {
+            var v = objects[i] != null ? objects[i][property] : null;
+            values[i] = v != null ? +v : NaN;
+        }
+        return values;
+    }-*/;
+
+    /**
+     * Extracts an integer property of every object of an array, in a single native pass.
+     * The result is a fixed length Int32Array where typed arrays are supported; missing values are read as 0.
+     *
+     * @param objects the array of objects
+     * @param property the property to extract
+     * @return the property values, in the same order of the objects
+     */
+    public static native JsArrayInteger pluckInt(JavaScriptObject objects, String property) /*-{
+        var n = objects.length, values = typeof Int32Array != 'undefined' ? new Int32Array(n) : new Array(n);
+        for (var i = 0; i < n; i++) {
+            var v = objects[i] != null ? objects[i][property] : null;
+            values[i] = v != null ? v | 0 : 0;
+        }
+        return values;
+    }-*/;
+
+    /**
+     * Extracts a string property of every object of an array, in a single native pass. Values of other types are
+     * converted to strings; missing values are null.
+     *
+     * @param objects the array of objects
+     * @param property the property to extract
+     * @return the property values, in the same order of the objects
+     */
+    public static native JsArrayString pluckString(JavaScriptObject objects, String property) /*-{
+        var n = objects.length, values = new Array(n);
+        for (var i = 0; i < n; i++) {
+            var v = objects[i] != null ? objects[i][property] : null;
+            values[i] = v != null ? '' + v : null;
+        }
+        return values;
+    }-*/;
+
+    /**
+     * Extracts an object property of every object of an array, in a single native pass. Missing values are null.
+     *
+     * @param objects the array of objects
+     * @param property the property to extract
+     * @param <T> Type of the property values
+     * @return the property values, in the same order of the objects
+     */
+    public static native <T extends JavaScriptObject> JsArray<T> pluckObject(JavaScriptObject objects,
+                                                                            String property) /*-{
+        var n = objects.length, values = new Array(n);
+        for (var i = 0; i < n; i++) {
+            var v = objects[i] != null ? objects[i][property] : null;
+            values[i] = v != null ? v : null;
+        }
+        return values;
+    }-*/;
+
+    /**
+     * Extracts many properties of every object of an array into columns, in a single native pass over the objects.
+     * Each column is a regular array holding the values of one property, in the same order of the objects;
+     * missing values are null.
+     *
+     * <pre>
+     *     JsArray&lt;JavaScriptObject&gt; columns = Overlays.pluckColumns(rows, "price", "name");
+     *     JsArrayNumber prices = columns.get(0).cast();
+     *     JsArrayString names = columns.get(1).cast();
+     * </pre>
+     *
+     * @param objects the array of objects
+     * @param properties the properties to extract
+     * @return the columns, in the same order of the properties
+     */
+    public static JsArray<JavaScriptObject> pluckColumns(JavaScriptObject objects, String... properties) {
+        return pluckColumns(objects, fromArray(properties));
+    }
+
+    public static native JsArray<JavaScriptObject> pluckColumns(JavaScriptObject objects,
+                                                               JsArrayString properties) /*-{
+        var n = objects.length, m = properties.length, columns = new Array(m);
+        for (var j = 0; j < m; j++) columns[j] = new Array(n);
+        for (var i = 0; i < n; i++) {
+            var o = objects[i];
+            for (j = 0; j < m; j++) {
+                var v = o != null ? o[properties[j]] : null;
+                columns[j][i] = v != null ? v : null;
+            }
+        }
+        return columns;
+    }-*/;
+
+    /**
+     * Reads many properties of an object in a single native call. Missing values are null.
+     *
+     * @param jso the object to read
+     * @param names the names of the properties
+     * @return the property values, in the same order of the names
+     */
+    public static JsArrayMixed readProperties(JavaScriptObject jso, String... names) {
+        return readProperties(jso, fromArray(names));
+    }
+
+    public static native JsArrayMixed readProperties(JavaScriptObject jso, JsArrayString names) /*-{
+        var values = new Array(names.length);
+        for (var i = 0; i < names.length; i++) {
+            var v = jso[names[i]];
+            values[i] = v != null ? v : null;
+        }
+        return values;
+    }-*/;
+
     public static native void setBoolean(JavaScriptObject jso, String property, boolean value) /*-{
         jso[property] = value;
     }-*/;
@@ -186,6 +312,22 @@ public final class Overlays {
         return value;
     }-*/;
 
+    private static native JsArrayString reinterpretCast(String[] value) /*-{
+        return value;
+    }-*/;
+
+    private static JsArrayString fromArray(String[] values) {
+        if (GWT.isScript()) {
+            return reinterpretCast(values);
+        } else {
+            JsArrayString ret = JavaScriptObject.createArray().cast();
+            for (int i = 0, l = values.length; i < l; i++) {
+                ret.set(i, values[i]);
+            }
+            return ret;
+        }
+    }
+
     private static String[] toArray(JsArrayString values) {
         if (GWT.isScript()) {
             return reinterpretCast(values);
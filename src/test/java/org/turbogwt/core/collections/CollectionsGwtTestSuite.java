@@ -28,10 +28,30 @@ public class CollectionsGwtTestSuite {
         GWTTestSuite suite = new GWTTestSuite("Collections GWT Test Suite");
 
         suite.addTestSuite(JsArrayTest.class);
+        suite.addTestSuite(JsArrayDequeTest.class);
         suite.addTestSuite(JsArrayListStringTest.class);
         suite.addTestSuite(JsArrayListObjectTest.class);
+        suite.addTestSuite(JsArrayPipelineTest.class);
+        suite.addTestSuite(JsArrayPoolTest.class);
+        suite.addTestSuite(JsArraySetTest.class);
+        suite.addTestSuite(JsBitSetTest.class);
+        suite.addTestSuite(JsColumnTableTest.class);
+        suite.addTestSuite(JsCopyOnWriteArrayListTest.class);
+        suite.addTestSuite(JsHashMapTest.class);
+        suite.addTestSuite(JsHashSetTest.class);
         suite.addTestSuite(JsHashTableTest.class);
+        suite.addTestSuite(JsIdentityMapTest.class);
         suite.addTestSuite(JsMapTest.class);
+        suite.addTestSuite(JsPersistentMapTest.class);
+        suite.addTestSuite(JsPersistentVectorTest.class);
+        suite.addTestSuite(JsPriorityQueueTest.class);
+        suite.addTestSuite(JsSortedMapTest.class);
+        suite.addTestSuite(JsTrieTest.class);
+        suite.addTestSuite(LightMapTest.class);
+        suite.addTestSuite(LightMultimapTest.class);
+        suite.addTestSuite(ObservableCollectionsTest.class);
+        suite.addTestSuite(OffloadTest.class);
+        suite.addTestSuite(StorageLightMapTest.class);
 
         return suite;
     }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Iterator;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsArrayDequeTest extends GWTTestCase {
+
+    private JsArrayDeque<Integer> deque;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        // Small capacity in order to exercise wrapping and growth
+        deque = new JsArrayDeque<>(4);
+        for (int i = 0; i < 3; i++) {
+            deque.addLast(i);
+        }
+    }
+
+    public void testBothEnds() {
+        deque.addFirst(-1);
+        deque.addLast(3);
+        deque.addFirst(-2);
+        assertEquals(deque.size(), 6);
+        assertEquals(deque.peekFirst().intValue(), -2);
+        assertEquals(deque.peekLast().intValue(), 3);
+        for (int i = -2; i <= 3; i++) {
+            assertEquals(deque.pollFirst().intValue(), i);
+        }
+        assertNull(deque.pollFirst());
+        assertNull(deque.pollLast());
+    }
+
+    public void testStack() {
+        deque.push(10);
+        assertEquals(deque.pop().intValue(), 10);
+        assertEquals(deque.removeLast().intValue(), 2);
+        assertEquals(deque.getLast().intValue(), 1);
+    }
+
+    public void testBounded() {
+        final JsArrayDeque<Integer> window = JsArrayDeque.bounded(3);
+        for (int i = 0; i < 10; i++) {
+            window.addLast(i);
+        }
+        assertEquals(window.size(), 3);
+        assertEquals(window.get(0).intValue(), 7);
+        assertEquals(window.get(2).intValue(), 9);
+    }
+
+    public void testDrain() {
+        final JsArray<Integer> target = JsArray.create();
+        assertEquals(deque.drainTo(target, 2), 2);
+        assertEquals(deque.size(), 1);
+        assertEquals(deque.drainTo(target), 1);
+        assertTrue(deque.isEmpty());
+        assertEquals(target.length(), 3);
+        assertEquals(target.get(2).intValue(), 2);
+    }
+
+    public void testIterators() {
+        deque.addFirst(-1);
+        final Iterator<Integer> it = deque.iterator();
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) it.remove();
+        }
+        assertEquals(deque.size(), 2);
+
+        final Iterator<Integer> desc = deque.descendingIterator();
+        assertEquals(desc.next().intValue(), 1);
+        assertEquals(desc.next().intValue(), -1);
+        assertFalse(desc.hasNext());
+    }
+
+    public void testRemoveOccurrence() {
+        deque.addLast(1);
+        assertTrue(deque.removeLastOccurrence(1));
+        assertTrue(deque.removeFirstOccurrence(1));
+        assertFalse(deque.contains(1));
+        assertEquals(deque.size(), 2);
+    }
+}
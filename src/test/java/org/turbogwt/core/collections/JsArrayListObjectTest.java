@@ -18,6 +18,7 @@ package org.turbogwt.core.collections;
 import com.google.gwt.junit.client.GWTTestCase;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -84,17 +85,78 @@ public class JsArrayListObjectTest extends GWTTestCase {
     }
 
     public void testRemoveAll() {
-        list.removeAll(Arrays.asList(new SomeObject("Text0", 0), new SomeObject("Text2", 2)));
+        list.removeAll(Arrays.asList(list.get(0), list.get(2)));
         assertEquals(list.size(), 1);
         compare(list, new SomeObject[] { new SomeObject("Text1", 1) });
     }
 
+    public void testRemoveAllFollowsHasher() {
+        assertFalse(list.removeAll(Arrays.asList(new SomeObject("Text0", 0))));
+        assertEquals(list.size(), 3);
+
+        final JsArrayList<SomeObject> equalityList = new JsArrayList<>(Hashers.<SomeObject>equality());
+        equalityList.addAll(list);
+        equalityList.add(null);
+        equalityList.add(new SomeObject("Text0", 0));
+        assertTrue(equalityList.removeAll(Arrays.asList(new SomeObject("Text0", 0))));
+        assertEquals(equalityList.size(), 3);
+        assertTrue(equalityList.removeAll(Collections.singletonList(null)));
+        compare(equalityList, new SomeObject[] { new SomeObject("Text1", 1), new SomeObject("Text2", 2) });
+    }
+
     public void testRetainAll() {
         list.retainAll(Arrays.asList(new SomeObject("Text0", 0), new SomeObject("Text2", 2)));
         assertEquals(list.size(), 2);
         compare(list, new SomeObject[] { new SomeObject("Text0", 0), new SomeObject("Text2", 2) });
     }
 
+    public void testIdentityLookup() {
+        final SomeObject first = list.get(0);
+        assertEquals(list.indexOf(first), 0);
+        assertEquals(list.indexOf(new SomeObject("Text0", 0)), -1);
+        assertFalse(list.remove(new SomeObject("Text0", 0)));
+        assertEquals(list.size(), 3);
+    }
+
+    public void testEqualityLookup() {
+        final JsArrayList<SomeObject> equalityList = new JsArrayList<>(Hashers.<SomeObject>equality());
+        equalityList.addAll(list);
+        equalityList.add(new SomeObject("Text1", 1));
+        assertTrue(equalityList.contains(new SomeObject("Text1", 1)));
+        assertEquals(equalityList.indexOf(new SomeObject("Text1", 1)), 1);
+        assertEquals(equalityList.lastIndexOf(new SomeObject("Text1", 1)), 3);
+        assertTrue(equalityList.containsAll(Arrays.asList(new SomeObject("Text0", 0), new SomeObject("Text2", 2))));
+        assertFalse(equalityList.remove(new SomeObject("Text9", 9)));
+        assertTrue(equalityList.remove(new SomeObject("Text2", 2)));
+        compare(equalityList, new SomeObject[] { new SomeObject("Text0", 0),
+                new SomeObject("Text1", 1), new SomeObject("Text1", 1) });
+    }
+
+    public void testIndexedLookup() {
+        final JsArrayList<SomeObject> indexed = new JsArrayList<>(Hashers.<SomeObject>equality());
+        indexed.setIndexed(true);
+        for (int i = 0; i < 100; i++) {
+            indexed.add(new SomeObject("Text" + i, i));
+        }
+        assertEquals(indexed.indexOf(new SomeObject("Text42", 42)), 42);
+
+        // Appends and replacements keep the index up to date
+        indexed.add(new SomeObject("Text42", 42));
+        indexed.set(0, new SomeObject("Text99", 99));
+        assertEquals(indexed.lastIndexOf(new SomeObject("Text42", 42)), 100);
+        assertEquals(indexed.indexOf(new SomeObject("Text99", 99)), 0);
+        assertFalse(indexed.contains(new SomeObject("Text0", 0)));
+
+        // Insertions shift positions
+        indexed.add(0, new SomeObject("New", -1));
+        assertEquals(indexed.indexOf(new SomeObject("Text42", 42)), 43);
+        assertTrue(indexed.remove(new SomeObject("New", -1)));
+        assertEquals(indexed.indexOf(new SomeObject("Text42", 42)), 42);
+
+        indexed.clear();
+        assertFalse(indexed.contains(new SomeObject("Text42", 42)));
+    }
+
     private void compare(List<SomeObject> lst, SomeObject[] strs) {
         Object[] array = lst.toArray();
         assertTrue("Arrays not the same size", array.length == strs.length);
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsArrayPipelineTest extends GWTTestCase {
+
+    private static final Predicate<Integer> EVEN = new Predicate<Integer>() {
+        @Override
+        public boolean apply(Integer value) {
+            return value % 2 == 0;
+        }
+    };
+
+    private static final Function<Integer, Integer> SQUARE = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer value) {
+            return value * value;
+        }
+    };
+
+    private static final Reducer<Integer, Integer> SUM = new Reducer<Integer, Integer>() {
+        @Override
+        public Integer reduce(Integer accumulator, Integer value) {
+            return accumulator + value;
+        }
+    };
+
+    private JsArray<Integer> values;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        values = JsArray.create();
+        for (int i = 0; i < 10; i++) {
+            values.push(i);
+        }
+    }
+
+    public void testFusedOperations() {
+        final JsArrayPipeline<Integer> pipeline = JsArrayPipeline.of(values).filter(EVEN).map(SQUARE);
+        assertEquals(pipeline.toJsArray().join(), "0,4,16,36,64");
+        assertEquals(pipeline.reduce(0, SUM).intValue(), 120);
+        assertEquals(pipeline.count(), 5);
+        assertEquals(JsArrayPipeline.of(values).map(SQUARE).filter(EVEN).count(), 5);
+    }
+
+    public void testIncrementalReduce() {
+        final Recorder<Integer> recorder = new Recorder<>();
+        final IncrementalTask<Object, Integer> task = JsArrayPipeline.of(values).filter(EVEN)
+                .reduceIncrementally(0, SUM, recorder);
+        while (task.execute()) {
+            assertTrue(task.getProcessed() < values.length());
+        }
+        assertTrue(task.isDone());
+        assertEquals(task.getProcessed(), values.length());
+        assertEquals(recorder.result.intValue(), 20);
+        assertFalse(task.execute());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testCancel() {
+        final Recorder<JsArray<Integer>> recorder = new Recorder<>();
+        final IncrementalTask<Object, JsArray<Integer>>[] task = new IncrementalTask[1];
+        task[0] = JsArrayPipeline.of(values).map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer value) {
+                if (value == 3) task[0].cancel();
+                return value;
+            }
+        }).toJsArrayIncrementally(recorder);
+
+        assertFalse(task[0].execute());
+        assertTrue(task[0].isCancelled());
+        assertFalse(task[0].isDone());
+        assertEquals(task[0].getProcessed(), 4);
+        assertTrue(recorder.cancelled);
+        assertNull(recorder.result);
+    }
+
+    private static class Recorder<R> implements IncrementalCallback<R> {
+        R result;
+        boolean cancelled;
+
+        @Override
+        public void onProgress(int processed, int total) {
+        }
+
+        @Override
+        public void onComplete(R result) {
+            this.result = result;
+        }
+
+        @Override
+        public void onCancel() {
+            cancelled = true;
+        }
+    }
+}
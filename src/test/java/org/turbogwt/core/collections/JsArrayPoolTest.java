@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsArrayPoolTest extends GWTTestCase {
+
+    private JsArrayPool pool;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        pool = new JsArrayPool(2);
+    }
+
+    public void testReuse() {
+        final JsArray<String> array = pool.acquireArray();
+        array.push("a");
+        pool.release(array);
+        assertEquals(pool.getRetained(), 1);
+
+        final JsArray<String> reused = pool.acquireArray();
+        assertSame(reused, array);
+        assertEquals(reused.length(), 0);
+        pool.release(reused);
+
+        final JsMap<String> map = pool.acquireMap();
+        map.put("k", "v");
+        pool.release(map);
+        final JsMap<String> reusedMap = pool.acquireMap();
+        assertSame(reusedMap, map);
+        assertEquals(reusedMap.size(), 0);
+        assertFalse(reusedMap.contains("k"));
+        pool.release(reusedMap);
+        assertEquals(pool.getOutstanding(), 0);
+    }
+
+    public void testSizeClasses() {
+        final JsArray<Integer> small = pool.acquireArray();
+        final JsArray<Integer> large = pool.acquireArray();
+        for (int i = 0; i < 500; i++) {
+            large.push(i);
+        }
+        pool.release(small);
+        pool.release(large);
+
+        assertSame(pool.acquireArray(300), large);
+        assertSame(pool.acquireArray(), small);
+    }
+
+    public void testRetentionLimit() {
+        final JsArray<?>[] arrays = new JsArray<?>[4];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = pool.acquireArray();
+        }
+        for (JsArray<?> array : arrays) {
+            pool.release(array);
+        }
+        assertEquals(pool.getRetained(), 2);
+    }
+
+    public void testWithArray() {
+        final int length = pool.withArray(new JsArrayPool.ArrayTask<String, Integer>() {
+            @Override
+            public Integer run(JsArray<String> scratch) {
+                scratch.push("a");
+                scratch.push("b");
+                return scratch.length();
+            }
+        });
+        assertEquals(length, 2);
+        assertEquals(pool.getOutstanding(), 0);
+
+        try {
+            pool.withMap(new JsArrayPool.MapTask<String, Void>() {
+                @Override
+                public Void run(JsMap<String> scratch) {
+                    throw new IllegalArgumentException();
+                }
+            });
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(pool.getOutstanding(), 0);
+        }
+    }
+
+    public void testWithArrayReusesGrownArray() {
+        final FillTask fill = new FillTask();
+
+        final JsArray<Integer> first = pool.withArray(fill);
+        final JsArray<Integer> second = pool.withArray(fill);
+        assertSame(second, first);
+        assertSame(pool.withArray(100, fill), first);
+        assertEquals(pool.getRetained(), 1);
+    }
+
+    public void testLeakDetection() {
+        final JsArray<String> array = pool.acquireArray();
+        try {
+            pool.checkLeaks();
+            fail();
+        } catch (IllegalStateException e) {
+            assertNotNull(e.getCause());
+        }
+        pool.release(array);
+        pool.checkLeaks();
+
+        try {
+            pool.release(array);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private static class FillTask implements JsArrayPool.ArrayTask<Integer, JsArray<Integer>> {
+
+        @Override
+        public JsArray<Integer> run(JsArray<Integer> scratch) {
+            for (int i = 0; i < 100; i++) {
+                scratch.push(i);
+            }
+            return scratch;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Iterator;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsArraySetTest extends GWTTestCase {
+
+    private JsArraySet<String> set;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        // Low threshold in order to exercise the hash index
+        set = new JsArraySet<>(4);
+        for (int i = 0; i < 3; i++) {
+            set.add("" + i);
+        }
+    }
+
+    public void testDeduplicateOnConstruction() {
+        final JsArraySet<String> strings = new JsArraySet<>(new String[] { "a", "b", "a", "c", "b" });
+        assertEquals(strings.size(), 3);
+        compare(strings, new String[] { "a", "b", "c" });
+    }
+
+    public void testPromotion() {
+        for (int i = 3; i < 10; i++) {
+            assertTrue(set.add("" + i));
+        }
+        assertEquals(set.size(), 10);
+        assertFalse(set.add("5"));
+        assertTrue(set.contains("9"));
+        assertFalse(set.contains("10"));
+
+        assertTrue(set.remove("5"));
+        assertFalse(set.remove("5"));
+        assertFalse(set.contains("5"));
+        assertEquals(set.size(), 9);
+        compare(set, new String[] { "0", "1", "2", "3", "4", "6", "7", "8", "9" });
+    }
+
+    public void testIteratorRemove() {
+        for (int i = 3; i < 6; i++) {
+            set.add("" + i);
+        }
+        final Iterator<String> it = set.iterator();
+        while (it.hasNext()) {
+            if (Integer.parseInt(it.next()) % 2 == 0) it.remove();
+        }
+        compare(set, new String[] { "1", "3", "5" });
+        assertFalse(set.contains("4"));
+    }
+
+    public void testClear() {
+        set.clear();
+        assertEquals(set.size(), 0);
+        assertFalse(set.contains("0"));
+        assertTrue(set.add("0"));
+    }
+
+    private void compare(JsArraySet<String> set, String[] expected) {
+        assertEquals(set.size(), expected.length);
+        int i = 0;
+        for (String s : set) {
+            assertEquals(s, expected[i++]);
+        }
+    }
+}
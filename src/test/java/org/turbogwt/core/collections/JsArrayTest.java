@@ -15,8 +15,13 @@
  */
 package org.turbogwt.core.collections;
 
+import com.google.gwt.core.client.JsArrayInteger;
+import com.google.gwt.core.client.JsArrayNumber;
+import com.google.gwt.core.client.JsArrayString;
 import com.google.gwt.junit.client.GWTTestCase;
 
+import java.util.Collections;
+
 /**
  * @author Danilo Reinert
  */
@@ -61,6 +66,85 @@ public class JsArrayTest extends GWTTestCase {
         compare(list, new String[] { "0", "2" });
     }
 
+    public void testBinarySearch() {
+        final JsArray<String> sorted = JsArray.fromArray("a", "c", "c", "e");
+        assertEquals(sorted.binarySearch("c", null), 1);
+        assertEquals(sorted.binarySearch("d", null), -4);
+        assertEquals(sorted.lowerBound("c", null), 1);
+        assertEquals(sorted.upperBound("c", null), 3);
+
+        final JsArray<String> reversed = JsArray.fromArray("e", "c", "a");
+        assertEquals(reversed.binarySearch("a", Collections.<String>reverseOrder()), 2);
+
+        final JsArrayInteger ints = JsArrays.createInt32(4);
+        for (int i = 0; i < 4; i++) {
+            ints.set(i, i * 10);
+        }
+        assertEquals(JsArrays.binarySearch(ints, 20), 2);
+        assertEquals(JsArrays.binarySearch(ints, 25), -4);
+        assertEquals(JsArrays.upperBound(ints, 30), 4);
+    }
+
+    public void testInsertSortedAndDedupe() {
+        final JsArray<String> sorted = JsArray.create();
+        for (String s : new String[] { "d", "b", "a", "b", "d", "c" }) {
+            sorted.insertSorted(s, null);
+        }
+        compare(sorted, new String[] { "a", "b", "b", "c", "d", "d" });
+        assertEquals(sorted.dedupeSorted(null), 4);
+        compare(sorted, new String[] { "a", "b", "c", "d" });
+
+        final JsArrayNumber numbers = JsArrays.fromArray(1.0, 3.0);
+        assertEquals(JsArrays.insertSorted(numbers, 2.0), 1);
+        assertEquals(JsArrays.insertSorted(numbers, 3.0), 3);
+        assertEquals(JsArrays.dedupeSorted(numbers), 3);
+        assertEquals(numbers.get(2), 3.0);
+    }
+
+    public void testRange() {
+        final JsArray<String> sorted = JsArray.fromArray("a", "b", "c", "d");
+        compare(sorted.range("b", "d", null), new String[] { "b", "c" });
+        assertEquals(sorted.range("x", "z", null).length(), 0);
+
+        final JsArrayString strings = JsArrays.fromArray("a", "b", "c", "d");
+        assertEquals(JsArrays.range(strings, "b", "c").join(), "b");
+        assertEquals(JsArrays.range(strings, "c", "a").length(), 0);
+    }
+
+    public void testMergeSorted() {
+        final JsArray<JsArray<String>> arrays = JsArray.create();
+        arrays.push(JsArray.fromArray("a", "d"));
+        arrays.push(JsArray.fromArray("b", "e"));
+        arrays.push(JsArray.<String>create());
+        arrays.push(JsArray.fromArray("c"));
+        compare(JsArray.mergeSorted(arrays, null), new String[] { "a", "b", "c", "d", "e" });
+
+        final com.google.gwt.core.client.JsArray<JsArrayNumber> numbers =
+                com.google.gwt.core.client.JsArray.createArray().cast();
+        numbers.push(JsArrays.fromArray(1.0, 4.0));
+        numbers.push(JsArrays.fromArray(2.0, 3.0));
+        numbers.push(JsArrays.fromArray(0.0));
+        assertEquals(JsArrays.mergeSortedNumbers(numbers).join(), "0,1,2,3,4");
+    }
+
+    public void testGetAndSetRange() {
+        final String[] dest = new String[4];
+        list.getRange(1, 3, dest, 1);
+        assertNull(dest[0]);
+        assertEquals(dest[1], "1");
+        assertEquals(dest[2], "2");
+
+        list.setRange(2, new String[] { "x", "y", "z" }, 1, 2);
+        compare(list, new String[] { "0", "1", "y", "z" });
+
+        try {
+            list.getRange(2, 5, dest, 0);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
     private void compare(JsArray<String> lst, String[] strs) {
         Object[] array = lst.toArray();
         assertTrue("Arrays not the same length", array.length == strs.length);
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JsArrayBoolean;
+import com.google.gwt.junit.client.GWTTestCase;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsBitSetTest extends GWTTestCase {
+
+    private JsBitSet bits;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        bits = new JsBitSet();
+        bits.set(1);
+        bits.set(31);
+        bits.set(32);
+        bits.set(100);
+    }
+
+    public void testSingleBits() {
+        assertTrue(bits.get(31));
+        assertTrue(bits.get(32));
+        assertFalse(bits.get(33));
+        assertFalse(bits.get(5000));
+        assertEquals(bits.cardinality(), 4);
+        assertEquals(bits.length(), 101);
+
+        bits.clear(31);
+        bits.flip(2);
+        bits.set(3, false);
+        assertEquals(bits.toString(), "{1, 2, 32, 100}");
+    }
+
+    public void testRanges() {
+        final JsBitSet range = new JsBitSet();
+        range.set(30, 70);
+        assertEquals(range.cardinality(), 40);
+        assertEquals(range.nextSetBit(0), 30);
+        assertEquals(range.nextClearBit(30), 70);
+        range.clear(35, 65);
+        assertEquals(range.toString(), "{30, 31, 32, 33, 34, 65, 66, 67, 68, 69}");
+        range.clear(0, 1000);
+        assertTrue(range.isEmpty());
+
+        range.set(0, 64);
+        assertEquals(range.cardinality(), 64);
+        assertEquals(range.nextClearBit(0), 64);
+    }
+
+    public void testIteration() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            sb.append(i).append(' ');
+        }
+        assertEquals(sb.toString(), "1 31 32 100 ");
+        assertEquals(bits.nextSetBit(101), -1);
+        assertEquals(bits.nextClearBit(31), 33);
+    }
+
+    public void testLogicalOperations() {
+        final JsBitSet other = new JsBitSet();
+        other.set(1);
+        other.set(2);
+        other.set(200);
+
+        final JsBitSet and = bits.copy();
+        and.and(other);
+        assertEquals(and.toString(), "{1}");
+
+        final JsBitSet or = bits.copy();
+        or.or(other);
+        assertEquals(or.toString(), "{1, 2, 31, 32, 100, 200}");
+
+        final JsBitSet xor = bits.copy();
+        xor.xor(other);
+        assertEquals(xor.toString(), "{2, 31, 32, 100, 200}");
+
+        final JsBitSet andNot = bits.copy();
+        andNot.andNot(other);
+        assertEquals(andNot.toString(), "{31, 32, 100}");
+
+        assertTrue(bits.intersects(other));
+        assertEquals(bits.copy(), bits);
+        assertEquals(bits.copy().hashCode(), bits.hashCode());
+    }
+
+    public void testJsArrayBooleanConversion() {
+        final JsArrayBoolean flags = bits.toJsArrayBoolean(40);
+        assertEquals(flags.length(), 40);
+        assertTrue(flags.get(31));
+        assertFalse(flags.get(30));
+
+        final JsBitSet back = JsBitSet.fromJsArrayBoolean(bits.toJsArrayBoolean());
+        assertEquals(back, bits);
+    }
+}
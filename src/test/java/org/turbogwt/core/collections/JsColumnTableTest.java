@@ -0,0 +1,190 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import org.turbogwt.core.collections.JsColumnTable.ColumnType;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsColumnTableTest extends GWTTestCase {
+
+    private JsColumnTable table;
+    private int name;
+    private int price;
+    private int stock;
+    private int active;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        // Small capacity in order to exercise growth
+        table = new JsColumnTable(2);
+        name = table.addColumn("name", ColumnType.STRING);
+        price = table.addColumn("price", ColumnType.DOUBLE);
+        stock = table.addColumn("stock", ColumnType.INT);
+        active = table.addColumn("active", ColumnType.BOOLEAN);
+        table.appendAll(products());
+    }
+
+    public void testColumns() {
+        assertEquals(table.columnCount(), 4);
+        assertEquals(table.columnIndex("price"), price);
+        assertEquals(table.columnIndex("weight"), -1);
+        assertEquals(table.columnType(stock), ColumnType.INT);
+        try {
+            table.addColumn("name", ColumnType.OBJECT);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testCellAccess() {
+        assertEquals(table.size(), 3);
+        assertEquals(table.getString(1, name), "bolt");
+        assertEquals(table.getDouble(1, price), 0.25);
+        assertEquals(table.getInt(2, stock), 0);
+        assertFalse(table.getBoolean(1, active));
+
+        final int row = table.addRow();
+        assertEquals(row, 3);
+        assertNull(table.getString(row, name));
+        assertEquals(table.getDouble(row, price), 0.0);
+        table.setString(row, name, "washer");
+        table.setDouble(row, price, 0.05);
+        assertEquals(table.getString(row, name), "washer");
+        assertEquals(table.getDouble(row, price), 0.05);
+
+        try {
+            table.getDouble(4, price);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    public void testSetterTypes() {
+        table.setInt(0, price, 3);
+        assertEquals(table.getDouble(0, price), 3.0);
+        table.setObject(0, name, "hammer");
+        assertEquals(table.getString(0, name), "hammer");
+        try {
+            table.setString(0, price, "free");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            table.setObject(0, stock, "many");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            table.setDouble(0, active, 1.0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            table.setBoolean(0, name, true);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(table.getDouble(0, price), 3.0);
+        assertEquals(table.getInt(0, stock), 10);
+    }
+
+    public void testMissingValues() {
+        table.appendAll(missingPrice());
+        assertEquals(table.size(), 4);
+        assertTrue(Double.isNaN(table.getDouble(3, price)));
+        assertEquals(table.getInt(3, stock), 5);
+        assertEquals(table.getString(3, name), "nut");
+    }
+
+    public void testCursor() {
+        final JsColumnTable.Cursor cursor = table.cursor();
+        int count = 0;
+        while (cursor.next()) {
+            if (cursor.getBoolean(active)) count += cursor.getInt(stock);
+        }
+        assertEquals(count, 10);
+        assertFalse(cursor.next());
+
+        cursor.moveTo(0).setInt(stock, 7);
+        assertEquals(table.getInt(0, stock), 7);
+    }
+
+    public void testColumnScans() {
+        assertEquals(table.sum(price), 13.25);
+        assertEquals(table.min(price), 0.25);
+        assertEquals(table.max(price), 9.0);
+        assertEquals(table.numberColumn(stock).join(), "10,200,0");
+        assertEquals(table.sortedRows(price, true).join(), "1,0,2");
+        assertEquals(table.sortedRows(name, false).join(), "2,1,0");
+        try {
+            table.sum(name);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testToOverlays() {
+        final JsArray<JavaScriptObject> rows = table.toOverlays();
+        assertEquals(rows.length(), 3);
+        assertEquals(getString(rows.get(2), "name"), "drill");
+        assertEquals(getDouble(rows.get(2), "price"), 9.0);
+        assertTrue(getBoolean(rows.get(0), "active"));
+
+        table.clear();
+        assertEquals(table.size(), 0);
+        assertEquals(table.toOverlays().length(), 0);
+    }
+
+    private static native JsArray<JavaScriptObject> missingPrice() /*-{
+        return [{name: "nut", stock: 5, active: false}];
+    }-*/;
+
+    private static native JsArray<JavaScriptObject> products() /*-{
+        return [
+            {name: "anchor", price: 4, stock: 10, active: true},
+            {name: "bolt", price: 0.25, stock: 200, active: false},
+            {name: "drill", price: 9, active: true}
+        ];
+    }-*/;
+
+    private static native String getString(JavaScriptObject jso, String property) /*-{
+        return jso[property];
+    }-*/;
+
+    private static native double getDouble(JavaScriptObject jso, String property) /*-{
+        return jso[property];
+    }-*/;
+
+    private static native boolean getBoolean(JavaScriptObject jso, String property) /*-{
+        return jso[property];
+    }-*/;
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsCopyOnWriteArrayListTest extends GWTTestCase {
+
+    private JsCopyOnWriteArrayList<String> list;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        list = new JsCopyOnWriteArrayList<>(Arrays.asList("0", "1", "2"));
+    }
+
+    public void testModificationDuringIteration() {
+        int count = 0;
+        for (String s : list) {
+            list.remove(s);
+            list.add(s + s);
+            count++;
+        }
+        assertEquals(count, 3);
+        assertEquals(list.size(), 3);
+        assertEquals(list.get(0), "00");
+        assertEquals(list.get(2), "22");
+    }
+
+    public void testSnapshotIsStable() {
+        final JsArray<String> snapshot = list.snapshot();
+        list.add("3");
+        list.set(0, "zero");
+        assertEquals(snapshot.length(), 3);
+        assertEquals(snapshot.get(0), "0");
+
+        // Writes after the first copy are coalesced into it
+        final JsArray<String> copy = list.snapshot();
+        assertNotSame(snapshot, copy);
+        assertEquals(copy.length(), 4);
+        assertEquals(copy.get(0), "zero");
+    }
+
+    public void testRemoveAbsent() {
+        assertFalse(list.remove("5"));
+        assertEquals(list.size(), 3);
+        assertEquals(list.get(2), "2");
+    }
+
+    public void testBulkOperations() {
+        final Iterator<String> it = list.iterator();
+        assertTrue(list.retainAll(Arrays.asList("0", "2")));
+        assertTrue(list.addAll(1, Arrays.asList("a", "b")));
+        assertEquals(list, Arrays.asList("0", "a", "b", "2"));
+
+        list.subList(1, 3).clear();
+        assertEquals(list, Arrays.asList("0", "2"));
+
+        int count = 0;
+        while (it.hasNext()) {
+            it.next();
+            count++;
+        }
+        assertEquals(count, 3);
+    }
+
+    public void testIteratorIsReadOnly() {
+        final Iterator<String> it = list.iterator();
+        it.next();
+        try {
+            it.remove();
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+}
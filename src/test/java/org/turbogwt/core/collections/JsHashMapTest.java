@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsHashMapTest extends GWTTestCase {
+
+    private JsHashMap<Cell, String> map;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        map = new JsHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            map.put(new Cell(i, i), "" + i);
+        }
+    }
+
+    public void testInsert() {
+        assertEquals(map.size(), 3);
+        assertNull(map.put(new Cell(4, 2), "4"));
+        assertEquals(map.size(), 4);
+        assertEquals(map.get(new Cell(4, 2)), "4");
+        assertNull(map.get(new Cell(2, 4)));
+    }
+
+    public void testReplace() {
+        assertEquals(map.put(new Cell(1, 1), "20"), "1");
+        assertEquals(map.size(), 3);
+        assertEquals(map.get(new Cell(1, 1)), "20");
+    }
+
+    public void testRemove() {
+        assertEquals(map.remove(new Cell(0, 0)), "0");
+        assertNull(map.remove(new Cell(5, 5)));
+        assertEquals(map.size(), 2);
+        assertFalse(map.containsKey(new Cell(0, 0)));
+        assertEquals(map.get(new Cell(1, 1)), "1");
+        assertEquals(map.get(new Cell(2, 2)), "2");
+    }
+
+    public void testContains() {
+        assertTrue(map.containsKey(new Cell(2, 2)));
+        assertFalse(map.containsKey(new Cell(2, 1)));
+        assertTrue(map.containsValue("2"));
+        assertFalse(map.containsValue("3"));
+    }
+
+    public void testPositionalIteration() {
+        int sum = 0;
+        for (int i = 0; i < map.size(); i++) {
+            assertEquals(map.keyAt(i).row, Integer.parseInt(map.valueAt(i)));
+            sum += map.keyAt(i).column;
+        }
+        assertEquals(sum, 3);
+    }
+
+    public void testIteratorRemove() {
+        final Iterator<Map.Entry<Cell, String>> it = map.entrySet().iterator();
+        int count = 0;
+        while (it.hasNext()) {
+            it.next();
+            it.remove();
+            count++;
+        }
+        assertEquals(count, 3);
+        assertTrue(map.isEmpty());
+    }
+
+    public void testNullKey() {
+        try {
+            map.put(null, "null");
+            fail();
+        } catch (NullPointerException e) {
+            // expected
+        }
+    }
+
+    private static class Cell {
+        final int row;
+        final int column;
+
+        Cell(int row, int column) {
+            this.row = row;
+            this.column = column;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Cell)) return false;
+            final Cell cell = (Cell) o;
+            return row == cell.row && column == cell.column;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * row + column;
+        }
+    }
+}
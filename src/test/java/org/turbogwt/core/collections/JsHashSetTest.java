@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Iterator;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsHashSetTest extends GWTTestCase {
+
+    private JsHashSet<Integer> set;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        set = new JsHashSet<>();
+        for (int i = 0; i < 3; i++) {
+            set.add(i);
+        }
+    }
+
+    public void testAdd() {
+        assertEquals(set.size(), 3);
+        assertFalse(set.add(1));
+        assertEquals(set.size(), 3);
+        assertTrue(set.add(3));
+        assertEquals(set.size(), 4);
+    }
+
+    public void testRemove() {
+        assertFalse(set.remove(5));
+        assertEquals(set.size(), 3);
+        assertTrue(set.remove(1));
+        assertEquals(set.size(), 2);
+        assertFalse(set.contains(1));
+    }
+
+    public void testClear() {
+        set.clear();
+        assertEquals(set.size(), 0);
+        assertFalse(set.iterator().hasNext());
+    }
+
+    public void testIterator() {
+        int sum = 0;
+        int count = 0;
+        for (Integer i : set) {
+            sum += i;
+            count++;
+        }
+        assertEquals(count, 3);
+        assertEquals(sum, 3);
+
+        final Iterator<Integer> it = set.iterator();
+        while (it.hasNext()) {
+            if (it.next() == 1) it.remove();
+        }
+        assertEquals(set.size(), 2);
+        assertFalse(set.contains(1));
+    }
+
+    public void testPropertyHasher() {
+        final JsHashSet<JavaScriptObject> overlays = new JsHashSet<>(Hashers.<JavaScriptObject>property("id"));
+        assertTrue(overlays.add(create(1, "one")));
+        assertTrue(overlays.add(create(2, "two")));
+        assertFalse(overlays.add(create(1, "uno")));
+        assertEquals(overlays.size(), 2);
+        assertTrue(overlays.contains(create(2, "dos")));
+        assertNotNull(overlays.find(create(1, "")));
+    }
+
+    private static native JavaScriptObject create(int id, String name) /*-{
+        return {id: id, name: name};
+    }-*/;
+}
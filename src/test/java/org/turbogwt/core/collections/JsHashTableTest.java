@@ -87,4 +87,31 @@ public class JsHashTableTest extends GWTTestCase {
         assertNull(table.get(2));
         assertFalse(table.remove(3));
     }
+
+    public void testEqualButDistinctValues() {
+        final JsHashTable<String> strings = JsHashTable.create();
+        strings.put(new String("turbo"));
+        assertTrue(strings.contains(new String("turbo")));
+        assertTrue(strings.remove(new String("turbo")));
+        assertFalse(strings.contains("turbo"));
+    }
+
+    public void testIdentityHasher() {
+        final Hasher<String> identity = Hashers.identity();
+        final JsHashTable<String> strings = JsHashTable.create();
+        final String turbo = new String("turbo");
+        strings.put(turbo, identity);
+        assertTrue(strings.contains(turbo, identity));
+        assertSame(turbo, strings.find(turbo, identity));
+    }
+
+    public void testCaseInsensitiveHasher() {
+        final Hasher<String> hasher = Hashers.caseInsensitive();
+        final JsHashTable<String> strings = JsHashTable.create();
+        strings.put("Turbo", hasher);
+        assertTrue(strings.contains("TURBO", hasher));
+        assertEquals("Turbo", strings.find("turbo", hasher));
+        assertTrue(strings.remove("tUrBo", hasher));
+        assertFalse(strings.contains("Turbo", hasher));
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsIdentityMapTest extends GWTTestCase {
+
+    private JsIdentityMap<Object, String> map;
+    private Key a;
+    private Key b;
+    private JavaScriptObject overlay;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        map = new JsIdentityMap<>();
+        a = new Key("same");
+        b = new Key("same");
+        overlay = JavaScriptObject.createObject();
+        map.put(a, "a");
+        map.put(b, "b");
+        map.put(overlay, "overlay");
+    }
+
+    public void testIdentityLookup() {
+        assertEquals(map.size(), 3);
+        assertEquals(map.get(a), "a");
+        assertEquals(map.get(b), "b");
+        assertEquals(map.get(overlay), "overlay");
+        assertNull(map.get(new Key("same")));
+        assertFalse(map.containsKey(JavaScriptObject.createObject()));
+
+        assertEquals(map.put(a, "a2"), "a");
+        assertEquals(map.size(), 3);
+        assertEquals(map.remove(b), "b");
+        assertNull(map.remove(b));
+        assertFalse(map.containsKey(b));
+        assertEquals(map.size(), 2);
+    }
+
+    public void testIteration() {
+        int count = 0;
+        final Iterator<Map.Entry<Object, String>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<Object, String> entry = it.next();
+            assertEquals(map.get(entry.getKey()), entry.getValue());
+            if (entry.getKey() == overlay) it.remove();
+            count++;
+        }
+        assertEquals(count, 3);
+        assertEquals(map.size(), 2);
+        assertFalse(map.containsKey(overlay));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    public void testIdentitySet() {
+        final JsIdentitySet<Key> set = new JsIdentitySet<>();
+        assertTrue(set.add(a));
+        assertTrue(set.add(b));
+        assertFalse(set.add(a));
+        assertEquals(set.size(), 2);
+        assertFalse(set.contains(new Key("same")));
+        assertTrue(set.remove(a));
+        assertEquals(set.iterator().next(), b);
+    }
+
+    public void testWeakIdentityMap() {
+        final JsWeakIdentityMap<Object, String> weak = new JsWeakIdentityMap<>();
+        assertNull(weak.put(overlay, "x"));
+        assertEquals(weak.put(overlay, "y"), "x");
+        weak.put(a, "a");
+        assertEquals(weak.get(overlay), "y");
+        assertEquals(weak.get(a), "a");
+        assertNull(weak.get(b));
+        assertTrue(weak.containsKey(a));
+        assertEquals(weak.remove(a), "a");
+        assertFalse(weak.containsKey(a));
+
+        try {
+            weak.put("string", "value");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static class Key {
+
+        private final String name;
+
+        Key(String name) {
+            this.name = name;
+        }
+
+        // Equal keys must still be told apart by the identity collections
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && name.equals(((Key) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+}
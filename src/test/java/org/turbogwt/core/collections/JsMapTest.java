@@ -92,4 +92,23 @@ public class JsMapTest extends GWTTestCase {
         assertEquals(map.keyOf(2), "2");
         assertNull(map.keyOf(3));
     }
+
+    public void testPutAllAndGetAll() {
+        final JsArrayString keys = JsArrays.fromArray("2", "3", "4");
+        map.putAll(keys, JsArray.fromArray(20, 30, 40));
+        assertEquals(map.size(), 5);
+        assertEquals(map.keys().join(), "0,1,2,3,4");
+
+        final JsArray<Integer> values = map.getAll(JsArrays.fromArray("0", "3", "toString"));
+        assertEquals(values.get(0), new Integer(0));
+        assertEquals(values.get(1), new Integer(30));
+        assertNull(values.get(2));
+
+        try {
+            map.putAll(JsArrays.fromArray("5", "6"), JsArray.fromArray(5, null));
+            fail();
+        } catch (NullPointerException e) {
+            assertFalse(map.contains("5"));
+        }
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Iterator;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsPersistentMapTest extends GWTTestCase {
+
+    private static final int SIZE = 1000;
+
+    private JsPersistentMap<String, Integer> map;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        final JsPersistentMap.Transient<String, Integer> t = JsPersistentMap.<String, Integer>empty().asTransient();
+        for (int i = 0; i < SIZE; i++) {
+            t.put("" + i, i);
+        }
+        map = t.persistent();
+    }
+
+    public void testGet() {
+        assertEquals(map.size(), SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(map.get("" + i).intValue(), i);
+        }
+        assertNull(map.get("-1"));
+    }
+
+    public void testPutSharesStructure() {
+        final JsPersistentMap<String, Integer> updated = map.put("10", -10).put("new", 0);
+        assertEquals(updated.size(), SIZE + 1);
+        assertEquals(updated.get("10").intValue(), -10);
+        assertEquals(map.get("10").intValue(), 10);
+        assertNull(map.get("new"));
+        assertSame(updated, updated.put("new", updated.get("new")));
+    }
+
+    public void testRemove() {
+        JsPersistentMap<String, Integer> removed = map;
+        for (int i = 0; i < SIZE; i += 2) {
+            removed = removed.remove("" + i);
+        }
+        assertEquals(removed.size(), SIZE / 2);
+        assertSame(removed, removed.remove("0"));
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(removed.containsKey("" + i), i % 2 == 1);
+            assertTrue(map.containsKey("" + i));
+        }
+    }
+
+    public void testCollisions() {
+        final JsPersistentMap<Collider, String> colliders = JsPersistentMap.<Collider, String>empty()
+                .put(new Collider(1), "1").put(new Collider(2), "2").put(new Collider(3), "3");
+        assertEquals(colliders.size(), 3);
+        assertEquals(colliders.get(new Collider(2)), "2");
+
+        final JsPersistentMap<Collider, String> removed = colliders.remove(new Collider(2));
+        assertEquals(removed.size(), 2);
+        assertNull(removed.get(new Collider(2)));
+        assertEquals(removed.get(new Collider(3)), "3");
+    }
+
+    public void testIterators() {
+        final Iterator<String> keys = map.keyIterator();
+        final Iterator<Integer> values = map.valueIterator();
+        int count = 0;
+        while (keys.hasNext()) {
+            assertEquals(Integer.parseInt(keys.next()), values.next().intValue());
+            count++;
+        }
+        assertFalse(values.hasNext());
+        assertEquals(count, SIZE);
+    }
+
+    private static class Collider {
+        final int id;
+
+        Collider(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Collider && ((Collider) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsPersistentVectorTest extends GWTTestCase {
+
+    // Enough values to make the trie three levels deep
+    private static final int SIZE = 1100;
+
+    private JsPersistentVector<Integer> vector;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        vector = JsPersistentVector.empty();
+        for (int i = 0; i < SIZE; i++) {
+            vector = vector.push(i);
+        }
+    }
+
+    public void testPush() {
+        assertEquals(vector.size(), SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(vector.get(i).intValue(), i);
+        }
+    }
+
+    public void testSetSharesStructure() {
+        final JsPersistentVector<Integer> updated = vector.set(500, -1);
+        assertEquals(updated.get(500).intValue(), -1);
+        assertEquals(vector.get(500).intValue(), 500);
+        assertEquals(updated.get(1099).intValue(), 1099);
+        assertSame(updated, updated.set(500, updated.get(500)));
+    }
+
+    public void testPop() {
+        JsPersistentVector<Integer> popped = vector;
+        for (int i = SIZE - 1; i >= 0; i--) {
+            assertEquals(popped.get(i).intValue(), i);
+            popped = popped.pop();
+        }
+        assertTrue(popped.isEmpty());
+        assertEquals(vector.size(), SIZE);
+    }
+
+    public void testTransient() {
+        final JsPersistentVector.Transient<Integer> t = vector.asTransient();
+        for (int i = 0; i < SIZE; i++) {
+            t.set(i, i * 2);
+        }
+        t.push(-1);
+        final JsPersistentVector<Integer> doubled = t.persistent();
+
+        assertEquals(doubled.size(), SIZE + 1);
+        assertEquals(doubled.get(SIZE).intValue(), -1);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(doubled.get(i).intValue(), i * 2);
+            assertEquals(vector.get(i).intValue(), i);
+        }
+
+        try {
+            t.push(0);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    public void testIterator() {
+        int i = 0;
+        for (Integer value : vector) {
+            assertEquals(value.intValue(), i++);
+        }
+        assertEquals(i, SIZE);
+        assertEquals(vector.toJsArray().length(), SIZE);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsPriorityQueueTest extends GWTTestCase {
+
+    private static final int[] VALUES = { 5, 3, 9, 1, 7, 2, 8, 6, 4, 0 };
+
+    private JsPriorityQueue<Integer> queue;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        queue = new JsPriorityQueue<>();
+        for (int v : VALUES) {
+            queue.offer(v);
+        }
+    }
+
+    public void testPollOrder() {
+        for (int i = 0; i < VALUES.length; i++) {
+            assertEquals(queue.poll().intValue(), i);
+        }
+        assertNull(queue.poll());
+    }
+
+    public void testRemove() {
+        assertTrue(queue.remove(0));
+        assertTrue(queue.remove(5));
+        assertFalse(queue.remove(5));
+        assertFalse(queue.contains(5));
+        assertTrue(queue.contains(6));
+        assertEquals(queue.poll().intValue(), 1);
+    }
+
+    public void testUpdate() {
+        final Task a = new Task("a", 3);
+        final Task b = new Task("b", 2);
+        final Task c = new Task("c", 1);
+        final JsPriorityQueue<Task> tasks = new JsPriorityQueue<>(Task.BY_PRIORITY, Hashers.<Task>identity());
+        tasks.offer(a);
+        tasks.offer(b);
+        tasks.offer(c);
+
+        a.priority = 0;
+        assertTrue(tasks.update(a));
+        c.priority = 5;
+        assertTrue(tasks.update(c));
+        assertSame(tasks.poll(), a);
+        assertSame(tasks.poll(), b);
+        assertSame(tasks.poll(), c);
+    }
+
+    public void testHeapifyAndDrain() {
+        final JsPriorityQueue<Integer> q = JsPriorityQueue.fromJsArray(values(), null);
+        final JsArray<Integer> target = JsArray.create();
+        assertEquals(q.drainTo(target, 3), 3);
+        assertEquals(target.get(0).intValue(), 0);
+        assertEquals(target.get(2).intValue(), 2);
+        assertEquals(q.size(), VALUES.length - 3);
+    }
+
+    public void testTopK() {
+        final JsArray<Integer> values = values();
+        final JsArray<Integer> top = JsPriorityQueue.topK(values, 4, null);
+        assertEquals(top.length(), 4);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(top.get(i).intValue(), i);
+        }
+        assertEquals(values.length(), VALUES.length);
+    }
+
+    public void testIteratorRemove() {
+        final Iterator<Integer> it = queue.iterator();
+        int count = 0;
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) it.remove();
+            count++;
+        }
+        assertEquals(count, VALUES.length);
+        assertEquals(queue.size(), 5);
+        for (int i = 1; i < 10; i += 2) {
+            assertEquals(queue.poll().intValue(), i);
+        }
+    }
+
+    public void testNumberPriorities() {
+        final JsPriorityQueueNumber<String> q = new JsPriorityQueueNumber<>();
+        for (int i = 0; i < 40; i++) {
+            q.offer("" + i, 40 - i);
+        }
+        assertEquals(q.size(), 40);
+        assertEquals(q.peek(), "39");
+        assertEquals(q.peekPriority(), 1.0, 0);
+
+        assertTrue(q.setPriority("0", -1.5));
+        assertEquals(q.priorityOf("0"), -1.5, 0);
+        assertEquals(q.poll(), "0");
+        assertTrue(q.remove("39"));
+        assertEquals(q.poll(), "38");
+        assertTrue(Double.isNaN(q.priorityOf("39")));
+    }
+
+    private static JsArray<Integer> values() {
+        final JsArray<Integer> values = JsArray.create();
+        for (int v : VALUES) {
+            values.push(v);
+        }
+        return values;
+    }
+
+    private static class Task {
+        static final Comparator<Task> BY_PRIORITY = new Comparator<Task>() {
+            @Override
+            public int compare(Task t1, Task t2) {
+                return t1.priority - t2.priority;
+            }
+        };
+
+        final String name;
+        int priority;
+
+        Task(String name, int priority) {
+            this.name = name;
+            this.priority = priority;
+        }
+    }
+}
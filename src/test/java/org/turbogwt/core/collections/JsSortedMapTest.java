@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsSortedMapTest extends GWTTestCase {
+
+    private static final String[] NAMES = { "Fox", "Ant", "Dog", "Cat", "Bee", "Eel", "Gnu" };
+
+    private JsSortedMap<String, Integer> map;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        map = new JsSortedMap<>();
+        for (String name : NAMES) {
+            map.put(name, name.length());
+        }
+    }
+
+    public void testOrder() {
+        assertEquals(map.size(), 7);
+        assertEquals(map.firstKey(), "Ant");
+        assertEquals(map.lastKey(), "Gnu");
+        String previous = "";
+        for (String key : map.keySet()) {
+            assertTrue(previous.compareTo(key) < 0);
+            previous = key;
+        }
+    }
+
+    public void testPutAndRemove() {
+        assertEquals(map.put("Cat", 10).intValue(), 3);
+        assertEquals(map.size(), 7);
+        assertEquals(map.get("Cat").intValue(), 10);
+        assertEquals(map.remove("Cat").intValue(), 10);
+        assertNull(map.remove("Cat"));
+        assertEquals(map.size(), 6);
+        assertEquals(map.keyAt(2), "Dog");
+    }
+
+    public void testNavigation() {
+        assertEquals(map.ceilingKey("Bat"), "Bee");
+        assertEquals(map.ceilingKey("Bee"), "Bee");
+        assertEquals(map.higherKey("Bee"), "Cat");
+        assertEquals(map.floorKey("Dz"), "Dog");
+        assertEquals(map.lowerKey("Dog"), "Cat");
+        assertNull(map.lowerKey("Ant"));
+        assertNull(map.higherKey("Gnu"));
+    }
+
+    public void testRange() {
+        // Keys between "B" and "E" inclusive
+        int count = 0;
+        for (int i = map.ceilingIndex("B"), end = map.higherIndex("Eel"); i < end; i++) {
+            assertTrue(map.keyAt(i).compareTo("B") >= 0);
+            count++;
+        }
+        assertEquals(count, 4);
+    }
+
+    public void testSortedSet() {
+        final JsSortedSet<String> set = new JsSortedSet<>();
+        for (String name : NAMES) {
+            assertTrue(set.add(name));
+        }
+        assertFalse(set.add("Dog"));
+        assertEquals(set.first(), "Ant");
+        assertEquals(set.get(3), "Dog");
+        assertEquals(set.floor("Dz"), "Dog");
+        assertEquals(set.higherIndex("Gnu"), set.size());
+        assertTrue(set.remove("Dog"));
+        assertEquals(set.indexOf("Eel"), 3);
+    }
+}
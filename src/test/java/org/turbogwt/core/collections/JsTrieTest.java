@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Iterator;
+
+/**
+ * @author Danilo Reinert
+ */
+public class JsTrieTest extends GWTTestCase {
+
+    private JsTrie<String> trie;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        final JsArrayString keys = JavaScriptObject.createArray().cast();
+        keys.push("romane");
+        keys.push("romanus");
+        keys.push("romulus");
+        keys.push("rubens");
+        keys.push("ruber");
+        keys.push("rubicon");
+        keys.push("rubicundus");
+        keys.push("rom");
+        trie = JsTrie.fromJsArray(keys);
+    }
+
+    public void testGetPut() {
+        assertEquals(trie.size(), 8);
+        assertEquals(trie.get("ruber"), "ruber");
+        assertEquals(trie.get("rom"), "rom");
+        assertNull(trie.get("ro"));
+        assertNull(trie.get("romanes"));
+        assertFalse(trie.containsKey("rub"));
+
+        assertNull(trie.put("rub", "x"));
+        assertEquals(trie.put("rub", "y"), "x");
+        assertEquals(trie.get("rub"), "y");
+        assertEquals(trie.size(), 9);
+    }
+
+    public void testPrefixQueries() {
+        assertEquals(trie.keysWithPrefix("rom", 10).join(), "rom,romane,romanus,romulus");
+        assertEquals(trie.keysWithPrefix("rubi", 10).join(), "rubicon,rubicundus");
+        assertEquals(trie.keysWithPrefix("rube", 10).join(), "rubens,ruber");
+        assertEquals(trie.keysWithPrefix("r", 3).join(), "rom,romane,romanus");
+        assertEquals(trie.keysWithPrefix("x", 10).length(), 0);
+        assertEquals(trie.keysWithPrefix("rubx", 10).length(), 0);
+        assertEquals(trie.valuesWithPrefix("romu", 10).join(), "romulus");
+    }
+
+    public void testLongestPrefix() {
+        assertEquals(trie.longestPrefixOf("romanesque"), "romane");
+        assertEquals(trie.longestPrefixOf("romans"), "rom");
+        assertNull(trie.longestPrefixOf("ro"));
+        assertNull(trie.longestPrefixOf("abc"));
+    }
+
+    public void testOrderedIteration() {
+        final StringBuilder sb = new StringBuilder();
+        for (String key : trie) {
+            sb.append(key).append(' ');
+        }
+        assertEquals(sb.toString(), "rom romane romanus romulus rubens ruber rubicon rubicundus ");
+    }
+
+    public void testRemove() {
+        assertEquals(trie.remove("rom"), "rom");
+        assertNull(trie.remove("rom"));
+        assertNull(trie.remove("rub"));
+        assertEquals(trie.remove("romulus"), "romulus");
+        assertEquals(trie.size(), 6);
+        assertEquals(trie.keysWithPrefix("ro", 10).join(), "romane,romanus");
+        assertEquals(trie.get("romanus"), "romanus");
+
+        final Iterator<String> it = trie.iterator();
+        while (it.hasNext()) {
+            if (it.next().startsWith("rub")) it.remove();
+        }
+        assertEquals(trie.size(), 2);
+        assertEquals(trie.keysWithPrefix("", 10).join(), "romane,romanus");
+    }
+}
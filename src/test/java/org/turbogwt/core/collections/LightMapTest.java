@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * @author Danilo Reinert
+ */
+public class LightMapTest extends GWTTestCase {
+
+    private LightMap<Integer> map;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        map = new LightMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+    }
+
+    public void testKeySetIsLive() {
+        final Set<String> keys = map.keySet();
+        assertEquals(keys.size(), 3);
+
+        map.put("d", 4);
+        assertEquals(keys.size(), 4);
+        assertTrue(keys.contains("d"));
+
+        map.clear();
+        assertTrue(keys.isEmpty());
+        assertFalse(keys.iterator().hasNext());
+
+        map.put("e", 5);
+        assertEquals(keys.iterator().next(), "e");
+    }
+
+    public void testKeySetRemove() {
+        final Set<String> keys = map.keySet();
+        assertTrue(keys.remove("b"));
+        assertFalse(keys.remove("b"));
+        assertFalse(map.containsKey("b"));
+
+        final Iterator<String> it = keys.iterator();
+        while (it.hasNext()) {
+            if (it.next().equals("a")) it.remove();
+        }
+        assertEquals(map.size(), 1);
+        assertTrue(map.containsKey("c"));
+
+        try {
+            keys.add("z");
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    public void testValuesAreLive() {
+        final Collection<Integer> values = map.values();
+        map.put("b", 20);
+        assertTrue(values.contains(20));
+        assertFalse(values.contains(2));
+
+        int sum = 0;
+        for (Integer value : values) {
+            sum += value;
+        }
+        assertEquals(sum, 24);
+
+        assertTrue(values.remove(20));
+        assertFalse(map.containsKey("b"));
+        assertEquals(values.size(), 2);
+    }
+
+    public void testSnapshot() {
+        final JsArrayString keys = map.keySet().snapshot();
+        final JsArray<Integer> values = map.values().snapshot();
+        map.clear();
+
+        assertEquals(keys.join(), "a,b,c");
+        assertEquals(values.length(), 3);
+        assertEquals(values.get(2), Integer.valueOf(3));
+    }
+}
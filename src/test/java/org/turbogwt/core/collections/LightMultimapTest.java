@@ -0,0 +1,134 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Iterator;
+
+/**
+ * @author Danilo Reinert
+ */
+public class LightMultimapTest extends GWTTestCase {
+
+    private LightMultimap<String> multimap;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        multimap = new LightMultimap<>();
+        multimap.put("fruit", "apple");
+        multimap.put("fruit", "banana");
+        multimap.put("vegetable", "carrot");
+        multimap.putAll("fruit", JsArray.fromArray("cherry", "apple"));
+    }
+
+    public void testGroups() {
+        assertEquals(multimap.size(), 5);
+        assertEquals(multimap.keyCount(), 2);
+        assertEquals(multimap.size("fruit"), 4);
+        assertEquals(multimap.size("meat"), 0);
+        assertEquals(multimap.get("fruit").join(), "apple,banana,cherry,apple");
+        assertEquals(multimap.get("meat").length(), 0);
+        assertTrue(multimap.containsEntry("vegetable", "carrot"));
+        assertFalse(multimap.containsEntry("vegetable", "apple"));
+        assertEquals(multimap.keys().join(), "fruit,vegetable");
+        assertEquals(multimap.values().join(), "apple,banana,cherry,apple,carrot");
+    }
+
+    public void testPutAllRejectsNulls() {
+        try {
+            multimap.putAll("meat", JsArray.fromArray("beef", null));
+            fail();
+        } catch (NullPointerException e) {
+            assertFalse(multimap.containsKey("meat"));
+            assertEquals(multimap.size(), 5);
+        }
+    }
+
+    public void testRemove() {
+        assertTrue(multimap.remove("fruit", "apple"));
+        assertEquals(multimap.get("fruit").join(), "banana,cherry,apple");
+        assertFalse(multimap.remove("fruit", "carrot"));
+
+        assertTrue(multimap.remove("vegetable", "carrot"));
+        assertFalse(multimap.containsKey("vegetable"));
+
+        assertEquals(multimap.removeAll("fruit").join(), "banana,cherry,apple");
+        assertTrue(multimap.isEmpty());
+    }
+
+    public void testFlatIteration() {
+        final StringBuilder sb = new StringBuilder();
+        final Iterator<String> it = multimap.iterator();
+        while (it.hasNext()) {
+            final String value = it.next();
+            sb.append(value).append(' ');
+            if (value.equals("apple") || value.equals("carrot")) it.remove();
+        }
+        assertEquals(sb.toString(), "apple banana cherry apple carrot ");
+        assertEquals(multimap.size(), 2);
+        assertEquals(multimap.values().join(), "banana,cherry");
+        assertFalse(multimap.containsKey("vegetable"));
+    }
+
+    public void testGroupByProperty() {
+        final LightMultimap<JavaScriptObject> byCategory = LightMultimap.groupBy(products(), "category");
+        assertEquals(byCategory.size(), 4);
+        assertEquals(byCategory.keys().join(), "tools,food");
+        assertEquals(byCategory.size("tools"), 3);
+        assertEquals(getString(byCategory.get("food").get(0), "name"), "bread");
+
+        byCategory.put("food", byCategory.get("tools").get(0));
+        assertEquals(byCategory.size("food"), 2);
+    }
+
+    public void testSetMultimap() {
+        final LightSetMultimap<String> setMultimap = new LightSetMultimap<>();
+        assertTrue(setMultimap.put("fruit", "apple"));
+        assertFalse(setMultimap.put("fruit", "apple"));
+        assertTrue(setMultimap.put("vegetable", "apple"));
+        assertTrue(setMultimap.putAll("fruit", JsArray.fromArray("banana", "apple")));
+        assertEquals(setMultimap.get("fruit").join(), "apple,banana");
+        assertTrue(setMultimap.containsEntry("fruit", "banana"));
+
+        assertTrue(setMultimap.remove("fruit", "apple"));
+        assertFalse(setMultimap.containsEntry("fruit", "apple"));
+        assertTrue(setMultimap.put("fruit", "apple"));
+        assertEquals(setMultimap.size(), 4);
+
+        setMultimap.removeAll("fruit");
+        assertTrue(setMultimap.put("fruit", "banana"));
+        assertEquals(setMultimap.size(), 2);
+    }
+
+    private static native JsArray<JavaScriptObject> products() /*-{
+        return [
+            {name: "hammer", category: "tools"},
+            {name: "bread", category: "food"},
+            {name: "saw", category: "tools"},
+            {name: "drill", category: "tools"}
+        ];
+    }-*/;
+
+    private static native String getString(JavaScriptObject jso, String property) /*-{
+        return jso[property];
+    }-*/;
+}
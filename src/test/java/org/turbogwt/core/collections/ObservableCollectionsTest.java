@@ -0,0 +1,174 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Danilo Reinert
+ */
+public class ObservableCollectionsTest extends GWTTestCase {
+
+    private ObservableJsArrayList<String> list;
+    private ObservableLightMap<Integer> map;
+    private List<ListChange> listChanges;
+    private MapChangeSet mapChanges;
+    private int notifications;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        list = new ObservableJsArrayList<>();
+        list.addAll(Arrays.asList("a", "b", "c"));
+        list.fireChanges();
+        list.addListener(new ListChangeListener() {
+            @Override
+            public void onListChange(List<ListChange> changes) {
+                listChanges = changes;
+                notifications++;
+            }
+        });
+
+        map = new ObservableLightMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.fireChanges();
+        map.addListener(new MapChangeListener() {
+            @Override
+            public void onMapChange(MapChangeSet changes) {
+                mapChanges = changes;
+                notifications++;
+            }
+        });
+
+        listChanges = null;
+        mapChanges = null;
+        notifications = 0;
+    }
+
+    public void testListCoalescesAdjacentChanges() {
+        list.batch(new Scheduler.ScheduledCommand() {
+            @Override
+            public void execute() {
+                list.add("d");
+                list.add("e");
+                list.add(1, "x");
+            }
+        });
+        assertEquals(notifications, 1);
+        assertEquals(listChanges.size(), 2);
+        assertEquals(listChanges.get(0).getType(), ListChange.Type.INSERT);
+        assertEquals(listChanges.get(0).getIndex(), 3);
+        assertEquals(listChanges.get(0).getCount(), 2);
+        assertEquals(listChanges.get(1).getIndex(), 1);
+    }
+
+    public void testListRemovals() {
+        list.batch(new Scheduler.ScheduledCommand() {
+            @Override
+            public void execute() {
+                list.remove(1);
+                list.remove("c");
+                assertFalse(list.remove("z"));
+            }
+        });
+        assertEquals(notifications, 1);
+        assertEquals(listChanges.size(), 1);
+        assertEquals(listChanges.get(0).getType(), ListChange.Type.REMOVE);
+        assertEquals(listChanges.get(0).getIndex(), 1);
+        assertEquals(listChanges.get(0).getCount(), 2);
+    }
+
+    public void testNestedBatchFiresOnce() {
+        list.batch(new Scheduler.ScheduledCommand() {
+            @Override
+            public void execute() {
+                list.set(0, "A");
+                list.batch(new Scheduler.ScheduledCommand() {
+                    @Override
+                    public void execute() {
+                        list.set(1, "B");
+                    }
+                });
+                assertEquals(notifications, 0);
+            }
+        });
+        assertEquals(notifications, 1);
+        assertEquals(listChanges.size(), 1);
+        assertEquals(listChanges.get(0).getType(), ListChange.Type.SET);
+        assertEquals(listChanges.get(0).getCount(), 2);
+    }
+
+    public void testMapNetChanges() {
+        map.batch(new Scheduler.ScheduledCommand() {
+            @Override
+            public void execute() {
+                map.put("a", 10);
+                map.remove("b");
+                map.put("c", 3);
+                map.put("d", 4);
+                map.remove("d");
+            }
+        });
+        assertEquals(notifications, 1);
+        assertEquals(mapChanges.getUpdated().join(), "a");
+        assertEquals(mapChanges.getRemoved().join(), "b");
+        assertEquals(mapChanges.getAdded().join(), "c");
+    }
+
+    public void testMapClearAndNoOp() {
+        map.batch(new Scheduler.ScheduledCommand() {
+            @Override
+            public void execute() {
+                map.put("z", 0);
+                map.remove("z");
+            }
+        });
+        assertEquals(notifications, 0);
+
+        map.batch(new Scheduler.ScheduledCommand() {
+            @Override
+            public void execute() {
+                map.clear();
+            }
+        });
+        assertEquals(notifications, 1);
+        assertEquals(mapChanges.getRemoved().length(), 2);
+    }
+
+    public void testMapRejectedPutIsNotAChange() {
+        map.batch(new Scheduler.ScheduledCommand() {
+            @Override
+            public void execute() {
+                try {
+                    map.put("a", null);
+                    fail();
+                } catch (NullPointerException e) {
+                    // expected
+                }
+            }
+        });
+        assertEquals(notifications, 0);
+        assertNull(mapChanges);
+    }
+}
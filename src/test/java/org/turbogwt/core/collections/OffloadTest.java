@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayNumber;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.junit.client.GWTTestCase;
+
+/**
+ * @author Danilo Reinert
+ */
+public class OffloadTest extends GWTTestCase {
+
+    private Offload offload;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        offload = new Offload(new SyncOffloadExecutor());
+    }
+
+    public void testSortNumbers() {
+        final JsArrayNumber data = JsArrays.createFloat64(4);
+        data.set(0, 3);
+        data.set(1, 1);
+        data.set(2, 4);
+        data.set(3, 2);
+
+        final Result<JsArrayNumber> result = new Result<JsArrayNumber>();
+        offload.sort(data, true, result);
+        assertEquals(result.value.join(), "4,3,2,1");
+    }
+
+    public void testSortStrings() {
+        final Result<JsArrayString> result = new Result<JsArrayString>();
+        final JsArrayString data = JsArrays.fromArray("b", "c", "a");
+        offload.sort(data, false, result);
+        assertEquals(result.value.join(), "a,b,c");
+        assertEquals(data.join(), "b,c,a");
+    }
+
+    public void testSortBy() {
+        final Result<JsArray<JavaScriptObject>> result = new Result<JsArray<JavaScriptObject>>();
+        offload.sortBy(people(), "age", false, result);
+        assertEquals(name(result.value.get(0)), "Carl");
+        assertEquals(name(result.value.get(2)), "Bob");
+    }
+
+    public void testFilter() {
+        final Result<JsArray<JavaScriptObject>> result = new Result<JsArray<JavaScriptObject>>();
+        offload.filter(people(), FilterSpec.create().where("age", FilterSpec.Operator.GE, 30)
+                .where("team", FilterSpec.Operator.EQ, "red"), result);
+        assertEquals(result.value.length(), 1);
+        assertEquals(name(result.value.get(0)), "Bob");
+
+        final Result<JsArrayNumber> numbers = new Result<JsArrayNumber>();
+        offload.filter(JsArrays.fromArray(1.0, 5.0, 10.0), FilterSpec.create().where(FilterSpec.Operator.LT, 6),
+                numbers);
+        assertEquals(numbers.value.join(), "1,5");
+    }
+
+    public void testAggregate() {
+        final Result<Double> sum = new Result<Double>();
+        offload.aggregate(JsArrays.fromArray(1.0, 2.0, 3.0), Offload.Aggregation.SUM, sum);
+        assertEquals(sum.value, 6.0);
+
+        final Result<Double> max = new Result<Double>();
+        offload.aggregate(people(), "age", Offload.Aggregation.MAX, max);
+        assertEquals(max.value, 40.0);
+
+        final Result<Double> mean = new Result<Double>();
+        offload.aggregate(JsArray.create(), null, Offload.Aggregation.MEAN, mean);
+        assertTrue(mean.value.isNaN());
+    }
+
+    public void testGroupAggregate() {
+        final Result<JsMapNumber> result = new Result<JsMapNumber>();
+        offload.groupAggregate(people(), "team", "age", Offload.Aggregation.MEAN, result);
+        assertEquals(result.value.get("red"), 30.0);
+        assertEquals(result.value.get("blue"), 10.0);
+
+        final Result<JsMapNumber> counts = new Result<JsMapNumber>();
+        offload.groupAggregate(people(), "team", null, Offload.Aggregation.COUNT, counts);
+        assertEquals(counts.value.get("red"), 2.0);
+    }
+
+    public void testParse() {
+        final Result<JsArray<JavaScriptObject>> result = new Result<JsArray<JavaScriptObject>>();
+        offload.parse("[{\"name\":\"Ann\"}]", result);
+        assertEquals(name(result.value.get(0)), "Ann");
+    }
+
+    public void testFailure() {
+        final Result<JavaScriptObject> result = new Result<JavaScriptObject>();
+        offload.parse("{invalid", result);
+        assertNull(result.value);
+        assertNotNull(result.error);
+    }
+
+    private static native JsArray<JavaScriptObject> people() /*-{
+        return [
+            {name: 'Ann', age: 20, team: 'red'},
+            {name: 'Bob', age: 40, team: 'red'},
+            {name: 'Carl', age: 10, team: 'blue'}
+        ];
+    }-*/;
+
+    private static native String name(JavaScriptObject person) /*-{
+        return person.name;
+    }-*/;
+
+    private static class Result<T> implements OffloadCallback<T> {
+
+        T value;
+        Throwable error;
+
+        @Override
+        public void onSuccess(T result) {
+            value = result;
+        }
+
+        @Override
+        public void onFailure(Throwable e) {
+            error = e;
+        }
+    }
+}
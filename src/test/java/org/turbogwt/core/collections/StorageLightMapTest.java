@@ -0,0 +1,177 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.collections;
+
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.junit.client.GWTTestCase;
+
+/**
+ * @author Danilo Reinert
+ */
+public class StorageLightMapTest extends GWTTestCase {
+
+    private MemoryStorage storage;
+    private StorageLightMap<String> map;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.collections.CollectionsTest";
+    }
+
+    public void gwtSetUp() {
+        storage = new MemoryStorage();
+        storage.setItem("cache.a", "1");
+        storage.setItem("cache.b", "2");
+        storage.setItem("other.c", "3");
+        map = new StorageLightMap<>(storage, "cache.", StorageLightMap.stringSerializer());
+    }
+
+    public void testLazyLoad() {
+        assertEquals(map.size(), 2);
+        assertTrue(map.containsKey("a"));
+        assertFalse(map.containsKey("c"));
+        assertEquals(map.get("a"), "1");
+        assertNull(map.get("c"));
+
+        // A value removed from the storage by someone else is simply missing
+        storage.removeItem("cache.b");
+        assertNull(map.get("b"));
+        assertEquals(map.size(), 1);
+    }
+
+    public void testFlushWritesOnlyChanges() {
+        map.put("a", "10");
+        map.put("d", "4");
+        map.put("d", "5");
+        assertEquals(map.remove("b"), "2");
+        assertTrue(map.isDirty());
+        assertEquals(storage.getItem("cache.a"), "1");
+
+        final int writes = storage.getWriteCount();
+        map.flush();
+        assertFalse(map.isDirty());
+        assertEquals(storage.getWriteCount() - writes, 3);
+        assertEquals(storage.getItem("cache.a"), "10");
+        assertEquals(storage.getItem("cache.d"), "5");
+        assertNull(storage.getItem("cache.b"));
+        assertEquals(storage.getItem("other.c"), "3");
+
+        map.flush();
+        assertEquals(storage.getWriteCount() - writes, 3);
+    }
+
+    public void testFailedFlushKeepsChanges() {
+        final FullStorage full = new FullStorage();
+        final StorageLightMap<String> failing = new StorageLightMap<>(full, "cache.",
+                StorageLightMap.stringSerializer());
+        failing.put("a", "1");
+        failing.put("b", "2");
+
+        full.full = true;
+        try {
+            failing.flush();
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(failing.isDirty());
+        }
+
+        full.full = false;
+        failing.flush();
+        assertFalse(failing.isDirty());
+        assertEquals(full.getItem("cache.a"), "1");
+        assertEquals(full.getItem("cache.b"), "2");
+    }
+
+    public void testKeysAndClearDoNotLoad() {
+        final CountingSerializer serializer = new CountingSerializer();
+        final StorageLightMap<String> lazy = new StorageLightMap<>(storage, "cache.", serializer);
+        lazy.put("d", "4");
+
+        assertEquals(lazy.keySet().size(), 3);
+        assertTrue(lazy.keySet().contains("b"));
+        assertEquals(lazy.keySet().snapshot().join(), "d,a,b");
+        int count = 0;
+        for (String ignored : lazy.keySet()) {
+            count++;
+        }
+        assertEquals(count, 3);
+        assertEquals(serializer.reads, 0);
+
+        lazy.clear();
+        assertEquals(serializer.reads, 0);
+        assertTrue(lazy.isEmpty());
+        lazy.flush();
+        assertNull(storage.getItem("cache.a"));
+        assertNull(storage.getItem("cache.d"));
+        assertEquals(storage.getItem("other.c"), "3");
+    }
+
+    public void testReload() {
+        map.put("e", "5");
+        map.clear();
+        map.put("f", "6");
+        map.flush();
+
+        final StorageLightMap<String> reloaded = new StorageLightMap<>(storage, "cache.",
+                StorageLightMap.stringSerializer());
+        assertEquals(reloaded.size(), 1);
+        assertEquals(reloaded.keySet().iterator().next(), "f");
+        assertEquals(reloaded.get("f"), "6");
+    }
+
+    public void testBackgroundFlush() {
+        final StorageLightMap<String> fast = new StorageLightMap<>(storage, "cache.",
+                StorageLightMap.stringSerializer(), 10);
+        fast.put("g", "7");
+        delayTestFinish(2000);
+        Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                assertEquals(storage.getItem("cache.g"), "7");
+                assertFalse(fast.isDirty());
+                finishTest();
+                return false;
+            }
+        }, 200);
+    }
+
+    private static class FullStorage extends MemoryStorage {
+
+        boolean full;
+
+        @Override
+        public void setItem(String key, String value) {
+            if (full) throw new IllegalStateException("Quota exceeded");
+            super.setItem(key, value);
+        }
+    }
+
+    private static class CountingSerializer implements StorageLightMap.Serializer<String> {
+
+        int reads;
+
+        @Override
+        public String serialize(String value) {
+            return value;
+        }
+
+        @Override
+        public String deserialize(String text) {
+            reads++;
+            return text;
+        }
+    }
+}
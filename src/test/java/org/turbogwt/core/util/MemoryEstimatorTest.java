@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.util;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Danilo Reinert
+ */
+public class MemoryEstimatorTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.util.UtilTest";
+    }
+
+    public void testOverlay() {
+        final MemoryEstimate estimate = MemoryEstimator.estimate(person());
+        // Object with 3 properties, plus the nested array with 2 elements
+        assertEquals(estimate.getCount(MemoryEstimate.OBJECT), 1.0);
+        assertEquals(estimate.getCount(MemoryEstimate.ARRAY), 1.0);
+        assertEquals(estimate.getBytes(MemoryEstimate.OBJECT), 16.0 + 8 * 3);
+        assertEquals(estimate.getBytes(MemoryEstimate.ARRAY), 16.0 + 8 * 2);
+        // Keys "name", "weight", "tags" and values "John", "a", "b"
+        assertEquals(estimate.getCount(MemoryEstimate.STRING), 6.0);
+        assertEquals(estimate.getBytes(MemoryEstimate.NUMBER), 12.0);
+        assertEquals(estimate.getTotal(), estimate.getBytes(MemoryEstimate.OBJECT)
+                + estimate.getBytes(MemoryEstimate.ARRAY) + estimate.getBytes(MemoryEstimate.STRING)
+                + estimate.getBytes(MemoryEstimate.NUMBER));
+    }
+
+    public void testSharedKeys() {
+        final MemoryEstimate estimate = MemoryEstimator.estimate(rows(10));
+        // Keys "id" and "name" are counted once, plus the 10 name values
+        assertEquals(estimate.getCount(MemoryEstimate.STRING), 12.0);
+    }
+
+    public void testKeyArray() {
+        final MemoryEstimate estimate = MemoryEstimator.estimate(jsMap());
+        // The hidden key array of a JsMap
+        assertEquals(estimate.getCount(MemoryEstimate.ARRAY), 1.0);
+        assertEquals(estimate.getBytes(MemoryEstimate.ARRAY), 16.0 + 8 * 2);
+        assertEquals(estimate.getCount(MemoryEstimate.STRING), 2.0);
+    }
+
+    public void testCycles() {
+        final MemoryEstimate estimate = MemoryEstimator.estimate(cycle());
+        assertEquals(estimate.getCount(MemoryEstimate.OBJECT), 2.0);
+    }
+
+    public void testSampling() {
+        final JavaScriptObject big = strings(1000);
+        final MemoryEstimate exact = MemoryEstimator.estimate(big);
+        final MemoryEstimate sampled = MemoryEstimator.estimate(big, 10);
+        assertEquals(sampled.getBytes(MemoryEstimate.ARRAY), exact.getBytes(MemoryEstimate.ARRAY));
+        assertEquals(sampled.getCount(MemoryEstimate.STRING), 1000.0, 1e-6);
+        assertEquals(sampled.getTotal(), exact.getTotal(), exact.getTotal() * 0.01);
+    }
+
+    public void testJavaCollections() {
+        final Map<String, List<String>> map = new HashMap<>();
+        final List<String> list = new ArrayList<>();
+        list.add("abc");
+        map.put("key", list);
+        map.put("same", list);
+
+        final MemoryEstimate estimate = MemoryEstimator.estimate(map);
+        assertTrue(estimate.getTotal() > 0);
+        assertTrue(estimate.getCount(MemoryEstimate.STRING) >= 3);
+    }
+
+    private static native JavaScriptObject person() /*-{
+        return {name: "John", weight: 72.5, tags: ["a", "b"]};
+    }-*/;
+
+    private static native JavaScriptObject rows(int n) /*-{
+        var a = [];
+        for (var i = 0; i < n; i++) a.push({id: i, name: "row" + i});
+        return a;
+    }-*/;
+
+    private static native JavaScriptObject jsMap() /*-{
+        var o = {a: true, b: true};
+        Object.defineProperties(o, {__props__: {enumerable: false, writable: true, value: ["a", "b"]}});
+        return o;
+    }-*/;
+
+    private static native JavaScriptObject cycle() /*-{
+        var a = {}, b = {a: a};
+        a.b = b;
+        return a;
+    }-*/;
+
+    private static native JavaScriptObject strings(int n) /*-{
+        var a = [];
+        for (var i = 0; i < n; i++) a.push("value" + (i % 10));
+        return a;
+    }-*/;
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.core.util;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
+import com.google.gwt.core.client.JsArrayNumber;
+import com.google.gwt.junit.client.GWTTestCase;
+
+/**
+ * @author Danilo Reinert
+ */
+public class NumberCodecTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.core.util.UtilTest";
+    }
+
+    public void testInt32() {
+        final JsArrayInteger values = ints(0, 1, -1, 256, Integer.MAX_VALUE, Integer.MIN_VALUE);
+        final String encoded = NumberCodec.encodeInt32(values);
+        assertEquals(encoded.length(), 32);
+        assertEquals(NumberCodec.decodeInt32(encoded).join(), values.join());
+
+        // Little-endian layout
+        assertEquals(NumberCodec.encodeInt32(ints(1)), "AQAAAA==");
+        assertEquals(NumberCodec.decodeInt32("").length(), 0);
+    }
+
+    public void testFloat64() {
+        final JsArrayNumber values = JavaScriptObject.createArray().cast();
+        values.push(0);
+        values.push(-1.5);
+        values.push(Math.PI);
+        values.push(1e300);
+        values.push(Double.NaN);
+        final JsArrayNumber decoded = NumberCodec.decodeFloat64(NumberCodec.encodeFloat64(values));
+        assertEquals(decoded.length(), 5);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(decoded.get(i), values.get(i));
+        }
+        assertTrue(Double.isNaN(decoded.get(4)));
+
+        assertEquals(NumberCodec.encodeFloat64(values).length(), 56);
+    }
+
+    public void testDeltaVarint() {
+        final JsArrayInteger ids = ints(1000, 1001, 1003, 1010, 5000, 4000, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        final String encoded = NumberCodec.encodeDeltaVarint(ids);
+        assertEquals(NumberCodec.decodeDeltaVarint(encoded).join(), ids.join());
+
+        final JsArrayInteger sorted = JavaScriptObject.createArray().cast();
+        for (int i = 0; i < 300; i++) {
+            sorted.push(100000 + i * 3);
+        }
+        final String compact = NumberCodec.encodeDeltaVarint(sorted);
+        assertTrue(compact.length() < NumberCodec.encodeInt32(sorted).length() / 3);
+        assertEquals(NumberCodec.decodeDeltaVarint(compact).join(), sorted.join());
+    }
+
+    public void testInvalidInput() {
+        try {
+            NumberCodec.decodeInt32("AQAA");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            NumberCodec.decodeInt32("A?AAAA==");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static JsArrayInteger ints(int... values) {
+        final JsArrayInteger array = JavaScriptObject.createArray().cast();
+        for (int value : values) {
+            array.push(value);
+        }
+        return array;
+    }
+}
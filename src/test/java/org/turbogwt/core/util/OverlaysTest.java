@@ -16,6 +16,11 @@
 package org.turbogwt.core.util;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsArrayInteger;
+import com.google.gwt.core.client.JsArrayMixed;
+import com.google.gwt.core.client.JsArrayNumber;
+import com.google.gwt.core.client.JsArrayString;
 import com.google.gwt.junit.client.GWTTestCase;
 
 import java.util.Collection;
@@ -111,6 +116,62 @@ public class OverlaysTest extends GWTTestCase {
         assertEquals(expected, actual);
     }
 
+    public void testReadProperties() {
+        final JsArrayMixed values = Overlays.readProperties(person, "name", "age", "active", "missing");
+        assertEquals(values.length(), 4);
+        assertEquals(values.getString(0), "John Doe");
+        assertEquals(values.getNumber(1), 30.0);
+        assertTrue(values.getBoolean(2));
+        assertNull(values.getObject(3));
+        assertTrue(isNull(values, 3));
+    }
+
+    public void testPluck() {
+        final JavaScriptObject rows = rows();
+
+        final JsArrayNumber prices = Overlays.pluckDouble(rows, "price");
+        assertEquals(prices.length(), 3);
+        assertEquals(prices.get(0), 1.5);
+        assertTrue(Double.isNaN(prices.get(2)));
+
+        final JsArrayInteger stock = Overlays.pluckInt(rows, "stock");
+        assertEquals(stock.get(1), 7);
+        assertEquals(stock.get(2), 0);
+
+        final JsArrayString names = Overlays.pluckString(rows, "name");
+        assertEquals(names.join(), "pen,ink,pad");
+        final JsArrayString priceTexts = Overlays.pluckString(rows, "price");
+        assertEquals(priceTexts.get(1), "2");
+        assertNull(priceTexts.get(2));
+
+        final JsArray<JavaScriptObject> tags = Overlays.pluckObject(rows, "tag");
+        assertEquals(Overlays.getString(tags.get(0), "code"), "w");
+        assertNull(tags.get(1));
+    }
+
+    public void testPluckColumns() {
+        final JsArray<JavaScriptObject> columns = Overlays.pluckColumns(rows(), "name", "price");
+        assertEquals(columns.length(), 2);
+
+        final JsArrayString names = columns.get(0).cast();
+        final JsArrayNumber prices = columns.get(1).cast();
+        assertEquals(names.get(2), "pad");
+        assertEquals(prices.get(1), 2.0);
+        assertEquals(prices.length(), 3);
+    }
+
+    private static native boolean isNull(JavaScriptObject array, int index) /*-{
+        return array[index] === null;
+    }-*/;
+
+    private static native JavaScriptObject rows() /*-{
+        return [
+            {name: 'pen', price: 1.5, stock: 3, tag: {code: 'w'}},
+            {name: 'ink', price: 2, stock: 7},
+            {name: 'pad'}
+        ];
+    }-*/;
+
     private static <E extends Collection<String>> E accumulateArray(String[] array, E accumulator) {
 //        for (int i = 0; i < array.length(); i++) {
 //            String name = array.get(i);
@@ -27,6 +27,8 @@ public class UtilGwtTestSuite {
     public static Test suite() {
         GWTTestSuite suite = new GWTTestSuite("Util GWT Test Suite");
 
+        suite.addTestSuite(MemoryEstimatorTest.class);
+        suite.addTestSuite(NumberCodecTest.class);
         suite.addTestSuite(OverlaysTest.class);
 
         return suite;